@@ -1,49 +1,57 @@
 package direct.supplier.holder._constantholder;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
+import direct.supplier.holder.StackThreadLocalHolder;
+
 /**
  * The switchboard will provide the supplier for the value.
  * 
+ * The switchboard can be replaced with {@link #using(Switchboard, Supplier)} only for the current thread so concurrent
+ *   tests (or requests) do not see one another's switchboards.
+ * 
  * @author NawaMan
  **/
 public class Switchboard {
     
     /** The switchboard instance. */
-    private static Switchboard instance = new Switchboard();
+    private static final Switchboard instance = new Switchboard();
+    
+    /** The replacing switchboards of each thread. */
+    private static final StackThreadLocalHolder<Switchboard> replacements = StackThreadLocalHolder.of(()->instance);
+    
+    /** The number of the actions running with a replacing switchboard on all the threads. */
+    private static final AtomicInteger replacementCount = new AtomicInteger();
     
     /** Singleton instance */
     public static Switchboard getInstance() {
-        return replaceSwitchboard(null);
+        return switchboard();
     }
     
     /** Singleton instance */
     public static Switchboard switchboard() {
-        return replaceSwitchboard(null);
+        if (replacementCount.get() == 0) {
+            return instance;
+        }
+        final Switchboard replacement = replacements.get();
+        return (replacement != null) ? replacement : instance;
     }
     
     /**
-     * Change and returns the instance.
+     * Get the result of the action with the switchboard replaced by the given one on the current thread.
      **/
-    protected static Switchboard replaceSwitchboard(
-            final Switchboard instance) {
-        if (instance != null) {
-            Switchboard.instance = instance;
-        }
-        return Switchboard.instance;
-    }
-    
     public static <T> T using(
             final Switchboard instance,
             final Supplier<T> action) {
-        Switchboard prevValue = Switchboard.instance;
+        replacementCount.incrementAndGet();
+        final StackThreadLocalHolder.Scope scope = replacements.pushScope(instance);
         try {
-            replaceSwitchboard(instance);
-            T result = action.get();
-            return result;
+            return action.get();
         } finally {
-            replaceSwitchboard(prevValue);
-        } 
+            scope.close();
+            replacementCount.decrementAndGet();
+        }
     }
     
     public Switchboard() {
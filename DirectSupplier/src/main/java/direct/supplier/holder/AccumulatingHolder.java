@@ -0,0 +1,151 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Accumulating holder holds a {@code long} accumulated from many threads -- counters, totals, maximums and the like.
+ * 
+ * The updates are striped over padded cells (as {@link LongAccumulator}) so the threads updating at the same time do
+ *   not contend on one variable (or one cache line).
+ * The cells are merged when the value is read so the reads are slower than the updates and the value read while it
+ *   is being updated is not an atomic snapshot.
+ * 
+ * The reducer must be associative and commutative as the order of the accumulation is not defined.
+ * 
+ * <pre>
+ * AccumulatingHolder requestCount = AccumulatingHolder.sum();
+ * ...
+ * requestCount.increment();
+ * </pre>
+ * 
+ * @author NawaMan
+ **/
+public class AccumulatingHolder
+            implements LongSupplier {
+    
+    private final LongAccumulator accumulator;
+    
+    private final long identity;
+    
+    /**
+     * Construct the holder with the reducer and its identity.
+     * 
+     * @param reducer
+     *          the associative and commutative reducer.
+     * @param identity
+     *          the identity of the reducer (the initial value).
+     **/
+    public AccumulatingHolder(
+            final LongBinaryOperator reducer,
+            final long               identity) {
+        this.accumulator = new LongAccumulator(requireNonNull(reducer), identity);
+        this.identity    = identity;
+    }
+    
+    /**
+     * Returns the accumulated value.
+     * 
+     * {@inheritDoc}
+     **/
+    @Override
+    public final long getAsLong() {
+        return this.accumulator.get();
+    }
+    
+    /**
+     * Accumulate the given value.
+     * 
+     * @param value  the value.
+     **/
+    public final void accumulate(
+            final long value) {
+        this.accumulator.accumulate(value);
+    }
+    
+    /**
+     * Accumulate one -- for counting with {@link #sum()}.
+     **/
+    public final void increment() {
+        this.accumulator.accumulate(1L);
+    }
+    
+    /**
+     * Returns the identity of the reducer -- the value when nothing is accumulated.
+     * 
+     * @return  the identity.
+     **/
+    public final long getIdentity() {
+        return this.identity;
+    }
+    
+    /**
+     * Reset the value to the identity.
+     * 
+     * The accumulations concurrent to the reset may or may not be reset.
+     **/
+    public final void reset() {
+        this.accumulator.reset();
+    }
+    
+    /**
+     * Returns the accumulated value and reset it to the identity -- for example, to collect the counts per interval.
+     * 
+     * The accumulations concurrent to this may or may not be counted and reset.
+     * 
+     * @return  the accumulated value.
+     **/
+    public final long getThenReset() {
+        return this.accumulator.getThenReset();
+    }
+    
+    @Override
+    public String toString() {
+        return Long.toString(getAsLong());
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code AccumulatingHolder} of the sum.
+     **/
+    public static AccumulatingHolder sum() {
+        return new AccumulatingHolder(Long::sum, 0L);
+    }
+    
+    /**
+     * Create and return a new {@code AccumulatingHolder} of the maximum.
+     **/
+    public static AccumulatingHolder max() {
+        return new AccumulatingHolder(Math::max, Long.MIN_VALUE);
+    }
+    
+    /**
+     * Create and return a new {@code AccumulatingHolder} of the minimum.
+     **/
+    public static AccumulatingHolder min() {
+        return new AccumulatingHolder(Math::min, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Create and return a new {@code AccumulatingHolder} with the reducer.
+     **/
+    public static AccumulatingHolder accumulating(
+            final LongBinaryOperator reducer,
+            final long               identity) {
+        return new AccumulatingHolder(reducer, identity);
+    }
+    
+    /**
+     * Create and return a new {@code AccumulatingHolder} with the reducer.
+     **/
+    public static AccumulatingHolder of(
+            final LongBinaryOperator reducer,
+            final long               identity) {
+        return new AccumulatingHolder(reducer, identity);
+    }
+    
+}
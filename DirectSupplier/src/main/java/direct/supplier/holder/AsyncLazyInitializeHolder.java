@@ -0,0 +1,188 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Async lazy initialize holder initializes the value on the given executor.
+ * 
+ * The initialization starts on the first request -- {@link #get()}, {@link #future()} or {@link #prewarm()} -- and
+ *   runs on the executor (which can be a virtual-thread-per-task executor).
+ * {@link #prewarm()} and {@link #future()} do not block so the initialization of many holders can be done in parallel
+ *   (see {@link PrewarmGroup}) while {@link #get()} waits for the value.
+ * 
+ * Like {@link LazyInitializeHolder}, the value is only initialized once.
+ * If the initialization fails, the threads waiting for it get an {@link InitializationException} and the next request
+ *   starts a new initialization.
+ * 
+ * @author NawaMan
+ **/
+public class AsyncLazyInitializeHolder<V>
+                implements Supplier<V> {
+    
+    private final AtomicReference<CompletableFuture<V>> future = new AtomicReference<>();
+    
+    private final Supplier<? extends V> valueProducer;
+    
+    private final Executor executor;
+    
+    private volatile Thread producingThread = null;
+    
+    /**
+     * Construct the holder with the producer of the value. The value will be initialized on the common pool.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     **/
+    public AsyncLazyInitializeHolder(
+            final Supplier<? extends V> valueProducer) {
+        this(valueProducer, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Construct the holder with the producer of the value and the executor to initialize the value on.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     * @param executor
+     *          the executor.
+     **/
+    public AsyncLazyInitializeHolder(
+            final Supplier<? extends V> valueProducer,
+            final Executor              executor) {
+        this.valueProducer = requireNonNull(valueProducer);
+        this.executor      = requireNonNull(executor);
+    }
+    
+    /**
+     * Returns the value held in this holder -- waiting for the initialization if needed.
+     * 
+     * {@inheritDoc}
+     **/
+    @Override
+    public final V get() {
+        final CompletableFuture<V> future = ensureStarted();
+        if (!future.isDone() && (this.producingThread == Thread.currentThread())) {
+            throw new IllegalStateException("Recursive initialization: the producer requires its own value.");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            throw new InitializationException("Initialization failed.", exception.getCause());
+        }
+    }
+    
+    /**
+     * Starts the initialization if it has not been started and returns a future of the value.
+     * 
+     * Completing or cancelling the returned future does not affect the holder.
+     * 
+     * @return the future of the value.
+     **/
+    public final CompletableFuture<V> future() {
+        return ensureStarted().thenApply(Function.identity());
+    }
+    
+    /**
+     * Starts the initialization if it has not been started. This method returns immediately.
+     * 
+     * @return the future of the value.
+     **/
+    public final CompletableFuture<V> prewarm() {
+        return future();
+    }
+    
+    /**
+     * Check if the value was successfully initialized.
+     * 
+     * @return {@code true} if the value is available.
+     **/
+    public final boolean isInitialized() {
+        final CompletableFuture<V> future = this.future.get();
+        return (future != null)
+            && future.isDone()
+            && !future.isCompletedExceptionally();
+    }
+    
+    private CompletableFuture<V> ensureStarted() {
+        while (true) {
+            final CompletableFuture<V> current = this.future.get();
+            if ((current != null) && !current.isCompletedExceptionally()) {
+                return current;
+            }
+            
+            final CompletableFuture<V> next = new CompletableFuture<>();
+            if (this.future.compareAndSet(current, next)) {
+                start(next);
+                return next;
+            }
+        }
+    }
+    
+    private void start(
+            final CompletableFuture<V> next) {
+        try {
+            this.executor.execute(()->initialize(next));
+        } catch (RejectedExecutionException exception) {
+            next.completeExceptionally(exception);
+        }
+    }
+    
+    private void initialize(
+            final CompletableFuture<V> next) {
+        this.producingThread = Thread.currentThread();
+        try {
+            final V value = this.valueProducer.get();
+            next.complete(value);
+        } catch (RuntimeException | Error exception) {
+            next.completeExceptionally(exception);
+        } finally {
+            this.producingThread = null;
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code AsyncLazyInitializeHolder}.
+     **/
+    public static <T> AsyncLazyInitializeHolder<T> asyncLazyInitialize(
+            final Supplier<? extends T> initializer,
+            final Executor              executor) {
+        return new AsyncLazyInitializeHolder<T>(initializer, executor);
+    }
+    
+    /**
+     * Create and return a new {@code AsyncLazyInitializeHolder}.
+     **/
+    public static <T> AsyncLazyInitializeHolder<T> of(
+            final Supplier<? extends T> initializer,
+            final Executor              executor) {
+        return new AsyncLazyInitializeHolder<T>(initializer, executor);
+    }
+    
+    /**
+     * Create and return a new {@code AsyncLazyInitializeHolder} that initializes on the common pool.
+     **/
+    public static <T> AsyncLazyInitializeHolder<T> asyncLazyInitialize(
+            final Supplier<? extends T> initializer) {
+        return new AsyncLazyInitializeHolder<T>(initializer);
+    }
+    
+    /**
+     * Create and return a new {@code AsyncLazyInitializeHolder} that initializes on the common pool.
+     **/
+    public static <T> AsyncLazyInitializeHolder<T> of(
+            final Supplier<? extends T> initializer) {
+        return new AsyncLazyInitializeHolder<T>(initializer);
+    }
+    
+}
@@ -0,0 +1,244 @@
+package direct.supplier.holder;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BooleanSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Changeable holder of {@code boolean} -- {@link ChangeableHolder} without boxing.
+ * 
+ * If a key is assigned, the key must be used to perform the changes -- as {@link ChangeableHolder}.
+ * All the changes are atomic and lock free and none of them allocates.
+ * Unlike {@link ChangeableHolder}, the changes are not stamped nor can be subscribed to.
+ * The function of {@link #updateAndGet(UnaryOperator)} takes and returns {@link Boolean} but boxing a boolean never
+ *   allocates.
+ * 
+ * @author NawaMan
+ **/
+public class BooleanChangeableHolder
+        implements BooleanSupplier {
+    
+    private static final AtomicIntegerFieldUpdater<BooleanChangeableHolder> updater
+            = AtomicIntegerFieldUpdater.newUpdater(BooleanChangeableHolder.class, "value");
+    
+    private volatile int value;
+    
+    private final Object key;
+    
+    /**
+     * Construct a holder with a key. If the key is {@code ChangeableHolder.NOKEY}, then no key is assigned.
+     * 
+     * @param  key    the key.
+     * @param  value  the initial value.
+     */
+    public BooleanChangeableHolder(
+            final Object  key,
+            final boolean value) {
+        this.key   = key;
+        this.value = (value ? 1 : 0);
+    }
+    
+    /**
+     * Returns the value.
+     * 
+     * {@inheritDoc}
+     */
+    @Override
+    public final boolean getAsBoolean() {
+        return (this.value != 0);
+    }
+    
+    /**
+     * Given no key was assigned. Change the value.
+     * 
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if a key was assigned.
+     */
+    public final boolean set(
+            final boolean value) {
+        if (this.key != ChangeableHolder.NOKEY) {
+            return false;
+        }
+        this.value = (value ? 1 : 0);
+        return true;
+    }
+    
+    /**
+     * Given a key was assigned. Change the value.
+     * 
+     * @param  key    the key.
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if the key does not match.
+     */
+    public final boolean set(
+            final Object  key,
+            final boolean value) {
+        if (!isMatchedKey(key)) {
+            return false;
+        }
+        this.value = (value ? 1 : 0);
+        return true;
+    }
+    
+    /**
+     * Given no key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final boolean expectedValue,
+            final boolean newValue) {
+        return (this.key == ChangeableHolder.NOKEY)
+            && updater.compareAndSet(this, (expectedValue ? 1 : 0), (newValue ? 1 : 0));
+    }
+    
+    /**
+     * Given a key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  key            the key.
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final Object  key,
+            final boolean expectedValue,
+            final boolean newValue) {
+        return isMatchedKey(key)
+            && updater.compareAndSet(this, (expectedValue ? 1 : 0), (newValue ? 1 : 0));
+    }
+    
+    /**
+     * Given no key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if a key was assigned.
+     */
+    public final boolean updateAndGet(
+            final UnaryOperator<Boolean> function) {
+        checkNoKey();
+        return doUpdateAndGet(function);
+    }
+    
+    /**
+     * Given a key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  key       the key.
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if the key does not match.
+     */
+    public final boolean updateAndGet(
+            final Object                 key,
+            final UnaryOperator<Boolean> function) {
+        checkKey(key);
+        return doUpdateAndGet(function);
+    }
+    
+    /**
+     * Given no key was assigned. Negate the value atomically.
+     * 
+     * @return the new value.
+     * @throws IllegalStateException  if a key was assigned.
+     */
+    public final boolean toggleAndGet() {
+        checkNoKey();
+        return doToggleAndGet();
+    }
+    
+    /**
+     * Given a key was assigned. Negate the value atomically.
+     * 
+     * @param  key  the key.
+     * @return the new value.
+     * @throws IllegalStateException  if the key does not match.
+     */
+    public final boolean toggleAndGet(
+            final Object key) {
+        checkKey(key);
+        return doToggleAndGet();
+    }
+    
+    private boolean doToggleAndGet() {
+        while (true) {
+            final int current = this.value;
+            if (updater.compareAndSet(this, current, current ^ 1)) {
+                return (current == 0);
+            }
+        }
+    }
+    
+    private boolean doUpdateAndGet(
+            final UnaryOperator<Boolean> function) {
+        while (true) {
+            final int current  = this.value;
+            final boolean newValue = function.apply((current != 0));
+            if (updater.compareAndSet(this, current, (newValue ? 1 : 0))) {
+                return newValue;
+            }
+        }
+    }
+    
+    private boolean isMatchedKey(
+            final Object key) {
+        return (this.key != ChangeableHolder.NOKEY) && Objects.equals(this.key, key);
+    }
+    
+    private void checkNoKey() {
+        if (this.key != ChangeableHolder.NOKEY) {
+            throw new IllegalStateException("A key was assigned.");
+        }
+    }
+    
+    private void checkKey(
+            final Object key) {
+        if (!isMatchedKey(key)) {
+            throw new IllegalStateException("The key does not match.");
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code BooleanChangeableHolder}.
+     **/
+    public static BooleanChangeableHolder changeable(
+            final Object  key,
+            final boolean value) {
+        return of(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code BooleanChangeableHolder}.
+     **/
+    public static BooleanChangeableHolder of(
+            final Object  key,
+            final boolean value) {
+        return new BooleanChangeableHolder(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code BooleanChangeableHolder} without a key.
+     **/
+    public static BooleanChangeableHolder changeable(
+            final boolean value) {
+        return of(ChangeableHolder.NOKEY, value);
+    }
+    
+    /**
+     * Create and return a new {@code BooleanChangeableHolder} without a key.
+     **/
+    public static BooleanChangeableHolder of(
+            final boolean value) {
+        return new BooleanChangeableHolder(ChangeableHolder.NOKEY, value);
+    }
+    
+}
@@ -0,0 +1,54 @@
+package direct.supplier.holder;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Constant holder of {@code boolean} -- {@link ConstantHolder} without boxing.
+ * 
+ * @author NawaMan
+ **/
+public class BooleanConstantHolder
+            implements BooleanSupplier {
+    
+    private final boolean value;
+    
+    /**
+     * Construct the holder with a value.
+     * 
+     * @param value
+     *          the value.
+     **/
+    public BooleanConstantHolder(
+            final boolean value) {
+        this.value = value;
+    }
+    
+    /**
+     * Returns the value held in this holder.
+     * 
+     * {@inheritDoc}
+     **/
+    @Override
+    public final boolean getAsBoolean() {
+        return this.value;
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code BooleanConstantHolder}.
+     **/
+    public static BooleanConstantHolder constant(
+            final boolean value) {
+        return of(value);
+    }
+    
+    /**
+     * Create and return a new {@code BooleanConstantHolder}.
+     **/
+    public static BooleanConstantHolder of(
+            final boolean value) {
+        return new BooleanConstantHolder(value);
+    }
+    
+}
@@ -0,0 +1,90 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Lazy initialize holder of {@code boolean} -- {@link LazyInitializeHolder} without boxing.
+ * 
+ * The value is initialized only once even if it was accessed from multiple threads.
+ * If the initialization fails, the exception is thrown and the next request tries again.
+ * 
+ * @author NawaMan
+ **/
+public class BooleanLazyInitializeHolder
+                implements BooleanSupplier {
+    
+    private volatile boolean isInitialized = false;
+    
+    private boolean value;
+    
+    private Thread initializingThread;
+    
+    private final BooleanSupplier valueProducer;
+    
+    /**
+     * Construct the holder with the producer of the value.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     **/
+    public BooleanLazyInitializeHolder(
+            final BooleanSupplier valueProducer) {
+        this.valueProducer = requireNonNull(valueProducer);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public final boolean getAsBoolean() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        return initialize();
+    }
+    
+    /**
+     * Check if the value is initialized.
+     * 
+     * @return {@code true} if the value is initialized.
+     **/
+    public final boolean isInitialized() {
+        return this.isInitialized;
+    }
+    
+    private synchronized boolean initialize() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        if (this.initializingThread == Thread.currentThread()) {
+            throw new IllegalStateException("Recursive initialization: the producer requires its own value.");
+        }
+        this.initializingThread = Thread.currentThread();
+        try {
+            this.value         = this.valueProducer.getAsBoolean();
+            this.isInitialized = true;
+            return this.value;
+        } finally {
+            this.initializingThread = null;
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code BooleanLazyInitializeHolder}.
+     **/
+    public static BooleanLazyInitializeHolder lazyInitialize(
+            final BooleanSupplier initializer) {
+        return new BooleanLazyInitializeHolder(initializer);
+    }
+    
+    /**
+     * Create and return a new {@code BooleanLazyInitializeHolder}.
+     **/
+    public static BooleanLazyInitializeHolder of(
+            final BooleanSupplier initializer) {
+        return new BooleanLazyInitializeHolder(initializer);
+    }
+    
+}
@@ -0,0 +1,101 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This dispatcher delivers the changes of {@link ChangeableHolder}s to their listeners in batch every tick.
+ * 
+ * All the changes to a holder within a tick are coalesced into one event per listener (see
+ *   {@link ChangeEvent#coalesce(ChangeEvent)}) so a thousand rapid changes cost each listener one notification.
+ * The listeners are notified on the thread of the scheduler.
+ * 
+ * @author NawaMan
+ **/
+public class ChangeDispatcher implements AutoCloseable {
+    
+    private final Queue<ChangeSubscription<?>> ready = new ConcurrentLinkedQueue<>();
+    
+    private final ScheduledExecutorService scheduler;
+    
+    private final boolean isOwnScheduler;
+    
+    private final ScheduledFuture<?> ticks;
+    
+    /**
+     * Construct a dispatcher with its own thread.
+     * 
+     * @param tick  the time between the deliveries.
+     * @param unit  the unit of the tick.
+     **/
+    public ChangeDispatcher(
+            final long     tick,
+            final TimeUnit unit) {
+        this(Executors.newSingleThreadScheduledExecutor(runnable->{
+            final Thread thread = new Thread(runnable, "ChangeDispatcher");
+            thread.setDaemon(true);
+            return thread;
+        }), true, tick, unit);
+    }
+    
+    /**
+     * Construct a dispatcher that delivers on the given scheduler.
+     * 
+     * @param scheduler  the scheduler.
+     * @param tick       the time between the deliveries.
+     * @param unit       the unit of the tick.
+     **/
+    public ChangeDispatcher(
+            final ScheduledExecutorService scheduler,
+            final long                     tick,
+            final TimeUnit                 unit) {
+        this(scheduler, false, tick, unit);
+    }
+    
+    private ChangeDispatcher(
+            final ScheduledExecutorService scheduler,
+            final boolean                  isOwnScheduler,
+            final long                     tick,
+            final TimeUnit                 unit) {
+        if (tick <= 0) {
+            throw new IllegalArgumentException("Invalid tick: " + tick);
+        }
+        this.scheduler      = requireNonNull(scheduler);
+        this.isOwnScheduler = isOwnScheduler;
+        this.ticks          = scheduler.scheduleWithFixedDelay(this::flush, tick, tick, unit);
+    }
+    
+    /**
+     * Delivers all the pending changes now on the current thread.
+     **/
+    public final void flush() {
+        ChangeSubscription<?> subscription;
+        while ((subscription = this.ready.poll()) != null) {
+            subscription.deliver();
+        }
+    }
+    
+    /**
+     * Stops the deliveries. The pending changes are delivered.
+     **/
+    @Override
+    public void close() {
+        this.ticks.cancel(false);
+        if (this.isOwnScheduler) {
+            this.scheduler.shutdown();
+        }
+        flush();
+    }
+    
+    void enqueue(
+            final ChangeSubscription<?> subscription) {
+        this.ready.add(subscription);
+    }
+    
+}
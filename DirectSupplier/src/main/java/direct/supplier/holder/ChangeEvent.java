@@ -0,0 +1,88 @@
+package direct.supplier.holder;
+
+/**
+ * The change of the value of a {@link ChangeableHolder}.
+ * 
+ * Each change of a holder has a version one higher than the previous change so the listeners can tell the order of
+ *   the changes.
+ * When the changes are coalesced (see {@link ChangeDispatcher}), the event has the old value before the first change,
+ *   the new value and the version of the last change.
+ * 
+ * This class is immutable.
+ * 
+ * @param <V>  the value type.
+ * 
+ * @author NawaMan
+ **/
+public final class ChangeEvent<V> {
+    
+    private final V oldValue;
+    
+    private final V newValue;
+    
+    private final long version;
+    
+    /**
+     * Construct the event.
+     * 
+     * @param oldValue  the value before the change.
+     * @param newValue  the value after the change.
+     * @param version   the version of the change.
+     **/
+    public ChangeEvent(
+            final V    oldValue,
+            final V    newValue,
+            final long version) {
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.version  = version;
+    }
+    
+    /**
+     * Returns the value before the change.
+     * 
+     * @return the old value.
+     **/
+    public V getOldValue() {
+        return this.oldValue;
+    }
+    
+    /**
+     * Returns the value after the change.
+     * 
+     * @return the new value.
+     **/
+    public V getNewValue() {
+        return this.newValue;
+    }
+    
+    /**
+     * Returns the version of the change.
+     * 
+     * @return the version.
+     **/
+    public long getVersion() {
+        return this.version;
+    }
+    
+    /**
+     * Returns the event that covers both this change and the given change.
+     * 
+     * @param  other  the other change.
+     * @return the combined change.
+     **/
+    public ChangeEvent<V> coalesce(
+            final ChangeEvent<V> other) {
+        if (other.version >= this.version) {
+            return new ChangeEvent<V>(this.oldValue, other.newValue, other.version);
+        } else {
+            return new ChangeEvent<V>(other.oldValue, this.newValue, this.version);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "ChangeEvent[" + this.oldValue + " -> " + this.newValue + ", version=" + this.version + "]";
+    }
+    
+}
@@ -0,0 +1,76 @@
+package direct.supplier.holder;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * The subscription of a listener to a {@link ChangeableHolder}.
+ * 
+ * Without a dispatcher, the listener is notified right away on the thread that made the change.
+ * With a dispatcher, the changes are coalesced into one pending event that the dispatcher delivers on its tick.
+ * 
+ * @author NawaMan
+ **/
+class ChangeSubscription<V> implements Subscription {
+    
+    private final AtomicReference<ChangeEvent<V>> pending = new AtomicReference<>();
+    
+    private final Consumer<? super ChangeEvent<V>> listener;
+    
+    private final ChangeDispatcher dispatcher;
+    
+    private final Collection<ChangeSubscription<V>> subscriptions;
+    
+    private volatile boolean isClosed = false;
+    
+    ChangeSubscription(
+            final Consumer<? super ChangeEvent<V>>  listener,
+            final ChangeDispatcher                  dispatcher,
+            final Collection<ChangeSubscription<V>> subscriptions) {
+        this.listener      = listener;
+        this.dispatcher    = dispatcher;
+        this.subscriptions = subscriptions;
+    }
+    
+    void changed(
+            final ChangeEvent<V> event) {
+        if (this.isClosed) {
+            return;
+        }
+        if (this.dispatcher == null) {
+            notifyListener(event);
+            return;
+        }
+        
+        final ChangeEvent<V> previous = this.pending.getAndUpdate(p->(p == null) ? event : p.coalesce(event));
+        if (previous == null) {
+            this.dispatcher.enqueue(this);
+        }
+    }
+    
+    void deliver() {
+        final ChangeEvent<V> event = this.pending.getAndSet(null);
+        if ((event != null) && !this.isClosed) {
+            notifyListener(event);
+        }
+    }
+    
+    private void notifyListener(
+            final ChangeEvent<V> event) {
+        try {
+            this.listener.accept(event);
+        } catch (RuntimeException exception) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+        }
+    }
+    
+    @Override
+    public void close() {
+        this.isClosed = true;
+        this.subscriptions.remove(this);
+        this.pending.set(null);
+    }
+    
+}
@@ -1,13 +1,19 @@
 package direct.supplier.holder;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import direct.supplier.SupplierSupplier;
+import direct.supplier.metrics.HolderMetrics;
+import direct.supplier.metrics.MetricsRegistry;
 
 /**
  * This resource holder holds a value that can be changed.
@@ -16,6 +22,20 @@ import direct.supplier.SupplierSupplier;
  * The check is done by asking the assigned key to check equals.
  * If no key was given, the method without key must be used.
  * 
+ * The conditional updates are done as specified by the {@link UpdateMode} -- synchronized by default.
+ * 
+ * A versioned holder (see {@link #versioned(Object, Object, UpdateMode)}) stamps each change with a version one
+ *   higher than the previous one.
+ * The stamp can be used to check cheaply that the value has not been changed -- {@link #validate(long)} and
+ *   {@link #compareStampAndSet(long, Object)} -- without comparing the values.
+ * Listeners can subscribe to the changes of a versioned holder -- notified right away or in batch by a
+ *   {@link ChangeDispatcher}.
+ * The stamps cost an allocation per change and one more load per get so they are opt-in: a plain holder keeps the
+ *   value itself in its atomic reference and its stamp and subscription methods throw {@link IllegalStateException}.
+ * 
+ * A frequently-written holder can be padded (see {@link #padded(Object, Object, UpdateMode)}) so its value is on a
+ *   cache line of its own and the writes do not slow down the readers of the objects allocated next to it.
+ * 
  * @author NawaMan
  */
 public class ChangeableHolder<V>
@@ -24,25 +44,261 @@ public class ChangeableHolder<V>
     /** The key to be used if no key is to be assigned. */
     public final static Object NOKEY = new Object();
     
-    private final AtomicReference<V> value = new AtomicReference<>();
+    /** The shortest time to park between the retries. */
+    private static final long MIN_BACKOFF_NANOS = 100;
+    
+    /** The longest time to park between the retries. */
+    private static final long MAX_BACKOFF_NANOS = 1000000;
+    
+    /** The value itself (plain) or the {@link Stamped} value (versioned). */
+    private final AtomicReference<Object> entry;
+    
+    private final boolean isVersioned;
     
     private final Optional<Object> key;
     
+    private final UpdateMode mode;
+    
+    private final List<ChangeSubscription<V>> subscriptions = new CopyOnWriteArrayList<>();
+    
+    private final MetricsSupport metrics = new MetricsSupport(ChangeableHolder.class);
+    
     /**
      * Construct a holder with a key. If the key is {@code ChangeableHolder.NOKEY}, then no key is assigned.
      * 
-     * @param  key  the key.
+     * @param  key    the key.
+     * @param  value  the initial value.
      */
     public ChangeableHolder(
             final Object key,
             final V      value) {
-        this.key = (key == NOKEY) ? null : Optional.ofNullable(key);
-        this.doSet(value);
+        this(key, value, UpdateMode.SYNCHRONIZED);
+    }
+    
+    /**
+     * Construct a holder with a key and the update mode. If the key is {@code ChangeableHolder.NOKEY}, then no key is
+     *   assigned.
+     * 
+     * @param  key    the key.
+     * @param  value  the initial value.
+     * @param  mode   the update mode.
+     */
+    public ChangeableHolder(
+            final Object     key,
+            final V          value,
+            final UpdateMode mode) {
+        this(key, value, mode, false);
+    }
+    
+    /**
+     * Construct a holder with a key, the update mode and whether the value is padded. If the key is
+     *   {@code ChangeableHolder.NOKEY}, then no key is assigned.
+     * 
+     * @param  key       the key.
+     * @param  value     the initial value.
+     * @param  mode      the update mode.
+     * @param  isPadded  {@code true} if the value should be on a cache line of its own.
+     */
+    public ChangeableHolder(
+            final Object     key,
+            final V          value,
+            final UpdateMode mode,
+            final boolean    isPadded) {
+        this(key, value, mode, isPadded, false);
+    }
+    
+    /**
+     * Construct a holder with a key, the update mode, whether the value is padded and whether the changes are stamped.
+     *   If the key is {@code ChangeableHolder.NOKEY}, then no key is assigned.
+     * 
+     * @param  key          the key.
+     * @param  value        the initial value.
+     * @param  mode         the update mode.
+     * @param  isPadded     {@code true} if the value should be on a cache line of its own.
+     * @param  isVersioned  {@code true} if the changes are stamped and can be subscribed to.
+     */
+    public ChangeableHolder(
+            final Object     key,
+            final V          value,
+            final UpdateMode mode,
+            final boolean    isPadded,
+            final boolean    isVersioned) {
+        final Object initialEntry = isVersioned ? new Stamped<V>(value, 0) : value;
+        this.key         = (key == NOKEY) ? null : Optional.ofNullable(key);
+        this.mode        = Objects.requireNonNull(mode);
+        this.isVersioned = isVersioned;
+        this.entry       = isPadded ? new PaddedAtomicReference<>(initialEntry) : new AtomicReference<>(initialEntry);
+        if (HolderMetrics.IS_ENABLED_FOR_ALL) {
+            enableMetrics(HolderMetrics.generateName(ChangeableHolder.class.getSimpleName()));
+        }
     }
     
     @Override
     public final V get() {
-        return this.value.get();
+        if (HolderMetrics.IS_ENABLED) {
+            this.metrics.recordRead();
+        }
+        return valueOf(this.entry.get());
+    }
+    
+    /**
+     * Enable the metrics of this holder -- registered with {@link MetricsRegistry#global()}.
+     * 
+     * The contentions are the failed CASes retried (lock-free) or the threads entering the monitor while another
+     *   thread is in it (synchronized).
+     * 
+     * Enabling again replaces (and unregisters) the metrics enabled before.
+     * 
+     * @param name  the name of the holder.
+     * @return the metrics -- empty if the metrics are disabled (see {@link HolderMetrics#IS_ENABLED}).
+     **/
+    public final Optional<HolderMetrics> enableMetrics(
+            final String name) {
+        return this.metrics.enable(name);
+    }
+    
+    /**
+     * Disable the metrics of this holder -- unregistered from {@link MetricsRegistry#global()} (and its MXBean).
+     * 
+     * The holders whose metrics are enabled for all (see {@link HolderMetrics#ALL_PROPERTY}) should call this when
+     *   they are no longer used.
+     **/
+    public final void disableMetrics() {
+        this.metrics.disable();
+    }
+    
+    /**
+     * Returns the metrics of this holder.
+     * 
+     * @return the metrics -- empty if not enabled.
+     **/
+    public final Optional<HolderMetrics> metrics() {
+        return this.metrics.metrics();
+    }
+    
+    /**
+     * Check if the changes of this holder are stamped and can be subscribed to.
+     * 
+     * @return {@code true} if versioned.
+     */
+    public final boolean isVersioned() {
+        return this.isVersioned;
+    }
+    
+    /**
+     * Returns the value with its stamp.
+     * 
+     * @return the stamped value.
+     * @throws IllegalStateException  if this holder is not versioned.
+     */
+    public final Stamped<V> getStamped() {
+        return stamped(this.entry.get());
+    }
+    
+    /**
+     * Returns the stamp of the current value.
+     * 
+     * @return the stamp.
+     * @throws IllegalStateException  if this holder is not versioned.
+     */
+    public final long getStamp() {
+        return stamped(this.entry.get()).getStamp();
+    }
+    
+    /**
+     * Check if the value has not been changed since the given stamp was obtained.
+     * 
+     * @param  stamp  the stamp.
+     * @return {@code true} if the value has not been changed.
+     * @throws IllegalStateException  if this holder is not versioned.
+     */
+    public final boolean validate(
+            final long stamp) {
+        return stamped(this.entry.get()).getStamp() == stamp;
+    }
+    
+    /**
+     * Subscribe the listener to the changes of this holder.
+     * 
+     * The listener is notified on the thread that made the change right after the change.
+     * The changes made concurrently by different threads may be notified out of order -- the version of the event
+     *   tells the actual order.
+     * 
+     * @param  listener  the listener.
+     * @return the subscription.
+     * @throws IllegalStateException  if this holder is not versioned.
+     */
+    public final Subscription subscribe(
+            final Consumer<? super ChangeEvent<V>> listener) {
+        return doSubscribe(listener, null);
+    }
+    
+    /**
+     * Subscribe the listener to the changes of this holder. The listener is notified by the dispatcher.
+     * 
+     * The changes between two deliveries of the dispatcher are coalesced into one event.
+     * 
+     * @param  listener    the listener.
+     * @param  dispatcher  the dispatcher.
+     * @return the subscription.
+     * @throws IllegalStateException  if this holder is not versioned.
+     */
+    public final Subscription subscribe(
+            final Consumer<? super ChangeEvent<V>> listener,
+            final ChangeDispatcher                 dispatcher) {
+        return doSubscribe(listener, Objects.requireNonNull(dispatcher));
+    }
+    
+    private Subscription doSubscribe(
+            final Consumer<? super ChangeEvent<V>> listener,
+            final ChangeDispatcher                 dispatcher) {
+        checkVersioned();
+        final ChangeSubscription<V> subscription
+                = new ChangeSubscription<V>(Objects.requireNonNull(listener), dispatcher, this.subscriptions);
+        this.subscriptions.add(subscription);
+        return subscription;
+    }
+    
+    private void checkVersioned() {
+        if (!this.isVersioned) {
+            throw new IllegalStateException("The holder is not versioned.");
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V valueOf(
+            final Object entry) {
+        return this.isVersioned ? ((Stamped<V>)entry).getValue() : (V)entry;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Stamped<V> stamped(
+            final Object entry) {
+        checkVersioned();
+        return (Stamped<V>)entry;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Object nextEntry(
+            final Object entry,
+            final V      value) {
+        return this.isVersioned ? ((Stamped<V>)entry).next(value) : value;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void changed(
+            final Object oldEntry,
+            final Object newEntry) {
+        if (this.subscriptions.isEmpty()) {
+            return;
+        }
+        final Stamped<V>     oldStamped = (Stamped<V>)oldEntry;
+        final Stamped<V>     newStamped = (Stamped<V>)newEntry;
+        final ChangeEvent<V> event
+                = new ChangeEvent<V>(oldStamped.getValue(), newStamped.getValue(), newStamped.getStamp());
+        for (ChangeSubscription<V> subscription : this.subscriptions) {
+            subscription.changed(event);
+        }
     }
     
     private boolean checkKeyNotAssigned() {
@@ -62,23 +318,50 @@ public class ChangeableHolder<V>
     
     private boolean doSet(
             final V value) {
-        synchronized (this) {
-            this.value.set(value);
+        if (this.mode != UpdateMode.SYNCHRONIZED) {
+            return doLockFreeCheckAndUpdate(currentValue->true, currentValue->value);
+        }
+        final Object        oldEntry;
+        final Object        newEntry;
+        final HolderMetrics metrics = enterMonitor();
+        try {
+            synchronized (this) {
+                oldEntry = this.entry.get();
+                newEntry = nextEntry(oldEntry, value);
+                this.entry.set(newEntry);
+            }
+        } finally {
+            exitMonitor(metrics);
         }
+        changed(oldEntry, newEntry);
         return true;
     }
     
     private boolean doCompareAndSupply(
             final V           expectedValue,
             final Supplier<V> valueSupplier) {
-        if (Objects.equals(expectedValue, this.value.get())) {
-            synchronized (this) {
-                V currentValue = this.value.get();
-                if (Objects.equals(expectedValue, currentValue)) {
-                    this.value.set(valueSupplier.get());
-                    return true;
+        if (this.mode != UpdateMode.SYNCHRONIZED) {
+            return doLockFreeCheckAndUpdate(currentValue->Objects.equals(expectedValue, currentValue),
+                                            currentValue->valueSupplier.get());
+        }
+        if (Objects.equals(expectedValue, valueOf(this.entry.get()))) {
+            final Object        oldEntry;
+            final Object        newEntry;
+            final HolderMetrics metrics = enterMonitor();
+            try {
+                synchronized (this) {
+                    oldEntry = this.entry.get();
+                    if (!Objects.equals(expectedValue, valueOf(oldEntry))) {
+                        return false;
+                    }
+                    newEntry = nextEntry(oldEntry, valueSupplier.get());
+                    this.entry.set(newEntry);
                 }
+            } finally {
+                exitMonitor(metrics);
             }
+            changed(oldEntry, newEntry);
+            return true;
         }
         return false;
     }
@@ -86,18 +369,107 @@ public class ChangeableHolder<V>
     private boolean doCheckAndUpdate(
             final Predicate<V>  expectedChecker,
             final Function<V,V> valueUpdater) {
-        if (expectedChecker.test(this.value.get())) {
-            synchronized (this) {
-                V currentValue = this.value.get();
-                if (expectedChecker.test(currentValue)) {
-                    this.value.set(valueUpdater.apply(currentValue));
-                    return true;
+        if (this.mode != UpdateMode.SYNCHRONIZED) {
+            return doLockFreeCheckAndUpdate(expectedChecker, valueUpdater);
+        }
+        if (expectedChecker.test(valueOf(this.entry.get()))) {
+            final Object        oldEntry;
+            final Object        newEntry;
+            final HolderMetrics metrics = enterMonitor();
+            try {
+                synchronized (this) {
+                    oldEntry = this.entry.get();
+                    final V oldValue = valueOf(oldEntry);
+                    if (!expectedChecker.test(oldValue)) {
+                        return false;
+                    }
+                    newEntry = nextEntry(oldEntry, valueUpdater.apply(oldValue));
+                    this.entry.set(newEntry);
                 }
+            } finally {
+                exitMonitor(metrics);
             }
+            changed(oldEntry, newEntry);
+            return true;
         }
         return false;
     }
     
+    private boolean doLockFreeCheckAndUpdate(
+            final Predicate<V>  expectedChecker,
+            final Function<V,V> valueUpdater) {
+        for (int retry = 0; ; retry++) {
+            final Object oldEntry = this.entry.get();
+            final V      oldValue = valueOf(oldEntry);
+            if (!expectedChecker.test(oldValue)) {
+                return false;
+            }
+            final Object newEntry = nextEntry(oldEntry, valueUpdater.apply(oldValue));
+            if (this.entry.compareAndSet(oldEntry, newEntry)) {
+                changed(oldEntry, newEntry);
+                return true;
+            }
+            if (HolderMetrics.IS_ENABLED) {
+                this.metrics.recordContention();
+            }
+            backoff(retry);
+        }
+    }
+    
+    private boolean doCompareStampAndSet(
+            final long stamp,
+            final V    value) {
+        final Stamped<V> oldEntry = stamped(this.entry.get());
+        if (oldEntry.getStamp() != stamp) {
+            return false;
+        }
+        final Stamped<V> newEntry = oldEntry.next(value);
+        if (this.mode != UpdateMode.SYNCHRONIZED) {
+            if (!this.entry.compareAndSet(oldEntry, newEntry)) {
+                return false;
+            }
+        } else {
+            final HolderMetrics metrics = enterMonitor();
+            try {
+                synchronized (this) {
+                    if (!this.entry.compareAndSet(oldEntry, newEntry)) {
+                        return false;
+                    }
+                }
+            } finally {
+                exitMonitor(metrics);
+            }
+        }
+        changed(oldEntry, newEntry);
+        return true;
+    }
+    
+    private HolderMetrics enterMonitor() {
+        if (!HolderMetrics.IS_ENABLED) {
+            return null;
+        }
+        final HolderMetrics metrics = this.metrics.get();
+        if (metrics != null) {
+            metrics.enterMonitor();
+        }
+        return metrics;
+    }
+    
+    private void exitMonitor(
+            final HolderMetrics metrics) {
+        if (HolderMetrics.IS_ENABLED && (metrics != null)) {
+            metrics.exitMonitor();
+        }
+    }
+    
+    private void backoff(
+            final int retry) {
+        if (this.mode == UpdateMode.LOCK_FREE_WITH_BACKOFF) {
+            final long backoff = Math.min(MIN_BACKOFF_NANOS << Math.min(retry, 20), MAX_BACKOFF_NANOS);
+            LockSupport.parkNanos(backoff);
+        }
+    }
+    
     /**
      * Given no key was assigned. Change the value.
      * 
@@ -202,6 +574,42 @@ public class ChangeableHolder<V>
         return isSuccess;
     }
     
+    /**
+     * Given no key was assigned. Change the value if it has not been changed since the given stamp was obtained.
+     * 
+     * This is be successful only if the key was not set.
+     * 
+     * @param  stamp  the stamp of the expected current value.
+     * @param  value  the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareStampAndSet(
+            final long stamp,
+            final V    value) {
+        boolean isAllowed = !checkKeyNotAssigned();
+        boolean isSuccess = isAllowed && doCompareStampAndSet(stamp, value);
+        return isSuccess;
+    }
+    
+    /**
+     * Given a key was assigned. Change the value if it has not been changed since the given stamp was obtained.
+     * 
+     * This will only be successful only if the key was set and equals to the given key.
+     * 
+     * @param  key    the key.
+     * @param  stamp  the stamp of the expected current value.
+     * @param  value  the new value.
+     * @return {@code} true if success.
+     */
+    public final boolean compareStampAndSet(
+            final Object key,
+            final long   stamp,
+            final V      value) {
+        boolean isAllowed = checkMatchedKey(key);
+        boolean isSuccess = isAllowed && doCompareStampAndSet(stamp, value);
+        return isSuccess;
+    }
+    
     //== Static creation ===============================================================================================
     
     /**
@@ -237,4 +645,62 @@ public class ChangeableHolder<V>
         return new ChangeableHolder<T>(NOKEY, value);
     }
     
+    /**
+     * Create and return a new {@code ChangeableHolder} with the update mode.
+     **/
+    public static <T> ChangeableHolder<T> changeable(
+            final Object     key,
+            final T          value,
+            final UpdateMode mode) {
+        return of(key, value, mode);
+    }
+    
+    /**
+     * Create and return a new {@code ChangeableHolder} with the update mode.
+     **/
+    public static <T> ChangeableHolder<T> of(
+            final Object     key,
+            final T          value,
+            final UpdateMode mode) {
+        return new ChangeableHolder<T>(key, value, mode);
+    }
+    
+    /**
+     * Create and return a new versioned {@code ChangeableHolder} with the update mode -- its changes are stamped and
+     *   can be subscribed to.
+     **/
+    public static <T> ChangeableHolder<T> versioned(
+            final Object     key,
+            final T          value,
+            final UpdateMode mode) {
+        return new ChangeableHolder<T>(key, value, mode, false, true);
+    }
+    
+    /**
+     * Create and return a new versioned {@code ChangeableHolder} without a key -- its changes are stamped and can be
+     *   subscribed to.
+     **/
+    public static <T> ChangeableHolder<T> versioned(
+            final T value) {
+        return new ChangeableHolder<T>(NOKEY, value, UpdateMode.SYNCHRONIZED, false, true);
+    }
+    
+    /**
+     * Create and return a new padded {@code ChangeableHolder} with the update mode.
+     **/
+    public static <T> ChangeableHolder<T> padded(
+            final Object     key,
+            final T          value,
+            final UpdateMode mode) {
+        return new ChangeableHolder<T>(key, value, mode, true);
+    }
+    
+    /**
+     * Create and return a new padded {@code ChangeableHolder} without a key.
+     **/
+    public static <T> ChangeableHolder<T> padded(
+            final T value) {
+        return new ChangeableHolder<T>(NOKEY, value, UpdateMode.SYNCHRONIZED, true);
+    }
+    
 }
@@ -0,0 +1,35 @@
+package direct.supplier.holder;
+
+/**
+ * Holders of the thread context implement this interface so their values can be carried to another thread by
+ *   {@link ContextPropagator}.
+ * 
+ * @author NawaMan
+ **/
+interface ContextCarrier {
+    
+    /**
+     * Returns the value of the current thread to be carried -- without creating one if there is none.
+     * 
+     * @return  the captured value.
+     **/
+    Object capture();
+    
+    /**
+     * Install the captured value on the current thread.
+     * 
+     * @param captured  the value returned from {@link #capture()} (maybe on another thread).
+     * @return  the token to restore the current thread with.
+     **/
+    Object install(
+            Object captured);
+    
+    /**
+     * Restore the current thread to the state before the install.
+     * 
+     * @param token  the token returned from {@link #install(Object)}.
+     **/
+    void restore(
+            Object token);
+    
+}
@@ -0,0 +1,311 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This propagator carries the values of the chosen context holders -- {@link ThreadLocalHolder},
+ *   {@link StackThreadLocalHolder} and {@link ScopedHolder} -- from one thread to another.
+ * 
+ * {@link #capture()} copies the current values into an immutable {@link Snapshot} (one array) and the snapshot
+ *   installs them around a task on another thread, restoring that thread afterward.
+ * The wrapped executors capture the snapshot when a task is submitted so the task sees the values of the submitter.
+ * <ul>
+ *   <li>{@link ThreadLocalHolder} -- the value of the task thread is replaced during the task. No value is created
+ *         for the capture.</li>
+ *   <li>{@link StackThreadLocalHolder} -- the top element is pushed on the stack of the task thread.</li>
+ *   <li>{@link ScopedHolder} -- the binding is added to the bindings of the task thread.</li>
+ * </ul>
+ * 
+ * @author NawaMan
+ **/
+public final class ContextPropagator {
+    
+    private final ContextCarrier[] carriers;
+    
+    /**
+     * Construct a propagator of the given holders.
+     * 
+     * @param holders  the holders.
+     **/
+    public ContextPropagator(
+            final Supplier<?>... holders) {
+        this.carriers = new ContextCarrier[holders.length];
+        for (int i = 0; i < holders.length; i++) {
+            this.carriers[i] = carrierOf(requireNonNull(holders[i]));
+        }
+    }
+    
+    private static ContextCarrier carrierOf(
+            final Supplier<?> holder) {
+        if (holder instanceof ThreadLocalHolder) {
+            return ((ThreadLocalHolder<?>)holder).carrier();
+        }
+        if (holder instanceof StackThreadLocalHolder) {
+            return ((StackThreadLocalHolder<?>)holder).carrier();
+        }
+        if (holder instanceof ScopedHolder) {
+            return ((ScopedHolder<?>)holder).carrier();
+        }
+        throw new IllegalArgumentException("Not a context holder: " + holder);
+    }
+    
+    /**
+     * Returns the snapshot of the current values of the holders.
+     * 
+     * @return  the snapshot.
+     **/
+    public Snapshot capture() {
+        final ContextCarrier[] carriers = this.carriers;
+        final Object[]         values   = new Object[carriers.length];
+        for (int i = 0; i < carriers.length; i++) {
+            values[i] = carriers[i].capture();
+        }
+        return new Snapshot(carriers, values);
+    }
+    
+    /**
+     * Returns an executor that runs each task with the snapshot of the submitting thread.
+     * 
+     * This can also be given to the async methods of {@link CompletableFuture} -- the snapshot is then taken when the
+     *   stage is submitted, i.e., by the thread completing the previous stage or the caller if it is already complete.
+     * 
+     * @param executor  the executor.
+     * @return  the propagating executor.
+     **/
+    public Executor wrap(
+            final Executor executor) {
+        requireNonNull(executor);
+        return task->executor.execute(capture().wrapRunnable(task));
+    }
+    
+    /**
+     * Returns an executor service that runs each task with the snapshot of the submitting thread.
+     * 
+     * @param executor  the executor service.
+     * @return  the propagating executor service.
+     **/
+    public ExecutorService wrap(
+            final ExecutorService executor) {
+        requireNonNull(executor);
+        return new AbstractExecutorService() {
+            @Override
+            public void execute(
+                    final Runnable task) {
+                executor.execute(capture().wrapRunnable(task));
+            }
+            
+            @Override
+            public void shutdown() {
+                executor.shutdown();
+            }
+            
+            @Override
+            public List<Runnable> shutdownNow() {
+                return executor.shutdownNow();
+            }
+            
+            @Override
+            public boolean isShutdown() {
+                return executor.isShutdown();
+            }
+            
+            @Override
+            public boolean isTerminated() {
+                return executor.isTerminated();
+            }
+            
+            @Override
+            public boolean awaitTermination(
+                    final long     timeout,
+                    final TimeUnit unit)
+                        throws InterruptedException {
+                return executor.awaitTermination(timeout, unit);
+            }
+        };
+    }
+    
+    /**
+     * Returns a future completed by the supplier running on the executor with the snapshot of the current thread.
+     * 
+     * @param supplier  the supplier.
+     * @param executor  the executor.
+     * @return  the future.
+     **/
+    public <T> CompletableFuture<T> supplyAsync(
+            final Supplier<T> supplier,
+            final Executor    executor) {
+        return CompletableFuture.supplyAsync(capture().wrapSupplier(supplier), executor);
+    }
+    
+    /**
+     * Returns a future completed after the runnable running on the executor with the snapshot of the current thread.
+     * 
+     * @param runnable  the runnable.
+     * @param executor  the executor.
+     * @return  the future.
+     **/
+    public CompletableFuture<Void> runAsync(
+            final Runnable runnable,
+            final Executor executor) {
+        return CompletableFuture.runAsync(capture().wrapRunnable(runnable), executor);
+    }
+    
+    /**
+     * The captured values of the holders of a propagator.
+     * 
+     * @author NawaMan
+     **/
+    public static final class Snapshot {
+        
+        private final ContextCarrier[] carriers;
+        
+        private final Object[] values;
+        
+        Snapshot(
+                final ContextCarrier[] carriers,
+                final Object[]         values) {
+            this.carriers = carriers;
+            this.values   = values;
+        }
+        
+        private Object[] install() {
+            final ContextCarrier[] carriers = this.carriers;
+            final Object[]         tokens   = new Object[carriers.length];
+            for (int i = 0; i < carriers.length; i++) {
+                tokens[i] = carriers[i].install(this.values[i]);
+            }
+            return tokens;
+        }
+        
+        private void restore(
+                final Object[] tokens) {
+            final ContextCarrier[] carriers = this.carriers;
+            for (int i = carriers.length - 1; i >= 0; i--) {
+                carriers[i].restore(tokens[i]);
+            }
+        }
+        
+        /**
+         * Run the given runnable with the snapshot.
+         * 
+         * @param runnable  the runnable.
+         **/
+        public void run(
+                final Runnable runnable) {
+            final Object[] tokens = install();
+            try {
+                runnable.run();
+            } finally {
+                restore(tokens);
+            }
+        }
+        
+        /**
+         * Call the given callable with the snapshot.
+         * 
+         * @param callable  the callable.
+         * @return  the result of the callable.
+         * @throws Exception  the exception thrown by the callable.
+         **/
+        public <T> T call(
+                final Callable<T> callable) throws Exception {
+            final Object[] tokens = install();
+            try {
+                return callable.call();
+            } finally {
+                restore(tokens);
+            }
+        }
+        
+        /**
+         * Returns a runnable that runs the given runnable with the snapshot.
+         **/
+        public Runnable wrapRunnable(
+                final Runnable runnable) {
+            requireNonNull(runnable);
+            return ()->run(runnable);
+        }
+        
+        /**
+         * Returns a callable that calls the given callable with the snapshot.
+         **/
+        public <T> Callable<T> wrapCallable(
+                final Callable<T> callable) {
+            requireNonNull(callable);
+            return ()->call(callable);
+        }
+        
+        /**
+         * Returns a supplier that gets from the given supplier with the snapshot.
+         **/
+        public <T> Supplier<T> wrapSupplier(
+                final Supplier<T> supplier) {
+            requireNonNull(supplier);
+            return ()->{
+                final Object[] tokens = install();
+                try {
+                    return supplier.get();
+                } finally {
+                    restore(tokens);
+                }
+            };
+        }
+        
+        /**
+         * Returns a function that applies the given function with the snapshot -- for the stages of
+         *   {@link CompletableFuture}.
+         **/
+        public <T, R> Function<T, R> wrapFunction(
+                final Function<T, R> function) {
+            requireNonNull(function);
+            return input->{
+                final Object[] tokens = install();
+                try {
+                    return function.apply(input);
+                } finally {
+                    restore(tokens);
+                }
+            };
+        }
+        
+        /**
+         * Returns a consumer that accepts with the given consumer with the snapshot -- for the stages of
+         *   {@link CompletableFuture}.
+         **/
+        public <T> Consumer<T> wrapConsumer(
+                final Consumer<T> consumer) {
+            requireNonNull(consumer);
+            return input->{
+                final Object[] tokens = install();
+                try {
+                    consumer.accept(input);
+                } finally {
+                    restore(tokens);
+                }
+            };
+        }
+        
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code ContextPropagator}.
+     **/
+    public static ContextPropagator of(
+            final Supplier<?>... holders) {
+        return new ContextPropagator(holders);
+    }
+    
+}
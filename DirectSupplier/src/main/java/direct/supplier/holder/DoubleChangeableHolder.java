@@ -0,0 +1,211 @@
+package direct.supplier.holder;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Changeable holder of {@code double} -- {@link ChangeableHolder} without boxing.
+ * 
+ * If a key is assigned, the key must be used to perform the changes -- as {@link ChangeableHolder}.
+ * All the changes are atomic and lock free and none of them allocates.
+ * Unlike {@link ChangeableHolder}, the changes are not stamped nor can be subscribed to.
+ * The values are compared by their bits (as {@link Double#doubleToRawLongBits(double)}) so {@code NaN} matches
+ *   {@code NaN} but {@code 0.0} does not match {@code -0.0}.
+ * 
+ * @author NawaMan
+ **/
+public class DoubleChangeableHolder
+        implements DoubleSupplier {
+    
+    private static final AtomicLongFieldUpdater<DoubleChangeableHolder> updater
+            = AtomicLongFieldUpdater.newUpdater(DoubleChangeableHolder.class, "value");
+    
+    private volatile long value;
+    
+    private final Object key;
+    
+    /**
+     * Construct a holder with a key. If the key is {@code ChangeableHolder.NOKEY}, then no key is assigned.
+     * 
+     * @param  key    the key.
+     * @param  value  the initial value.
+     */
+    public DoubleChangeableHolder(
+            final Object key,
+            final double value) {
+        this.key   = key;
+        this.value = Double.doubleToRawLongBits(value);
+    }
+    
+    /**
+     * Returns the value.
+     * 
+     * {@inheritDoc}
+     */
+    @Override
+    public final double getAsDouble() {
+        return Double.longBitsToDouble(this.value);
+    }
+    
+    /**
+     * Given no key was assigned. Change the value.
+     * 
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if a key was assigned.
+     */
+    public final boolean set(
+            final double value) {
+        if (this.key != ChangeableHolder.NOKEY) {
+            return false;
+        }
+        this.value = Double.doubleToRawLongBits(value);
+        return true;
+    }
+    
+    /**
+     * Given a key was assigned. Change the value.
+     * 
+     * @param  key    the key.
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if the key does not match.
+     */
+    public final boolean set(
+            final Object key,
+            final double value) {
+        if (!isMatchedKey(key)) {
+            return false;
+        }
+        this.value = Double.doubleToRawLongBits(value);
+        return true;
+    }
+    
+    /**
+     * Given no key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final double expectedValue,
+            final double newValue) {
+        return (this.key == ChangeableHolder.NOKEY)
+            && updater.compareAndSet(this, Double.doubleToRawLongBits(expectedValue), Double.doubleToRawLongBits(newValue));
+    }
+    
+    /**
+     * Given a key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  key            the key.
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final Object key,
+            final double expectedValue,
+            final double newValue) {
+        return isMatchedKey(key)
+            && updater.compareAndSet(this, Double.doubleToRawLongBits(expectedValue), Double.doubleToRawLongBits(newValue));
+    }
+    
+    /**
+     * Given no key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if a key was assigned.
+     */
+    public final double updateAndGet(
+            final DoubleUnaryOperator function) {
+        checkNoKey();
+        return doUpdateAndGet(function);
+    }
+    
+    /**
+     * Given a key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  key       the key.
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if the key does not match.
+     */
+    public final double updateAndGet(
+            final Object              key,
+            final DoubleUnaryOperator function) {
+        checkKey(key);
+        return doUpdateAndGet(function);
+    }
+    
+    private double doUpdateAndGet(
+            final DoubleUnaryOperator function) {
+        while (true) {
+            final long current  = this.value;
+            final double newValue = function.applyAsDouble(Double.longBitsToDouble(current));
+            if (updater.compareAndSet(this, current, Double.doubleToRawLongBits(newValue))) {
+                return newValue;
+            }
+        }
+    }
+    
+    private boolean isMatchedKey(
+            final Object key) {
+        return (this.key != ChangeableHolder.NOKEY) && Objects.equals(this.key, key);
+    }
+    
+    private void checkNoKey() {
+        if (this.key != ChangeableHolder.NOKEY) {
+            throw new IllegalStateException("A key was assigned.");
+        }
+    }
+    
+    private void checkKey(
+            final Object key) {
+        if (!isMatchedKey(key)) {
+            throw new IllegalStateException("The key does not match.");
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code DoubleChangeableHolder}.
+     **/
+    public static DoubleChangeableHolder changeable(
+            final Object key,
+            final double value) {
+        return of(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code DoubleChangeableHolder}.
+     **/
+    public static DoubleChangeableHolder of(
+            final Object key,
+            final double value) {
+        return new DoubleChangeableHolder(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code DoubleChangeableHolder} without a key.
+     **/
+    public static DoubleChangeableHolder changeable(
+            final double value) {
+        return of(ChangeableHolder.NOKEY, value);
+    }
+    
+    /**
+     * Create and return a new {@code DoubleChangeableHolder} without a key.
+     **/
+    public static DoubleChangeableHolder of(
+            final double value) {
+        return new DoubleChangeableHolder(ChangeableHolder.NOKEY, value);
+    }
+    
+}
@@ -0,0 +1,54 @@
+package direct.supplier.holder;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Constant holder of {@code double} -- {@link ConstantHolder} without boxing.
+ * 
+ * @author NawaMan
+ **/
+public class DoubleConstantHolder
+            implements DoubleSupplier {
+    
+    private final double value;
+    
+    /**
+     * Construct the holder with a value.
+     * 
+     * @param value
+     *          the value.
+     **/
+    public DoubleConstantHolder(
+            final double value) {
+        this.value = value;
+    }
+    
+    /**
+     * Returns the value held in this holder.
+     * 
+     * {@inheritDoc}
+     **/
+    @Override
+    public final double getAsDouble() {
+        return this.value;
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code DoubleConstantHolder}.
+     **/
+    public static DoubleConstantHolder constant(
+            final double value) {
+        return of(value);
+    }
+    
+    /**
+     * Create and return a new {@code DoubleConstantHolder}.
+     **/
+    public static DoubleConstantHolder of(
+            final double value) {
+        return new DoubleConstantHolder(value);
+    }
+    
+}
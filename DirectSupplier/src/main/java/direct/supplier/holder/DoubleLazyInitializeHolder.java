@@ -0,0 +1,90 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Lazy initialize holder of {@code double} -- {@link LazyInitializeHolder} without boxing.
+ * 
+ * The value is initialized only once even if it was accessed from multiple threads.
+ * If the initialization fails, the exception is thrown and the next request tries again.
+ * 
+ * @author NawaMan
+ **/
+public class DoubleLazyInitializeHolder
+                implements DoubleSupplier {
+    
+    private volatile boolean isInitialized = false;
+    
+    private double value;
+    
+    private Thread initializingThread;
+    
+    private final DoubleSupplier valueProducer;
+    
+    /**
+     * Construct the holder with the producer of the value.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     **/
+    public DoubleLazyInitializeHolder(
+            final DoubleSupplier valueProducer) {
+        this.valueProducer = requireNonNull(valueProducer);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public final double getAsDouble() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        return initialize();
+    }
+    
+    /**
+     * Check if the value is initialized.
+     * 
+     * @return {@code true} if the value is initialized.
+     **/
+    public final boolean isInitialized() {
+        return this.isInitialized;
+    }
+    
+    private synchronized double initialize() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        if (this.initializingThread == Thread.currentThread()) {
+            throw new IllegalStateException("Recursive initialization: the producer requires its own value.");
+        }
+        this.initializingThread = Thread.currentThread();
+        try {
+            this.value         = this.valueProducer.getAsDouble();
+            this.isInitialized = true;
+            return this.value;
+        } finally {
+            this.initializingThread = null;
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code DoubleLazyInitializeHolder}.
+     **/
+    public static DoubleLazyInitializeHolder lazyInitialize(
+            final DoubleSupplier initializer) {
+        return new DoubleLazyInitializeHolder(initializer);
+    }
+    
+    /**
+     * Create and return a new {@code DoubleLazyInitializeHolder}.
+     **/
+    public static DoubleLazyInitializeHolder of(
+            final DoubleSupplier initializer) {
+        return new DoubleLazyInitializeHolder(initializer);
+    }
+    
+}
@@ -0,0 +1,75 @@
+package direct.supplier.holder;
+
+/**
+ * The eviction policy decides which key to evict from a bounded {@link KeyedHolder}.
+ * 
+ * The keyed holder calls the methods of the policy while holding its lock so the implementations do not need to be
+ *   thread safe.
+ * The accesses are buffered and replayed in batches so the policy may see them late, see some of them dropped or see
+ *   them for a key that was already removed.
+ * 
+ * @param <K>  the key type.
+ * 
+ * @author NawaMan
+ **/
+public interface EvictionPolicy<K> {
+    
+    /**
+     * Record that the value of the key was requested.
+     * 
+     * @param  key  the key.
+     **/
+    public void recordAccess(K key);
+    
+    /**
+     * Record that the value of the key was added.
+     * 
+     * @param  key  the key.
+     **/
+    public void recordInsertion(K key);
+    
+    /**
+     * Record that the value of the key was removed.
+     * 
+     * @param  key  the key.
+     **/
+    public void recordRemoval(K key);
+    
+    /**
+     * Select the key to evict as the size is over the limit after the candidate was added.
+     * 
+     * Returning the candidate itself means the candidate is not worth keeping.
+     * 
+     * @param  candidate  the key just added.
+     * @return the key to be evicted.
+     **/
+    public K selectVictim(K candidate);
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a least-recently-used eviction policy.
+     **/
+    public static <T> EvictionPolicy<T> lru() {
+        return new LruEvictionPolicy<T>();
+    }
+    
+    /**
+     * Create and return a least-frequently-used eviction policy.
+     **/
+    public static <T> EvictionPolicy<T> lfu() {
+        return new LfuEvictionPolicy<T>();
+    }
+    
+    /**
+     * Create and return a TinyLFU-style eviction policy for the given maximum size.
+     * 
+     * A new key replaces the least-recently-used key only if the new key was requested more often (estimated with a
+     *   frequency sketch that also remembers the keys that are no longer kept).
+     **/
+    public static <T> EvictionPolicy<T> tinyLfu(
+            final int maximumSize) {
+        return new TinyLfuEvictionPolicy<T>(maximumSize);
+    }
+    
+}
@@ -0,0 +1,329 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Factory holder gives a new instance for each {@link #get()} -- the prototype lifetime.
+ * 
+ * With recycling, the instances given back with {@link #release(Object)} are reset and kept in a bounded lock-free
+ *   ring so the next {@link #get()} reuses one instead of allocating.
+ * The ring is a multi-producer multi-consumer array queue (as by Dmitry Vyukov) -- each slot has a sequence number so
+ *   a producer and a consumer only contend on the slot and on their own position.
+ * When the ring is full, the released instance is dropped (for the GC).
+ * 
+ * WARNING: The released instances are not tracked (that would cost what the recycling saves) so releasing the same
+ *   instance twice is NOT detected -- unlike {@link PooledHolder}. The instance is then in the ring twice and two later
+ *   gets return the same instance to two callers. Release each instance exactly once.
+ * 
+ * <pre>
+ * FactoryHolder&lt;StringBuilder&gt; builders = FactoryHolder.recycling(StringBuilder::new, 64, sb-&gt;sb.setLength(0));
+ * StringBuilder builder = builders.get();
+ * try {
+ *     ...
+ * } finally {
+ *     builders.release(builder);
+ * }
+ * </pre>
+ * 
+ * The numbers of the gets, the allocations and the reuses are available from {@link #stats()} to measure the
+ *   allocation saved by the recycling.
+ * 
+ * @author NawaMan
+ **/
+public class FactoryHolder<R> implements Supplier<R> {
+    
+    /** The maximum capacity of the recycling ring. */
+    public static final int MAX_CAPACITY = 1 << 20;
+    
+    private final Supplier<? extends R> factory;
+    
+    private final Consumer<? super R> resetter;
+    
+    private final Ring ring;
+    
+    private final LongAdder getCount     = new LongAdder();
+    private final LongAdder createCount  = new LongAdder();
+    private final LongAdder reuseCount   = new LongAdder();
+    private final LongAdder releaseCount = new LongAdder();
+    private final LongAdder dropCount    = new LongAdder();
+    
+    /**
+     * Construct a factory holder without recycling.
+     * 
+     * @param factory  the factory of the instances.
+     **/
+    public FactoryHolder(
+            final Supplier<? extends R> factory) {
+        this.factory  = requireNonNull(factory);
+        this.resetter = null;
+        this.ring     = null;
+    }
+    
+    /**
+     * Construct a factory holder with recycling.
+     * 
+     * @param factory   the factory of the instances.
+     * @param capacity  the capacity of the recycling ring -- rounded up to a power of two.
+     * @param resetter  the resetter of the released instances -- {@code null} for no reset.
+     **/
+    public FactoryHolder(
+            final Supplier<? extends R> factory,
+            final int                   capacity,
+            final Consumer<? super R>   resetter) {
+        if ((capacity <= 0) || (capacity > MAX_CAPACITY)) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        this.factory  = requireNonNull(factory);
+        this.resetter = resetter;
+        this.ring     = new Ring(capacity);
+    }
+    
+    /**
+     * Returns a new instance -- or a recycled one with recycling.
+     * 
+     * {@inheritDoc}
+     **/
+    @SuppressWarnings("unchecked")
+    @Override
+    public final R get() {
+        this.getCount.increment();
+        if (this.ring != null) {
+            final Object instance = this.ring.poll();
+            if (instance != null) {
+                this.reuseCount.increment();
+                return (R)instance;
+            }
+        }
+        final R instance = this.factory.get();
+        this.createCount.increment();
+        return instance;
+    }
+    
+    /**
+     * Give back the instance that is no longer used -- with recycling, it is reset and kept for reuse.
+     * 
+     * The instance must not be used after this and must not be released again -- a double release is not detected
+     *   and makes two later gets return the same instance.
+     * If the resetter throws, the instance is dropped and the exception is rethrown.
+     * 
+     * @param instance  the instance.
+     **/
+    public final void release(
+            final R instance) {
+        requireNonNull(instance);
+        this.releaseCount.increment();
+        if (this.ring == null) {
+            return;
+        }
+        if (this.resetter != null) {
+            try {
+                this.resetter.accept(instance);
+            } catch (RuntimeException | Error exception) {
+                this.dropCount.increment();
+                throw exception;
+            }
+        }
+        if (!this.ring.offer(instance)) {
+            this.dropCount.increment();
+        }
+    }
+    
+    /**
+     * Check if this holder recycles the released instances.
+     * 
+     * @return {@code true} if recycling.
+     **/
+    public final boolean isRecycling() {
+        return this.ring != null;
+    }
+    
+    /**
+     * Returns the snapshot of the statistics.
+     * 
+     * @return the statistics.
+     **/
+    public final Stats stats() {
+        return new Stats(
+                this.getCount.sum(),
+                this.createCount.sum(),
+                this.reuseCount.sum(),
+                this.releaseCount.sum(),
+                this.dropCount.sum());
+    }
+    
+    /** The bounded multi-producer multi-consumer ring of the recycled instances. */
+    static final class Ring {
+        
+        private final int mask;
+        
+        private final Object[] elements;
+        
+        /** The sequence of each slot -- the position it can be offered at or (plus one) polled at. */
+        private final AtomicLongArray sequences;
+        
+        private final AtomicLong offerPosition = new AtomicLong();
+        
+        private final AtomicLong pollPosition = new AtomicLong();
+        
+        Ring(
+                final int capacity) {
+            final int size = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            this.mask      = size - 1;
+            this.elements  = new Object[size];
+            this.sequences = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                this.sequences.set(i, i);
+            }
+        }
+        
+        int capacity() {
+            return this.elements.length;
+        }
+        
+        boolean offer(
+                final Object element) {
+            long position = this.offerPosition.get();
+            while (true) {
+                final int  index    = (int)position & this.mask;
+                final long sequence = this.sequences.get(index);
+                final long distance = sequence - position;
+                if (distance == 0) {
+                    if (this.offerPosition.compareAndSet(position, position + 1)) {
+                        this.elements[index] = element;
+                        this.sequences.lazySet(index, position + 1);
+                        return true;
+                    }
+                    position = this.offerPosition.get();
+                } else if (distance < 0) {
+                    return false;
+                } else {
+                    position = this.offerPosition.get();
+                }
+            }
+        }
+        
+        Object poll() {
+            long position = this.pollPosition.get();
+            while (true) {
+                final int  index    = (int)position & this.mask;
+                final long sequence = this.sequences.get(index);
+                final long distance = sequence - (position + 1);
+                if (distance == 0) {
+                    if (this.pollPosition.compareAndSet(position, position + 1)) {
+                        final Object element = this.elements[index];
+                        this.elements[index] = null;
+                        this.sequences.lazySet(index, position + this.mask + 1);
+                        return element;
+                    }
+                    position = this.pollPosition.get();
+                } else if (distance < 0) {
+                    return null;
+                } else {
+                    position = this.pollPosition.get();
+                }
+            }
+        }
+        
+    }
+    
+    /**
+     * The snapshot of the statistics of a {@link FactoryHolder}.
+     **/
+    public static final class Stats {
+        
+        private final long getCount;
+        private final long createCount;
+        private final long reuseCount;
+        private final long releaseCount;
+        private final long dropCount;
+        
+        Stats(
+                final long getCount,
+                final long createCount,
+                final long reuseCount,
+                final long releaseCount,
+                final long dropCount) {
+            this.getCount     = getCount;
+            this.createCount  = createCount;
+            this.reuseCount   = reuseCount;
+            this.releaseCount = releaseCount;
+            this.dropCount    = dropCount;
+        }
+        
+        /** @return the number of the gets. */
+        public long getGetCount() {
+            return this.getCount;
+        }
+        
+        /** @return the number of the allocated (created) instances. */
+        public long getCreateCount() {
+            return this.createCount;
+        }
+        
+        /** @return the number of the gets served by a recycled instance. */
+        public long getReuseCount() {
+            return this.reuseCount;
+        }
+        
+        /** @return the number of the released instances. */
+        public long getReleaseCount() {
+            return this.releaseCount;
+        }
+        
+        /** @return the number of the released instances that did not fit in the ring (or failed to reset). */
+        public long getDropCount() {
+            return this.dropCount;
+        }
+        
+        /** @return the ratio of the gets served by a recycled instance -- 0.0 if there is no get. */
+        public double getReuseRate() {
+            return (this.getCount == 0) ? 0.0 : ((double)this.reuseCount / this.getCount);
+        }
+        
+        @Override
+        public String toString() {
+            return "Stats[getCount=" + this.getCount
+                    + ", createCount="  + this.createCount
+                    + ", reuseCount="   + this.reuseCount
+                    + ", releaseCount=" + this.releaseCount
+                    + ", dropCount="    + this.dropCount
+                    + "]";
+        }
+        
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code FactoryHolder}.
+     **/
+    public static <T> FactoryHolder<T> factory(
+            final Supplier<? extends T> factory) {
+        return new FactoryHolder<T>(factory);
+    }
+    
+    /**
+     * Create and return a new {@code FactoryHolder}.
+     **/
+    public static <T> FactoryHolder<T> of(
+            final Supplier<? extends T> factory) {
+        return new FactoryHolder<T>(factory);
+    }
+    
+    /**
+     * Create and return a new recycling {@code FactoryHolder}.
+     **/
+    public static <T> FactoryHolder<T> recycling(
+            final Supplier<? extends T> factory,
+            final int                   capacity,
+            final Consumer<? super T>   resetter) {
+        return new FactoryHolder<T>(factory, capacity, resetter);
+    }
+    
+}
@@ -0,0 +1,36 @@
+package direct.supplier.holder;
+
+/**
+ * This exception is thrown when a lazily initialized value cannot be obtained.
+ * 
+ * The cause, if any, is the exception thrown by the value producer.
+ * 
+ * @author NawaMan
+ **/
+public class InitializationException extends RuntimeException {
+    
+    private static final long serialVersionUID = -6128745311839208917L;
+    
+    /**
+     * Construct the exception with a message.
+     * 
+     * @param message  the message.
+     **/
+    public InitializationException(
+            final String message) {
+        super(message);
+    }
+    
+    /**
+     * Construct the exception with the cause.
+     * 
+     * @param message  the message.
+     * @param cause    the exception thrown by the value producer.
+     **/
+    public InitializationException(
+            final String    message,
+            final Throwable cause) {
+        super(message, cause);
+    }
+    
+}
@@ -0,0 +1,153 @@
+package direct.supplier.holder;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This policy determines what a lazy holder does when its value producer fails and how long the requesting threads
+ *   may wait for an initialization done by another thread.
+ * 
+ * When the producer fails, the thread that run it gets the exception as is and the threads that were waiting for that
+ *   attempt get an {@link InitializationException} with the exception as the cause.
+ * After that, the policy decides:
+ * <ul>
+ *   <li>{@link #rethrow()} -- the failure is permanent, all later requests get the exception.</li>
+ *   <li>{@link #retry()} -- the next request tries again.</li>
+ *   <li>{@link #retryWithBackoff(long, long, TimeUnit)} -- the requests get the exception until the backoff is over
+ *         then the next request tries again. The backoff doubles with each consecutive failure.</li>
+ * </ul>
+ * So a failing producer is called at most once per backoff no matter how many threads are requesting the value.
+ * 
+ * This class is immutable.
+ * 
+ * @author NawaMan
+ **/
+public final class InitializationPolicy {
+    
+    private static final InitializationPolicy RETHROW = new InitializationPolicy(false, 0, 0, 0);
+    
+    private static final InitializationPolicy RETRY = new InitializationPolicy(true, 0, 0, 0);
+    
+    private final boolean isRetry;
+    
+    private final long initialBackoffNanos;
+    
+    private final long maxBackoffNanos;
+    
+    private final long waitTimeoutNanos;
+    
+    private InitializationPolicy(
+            final boolean isRetry,
+            final long    initialBackoffNanos,
+            final long    maxBackoffNanos,
+            final long    waitTimeoutNanos) {
+        this.isRetry             = isRetry;
+        this.initialBackoffNanos = initialBackoffNanos;
+        this.maxBackoffNanos     = maxBackoffNanos;
+        this.waitTimeoutNanos    = waitTimeoutNanos;
+    }
+    
+    /**
+     * Returns the policy that makes the first failure permanent.
+     * 
+     * @return the policy.
+     **/
+    public static InitializationPolicy rethrow() {
+        return RETHROW;
+    }
+    
+    /**
+     * Returns the policy that retries on the next request after a failure. This is the default policy.
+     * 
+     * @return the policy.
+     **/
+    public static InitializationPolicy retry() {
+        return RETRY;
+    }
+    
+    /**
+     * Returns the policy that retries after the backoff. The backoff starts with {@code initialBackoff} and doubles
+     *   with each consecutive failure but never longer than {@code maxBackoff}.
+     * 
+     * @param  initialBackoff  the backoff after the first failure.
+     * @param  maxBackoff      the longest backoff.
+     * @param  unit            the unit of the backoffs.
+     * @return the policy.
+     **/
+    public static InitializationPolicy retryWithBackoff(
+            final long     initialBackoff,
+            final long     maxBackoff,
+            final TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        if ((initialBackoff < 0) || (maxBackoff < initialBackoff)) {
+            throw new IllegalArgumentException("Invalid backoff: " + initialBackoff + " to " + maxBackoff);
+        }
+        return new InitializationPolicy(true, unit.toNanos(initialBackoff), unit.toNanos(maxBackoff), 0);
+    }
+    
+    /**
+     * Returns a policy like this one but the requesting threads wait for the initialization done by another thread no
+     *   longer than the given timeout. When timed out, an {@link InitializationException} is thrown.
+     * 
+     * @param  timeout  the timeout -- zero means no timeout.
+     * @param  unit     the unit of the timeout.
+     * @return the policy.
+     **/
+    public InitializationPolicy withWaitTimeout(
+            final long     timeout,
+            final TimeUnit unit) {
+        Objects.requireNonNull(unit);
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Invalid timeout: " + timeout);
+        }
+        return new InitializationPolicy(this.isRetry, this.initialBackoffNanos, this.maxBackoffNanos,
+                unit.toNanos(timeout));
+    }
+    
+    /**
+     * Check if the failed initialization will be tried again.
+     * 
+     * @return {@code true} if the failed initialization will be tried again.
+     **/
+    public boolean isRetry() {
+        return this.isRetry;
+    }
+    
+    /**
+     * Returns the wait timeout in nanoseconds -- zero means no timeout.
+     * 
+     * @return the timeout.
+     **/
+    public long getWaitTimeoutNanos() {
+        return this.waitTimeoutNanos;
+    }
+    
+    /**
+     * Returns the backoff in nanoseconds after the given number of consecutive failures.
+     * 
+     * @param  failureCount  the number of consecutive failures -- at least one.
+     * @return the backoff.
+     **/
+    public long getBackoffNanos(
+            final int failureCount) {
+        if (this.initialBackoffNanos == 0) {
+            return 0;
+        }
+        final int  shift   = Math.min(failureCount - 1, 62);
+        final long backoff = this.initialBackoffNanos << shift;
+        if ((backoff < 0) || ((backoff >>> shift) != this.initialBackoffNanos)) {
+            return this.maxBackoffNanos;
+        }
+        return Math.min(backoff, this.maxBackoffNanos);
+    }
+    
+    @Override
+    public String toString() {
+        if (!this.isRetry) {
+            return "InitializationPolicy[rethrow, waitTimeoutNanos=" + this.waitTimeoutNanos + "]";
+        }
+        return "InitializationPolicy[retry, backoffNanos=" + this.initialBackoffNanos + ".." + this.maxBackoffNanos
+                + ", waitTimeoutNanos=" + this.waitTimeoutNanos + "]";
+    }
+    
+}
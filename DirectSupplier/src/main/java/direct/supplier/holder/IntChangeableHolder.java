@@ -0,0 +1,237 @@
+package direct.supplier.holder;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Changeable holder of {@code int} -- {@link ChangeableHolder} without boxing.
+ * 
+ * If a key is assigned, the key must be used to perform the changes -- as {@link ChangeableHolder}.
+ * All the changes are atomic and lock free and none of them allocates.
+ * Unlike {@link ChangeableHolder}, the changes are not stamped nor can be subscribed to.
+ * 
+ * @author NawaMan
+ **/
+public class IntChangeableHolder
+        implements IntSupplier {
+    
+    private static final AtomicIntegerFieldUpdater<IntChangeableHolder> updater
+            = AtomicIntegerFieldUpdater.newUpdater(IntChangeableHolder.class, "value");
+    
+    private volatile int value;
+    
+    private final Object key;
+    
+    /**
+     * Construct a holder with a key. If the key is {@code ChangeableHolder.NOKEY}, then no key is assigned.
+     * 
+     * @param  key    the key.
+     * @param  value  the initial value.
+     */
+    public IntChangeableHolder(
+            final Object key,
+            final int    value) {
+        this.key   = key;
+        this.value = value;
+    }
+    
+    /**
+     * Returns the value.
+     * 
+     * {@inheritDoc}
+     */
+    @Override
+    public final int getAsInt() {
+        return this.value;
+    }
+    
+    /**
+     * Given no key was assigned. Change the value.
+     * 
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if a key was assigned.
+     */
+    public final boolean set(
+            final int value) {
+        if (this.key != ChangeableHolder.NOKEY) {
+            return false;
+        }
+        this.value = value;
+        return true;
+    }
+    
+    /**
+     * Given a key was assigned. Change the value.
+     * 
+     * @param  key    the key.
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if the key does not match.
+     */
+    public final boolean set(
+            final Object key,
+            final int    value) {
+        if (!isMatchedKey(key)) {
+            return false;
+        }
+        this.value = value;
+        return true;
+    }
+    
+    /**
+     * Given no key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final int expectedValue,
+            final int newValue) {
+        return (this.key == ChangeableHolder.NOKEY)
+            && updater.compareAndSet(this, expectedValue, newValue);
+    }
+    
+    /**
+     * Given a key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  key            the key.
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final Object key,
+            final int    expectedValue,
+            final int    newValue) {
+        return isMatchedKey(key)
+            && updater.compareAndSet(this, expectedValue, newValue);
+    }
+    
+    /**
+     * Given no key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if a key was assigned.
+     */
+    public final int updateAndGet(
+            final IntUnaryOperator function) {
+        checkNoKey();
+        return doUpdateAndGet(function);
+    }
+    
+    /**
+     * Given a key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  key       the key.
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if the key does not match.
+     */
+    public final int updateAndGet(
+            final Object           key,
+            final IntUnaryOperator function) {
+        checkKey(key);
+        return doUpdateAndGet(function);
+    }
+    
+    /**
+     * Given no key was assigned. Add the delta to the value atomically.
+     * 
+     * @param  delta  the delta.
+     * @return the new value.
+     * @throws IllegalStateException  if a key was assigned.
+     */
+    public final int addAndGet(
+            final int delta) {
+        checkNoKey();
+        return updater.addAndGet(this, delta);
+    }
+    
+    /**
+     * Given a key was assigned. Add the delta to the value atomically.
+     * 
+     * @param  key    the key.
+     * @param  delta  the delta.
+     * @return the new value.
+     * @throws IllegalStateException  if the key does not match.
+     */
+    public final int addAndGet(
+            final Object key,
+            final int    delta) {
+        checkKey(key);
+        return updater.addAndGet(this, delta);
+    }
+    
+    private int doUpdateAndGet(
+            final IntUnaryOperator function) {
+        while (true) {
+            final int current  = this.value;
+            final int newValue = function.applyAsInt(current);
+            if (updater.compareAndSet(this, current, newValue)) {
+                return newValue;
+            }
+        }
+    }
+    
+    private boolean isMatchedKey(
+            final Object key) {
+        return (this.key != ChangeableHolder.NOKEY) && Objects.equals(this.key, key);
+    }
+    
+    private void checkNoKey() {
+        if (this.key != ChangeableHolder.NOKEY) {
+            throw new IllegalStateException("A key was assigned.");
+        }
+    }
+    
+    private void checkKey(
+            final Object key) {
+        if (!isMatchedKey(key)) {
+            throw new IllegalStateException("The key does not match.");
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code IntChangeableHolder}.
+     **/
+    public static IntChangeableHolder changeable(
+            final Object key,
+            final int    value) {
+        return of(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code IntChangeableHolder}.
+     **/
+    public static IntChangeableHolder of(
+            final Object key,
+            final int    value) {
+        return new IntChangeableHolder(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code IntChangeableHolder} without a key.
+     **/
+    public static IntChangeableHolder changeable(
+            final int value) {
+        return of(ChangeableHolder.NOKEY, value);
+    }
+    
+    /**
+     * Create and return a new {@code IntChangeableHolder} without a key.
+     **/
+    public static IntChangeableHolder of(
+            final int value) {
+        return new IntChangeableHolder(ChangeableHolder.NOKEY, value);
+    }
+    
+}
@@ -0,0 +1,54 @@
+package direct.supplier.holder;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Constant holder of {@code int} -- {@link ConstantHolder} without boxing.
+ * 
+ * @author NawaMan
+ **/
+public class IntConstantHolder
+            implements IntSupplier {
+    
+    private final int value;
+    
+    /**
+     * Construct the holder with a value.
+     * 
+     * @param value
+     *          the value.
+     **/
+    public IntConstantHolder(
+            final int value) {
+        this.value = value;
+    }
+    
+    /**
+     * Returns the value held in this holder.
+     * 
+     * {@inheritDoc}
+     **/
+    @Override
+    public final int getAsInt() {
+        return this.value;
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code IntConstantHolder}.
+     **/
+    public static IntConstantHolder constant(
+            final int value) {
+        return of(value);
+    }
+    
+    /**
+     * Create and return a new {@code IntConstantHolder}.
+     **/
+    public static IntConstantHolder of(
+            final int value) {
+        return new IntConstantHolder(value);
+    }
+    
+}
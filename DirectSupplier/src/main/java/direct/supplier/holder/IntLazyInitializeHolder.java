@@ -0,0 +1,90 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Lazy initialize holder of {@code int} -- {@link LazyInitializeHolder} without boxing.
+ * 
+ * The value is initialized only once even if it was accessed from multiple threads.
+ * If the initialization fails, the exception is thrown and the next request tries again.
+ * 
+ * @author NawaMan
+ **/
+public class IntLazyInitializeHolder
+                implements IntSupplier {
+    
+    private volatile boolean isInitialized = false;
+    
+    private int value;
+    
+    private Thread initializingThread;
+    
+    private final IntSupplier valueProducer;
+    
+    /**
+     * Construct the holder with the producer of the value.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     **/
+    public IntLazyInitializeHolder(
+            final IntSupplier valueProducer) {
+        this.valueProducer = requireNonNull(valueProducer);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public final int getAsInt() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        return initialize();
+    }
+    
+    /**
+     * Check if the value is initialized.
+     * 
+     * @return {@code true} if the value is initialized.
+     **/
+    public final boolean isInitialized() {
+        return this.isInitialized;
+    }
+    
+    private synchronized int initialize() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        if (this.initializingThread == Thread.currentThread()) {
+            throw new IllegalStateException("Recursive initialization: the producer requires its own value.");
+        }
+        this.initializingThread = Thread.currentThread();
+        try {
+            this.value         = this.valueProducer.getAsInt();
+            this.isInitialized = true;
+            return this.value;
+        } finally {
+            this.initializingThread = null;
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code IntLazyInitializeHolder}.
+     **/
+    public static IntLazyInitializeHolder lazyInitialize(
+            final IntSupplier initializer) {
+        return new IntLazyInitializeHolder(initializer);
+    }
+    
+    /**
+     * Create and return a new {@code IntLazyInitializeHolder}.
+     **/
+    public static IntLazyInitializeHolder of(
+            final IntSupplier initializer) {
+        return new IntLazyInitializeHolder(initializer);
+    }
+    
+}
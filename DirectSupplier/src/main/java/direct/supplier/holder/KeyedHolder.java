@@ -0,0 +1,420 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Keyed holder holds one lazily initialized value for each key.
+ * 
+ * This holder can be used to implement something equivalent to a lazy-loaded bean per tenant or per any other key.
+ * 
+ * The value of each key is initialized only once even if it was accessed from multiple threads (see
+ *   {@link LazyInitializeHolder}) and the initialization of one key does not block the requests for other keys.
+ * If the initialization fails, the key is removed so the next request tries again.
+ * 
+ * The holder can be bounded with a maximum size and an {@link EvictionPolicy}.
+ * When the size is over the maximum after a key is added, the policy selects the keys to evict.
+ * The requests for the held keys never take a lock -- they are recorded into a lossy striped buffer which is
+ *   replayed to the policy (under the lock of the holder) when a stripe is full or when a key is added or removed.
+ * Some of the accesses may be dropped under heavy contention, which only makes the policy slightly less precise.
+ * 
+ * The statistics of the requests, the initializations and the evictions are available from {@link #stats()}.
+ * 
+ * @author NawaMan
+ **/
+public class KeyedHolder<K, V>
+                implements Function<K, V> {
+    
+    private final ConcurrentHashMap<K, LazyInitializeHolder<V>> holders = new ConcurrentHashMap<>();
+    
+    private final Function<? super K, ? extends V> valueProducer;
+    
+    private final int maximumSize;
+    
+    private final EvictionPolicy<K> policy;
+    
+    private final StripedReadBuffer<K> readBuffer;
+    
+    private final ReentrantLock policyLock;
+    
+    private final LongAdder hitCount         = new LongAdder();
+    private final LongAdder missCount        = new LongAdder();
+    private final LongAdder loadCount        = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadNanos   = new LongAdder();
+    private final LongAdder evictionCount    = new LongAdder();
+    
+    /**
+     * Construct an unbounded holder with the producer of the values.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     **/
+    public KeyedHolder(
+            final Function<? super K, ? extends V> valueProducer) {
+        this.valueProducer = requireNonNull(valueProducer);
+        this.maximumSize   = Integer.MAX_VALUE;
+        this.policy        = null;
+        this.readBuffer    = null;
+        this.policyLock    = null;
+    }
+    
+    /**
+     * Construct a bounded holder with the producer of the values.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     * @param maximumSize
+     *          the maximum number of the keys.
+     * @param policy
+     *          the eviction policy.
+     **/
+    public KeyedHolder(
+            final Function<? super K, ? extends V> valueProducer,
+            final int                              maximumSize,
+            final EvictionPolicy<K>                policy) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maximumSize);
+        }
+        this.valueProducer = requireNonNull(valueProducer);
+        this.maximumSize   = maximumSize;
+        this.policy        = requireNonNull(policy);
+        this.readBuffer    = new StripedReadBuffer<K>();
+        this.policyLock    = new ReentrantLock();
+    }
+    
+    /**
+     * Returns the value of the key -- initializing it if needed.
+     * 
+     * @param  key  the key.
+     * @return the value.
+     **/
+    public final V get(
+            final K key) {
+        requireNonNull(key);
+        LazyInitializeHolder<V> holder = this.holders.get(key);
+        if (holder != null) {
+            this.hitCount.increment();
+            recordAccess(key);
+        } else {
+            final LazyInitializeHolder<V> newHolder = new LazyInitializeHolder<V>(()->load(key));
+            holder = this.holders.putIfAbsent(key, newHolder);
+            if (holder != null) {
+                this.hitCount.increment();
+                recordAccess(key);
+            } else {
+                this.missCount.increment();
+                holder = newHolder;
+                recordInsertion(key, newHolder);
+            }
+        }
+        
+        try {
+            return holder.get();
+        } catch (RuntimeException | Error exception) {
+            removeHolder(key, holder);
+            throw exception;
+        }
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public final V apply(
+            final K key) {
+        return get(key);
+    }
+    
+    /**
+     * Returns the values of the keys -- initializing them if needed.
+     * 
+     * @param  keys  the keys.
+     * @return the map of the keys to the values in the order of the keys.
+     **/
+    public final Map<K, V> getAll(
+            final Iterable<? extends K> keys) {
+        final Map<K, V> values = new LinkedHashMap<>();
+        for (K key : keys) {
+            values.put(key, get(key));
+        }
+        return values;
+    }
+    
+    /**
+     * Remove the value of the key so the next request for it initializes a new value.
+     * 
+     * @param  key  the key.
+     * @return {@code true} if the key was there.
+     **/
+    public final boolean remove(
+            final K key) {
+        return removeHolder(key, null);
+    }
+    
+    /**
+     * Remove all the values.
+     **/
+    public final void clear() {
+        for (K key : this.holders.keySet()) {
+            remove(key);
+        }
+    }
+    
+    /**
+     * Returns the number of the keys currently held.
+     * 
+     * @return the number of the keys.
+     **/
+    public final int size() {
+        return this.holders.size();
+    }
+    
+    /**
+     * Check if the key is currently held.
+     * 
+     * @param  key  the key.
+     * @return {@code true} if the key is held.
+     **/
+    public final boolean containsKey(
+            final K key) {
+        return this.holders.containsKey(key);
+    }
+    
+    /**
+     * Returns the snapshot of the statistics.
+     * 
+     * @return the statistics.
+     **/
+    public final Stats stats() {
+        return new Stats(
+                this.hitCount.sum(),
+                this.missCount.sum(),
+                this.loadCount.sum(),
+                this.loadFailureCount.sum(),
+                this.totalLoadNanos.sum(),
+                this.evictionCount.sum());
+    }
+    
+    private V load(
+            final K key) {
+        final long startTime = System.nanoTime();
+        try {
+            final V value = this.valueProducer.apply(key);
+            this.loadCount.increment();
+            return value;
+        } catch (RuntimeException | Error exception) {
+            this.loadFailureCount.increment();
+            throw exception;
+        } finally {
+            this.totalLoadNanos.add(System.nanoTime() - startTime);
+        }
+    }
+    
+    private void recordAccess(
+            final K key) {
+        if (this.policy == null) {
+            return;
+        }
+        if (this.readBuffer.offer(key) && this.policyLock.tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                this.policyLock.unlock();
+            }
+        }
+    }
+    
+    private void recordInsertion(
+            final K                       key,
+            final LazyInitializeHolder<V> holder) {
+        if (this.policy == null) {
+            return;
+        }
+        this.policyLock.lock();
+        try {
+            drainReadBuffer();
+            // The key may have been removed (and even added again by another thread) before the lock is acquired.
+            if (this.holders.get(key) != holder) {
+                return;
+            }
+            this.policy.recordInsertion(key);
+            while (this.holders.size() > this.maximumSize) {
+                final K victim = this.policy.selectVictim(key);
+                this.policy.recordRemoval(victim);
+                if (this.holders.remove(victim) != null) {
+                    this.evictionCount.increment();
+                }
+                if (victim.equals(key)) {
+                    break;
+                }
+            }
+        } finally {
+            this.policyLock.unlock();
+        }
+    }
+    
+    /**
+     * Remove the key from the map and the policy together -- under the policy lock so that a concurrent insertion of
+     *   the same key cannot be recorded in between and then dropped from the policy.
+     * 
+     * @param  key     the key.
+     * @param  holder  the holder to be removed -- {@code null} for any holder.
+     * @return {@code true} if the key was removed.
+     **/
+    private boolean removeHolder(
+            final K                       key,
+            final LazyInitializeHolder<V> holder) {
+        if (this.policy == null) {
+            return removeFromMap(key, holder);
+        }
+        this.policyLock.lock();
+        try {
+            drainReadBuffer();
+            final boolean isRemoved = removeFromMap(key, holder);
+            if (isRemoved) {
+                this.policy.recordRemoval(key);
+            }
+            return isRemoved;
+        } finally {
+            this.policyLock.unlock();
+        }
+    }
+    
+    private boolean removeFromMap(
+            final K                       key,
+            final LazyInitializeHolder<V> holder) {
+        return (holder == null)
+                ? (this.holders.remove(key) != null)
+                : this.holders.remove(key, holder);
+    }
+    
+    private void drainReadBuffer() {
+        this.readBuffer.drainTo(this.policy::recordAccess);
+    }
+    
+    /**
+     * The snapshot of the statistics of a {@link KeyedHolder}.
+     **/
+    public static final class Stats {
+        
+        private final long hitCount;
+        private final long missCount;
+        private final long loadCount;
+        private final long loadFailureCount;
+        private final long totalLoadNanos;
+        private final long evictionCount;
+        
+        Stats(
+                final long hitCount,
+                final long missCount,
+                final long loadCount,
+                final long loadFailureCount,
+                final long totalLoadNanos,
+                final long evictionCount) {
+            this.hitCount         = hitCount;
+            this.missCount        = missCount;
+            this.loadCount        = loadCount;
+            this.loadFailureCount = loadFailureCount;
+            this.totalLoadNanos   = totalLoadNanos;
+            this.evictionCount    = evictionCount;
+        }
+        
+        /** @return the number of the requests for the keys that were held. */
+        public long getHitCount() {
+            return this.hitCount;
+        }
+        
+        /** @return the number of the requests for the keys that were not held. */
+        public long getMissCount() {
+            return this.missCount;
+        }
+        
+        /** @return the number of the successful initializations. */
+        public long getLoadCount() {
+            return this.loadCount;
+        }
+        
+        /** @return the number of the failed initializations. */
+        public long getLoadFailureCount() {
+            return this.loadFailureCount;
+        }
+        
+        /** @return the total time spent in the initializations in nanoseconds. */
+        public long getTotalLoadNanos() {
+            return this.totalLoadNanos;
+        }
+        
+        /** @return the number of the evicted keys. */
+        public long getEvictionCount() {
+            return this.evictionCount;
+        }
+        
+        /** @return the ratio of the hits to all the requests -- 1.0 if there is no request. */
+        public double getHitRate() {
+            final long requestCount = this.hitCount + this.missCount;
+            return (requestCount == 0) ? 1.0 : ((double)this.hitCount / requestCount);
+        }
+        
+        /** @return the average time of an initialization in nanoseconds -- 0.0 if there is no initialization. */
+        public double getAverageLoadNanos() {
+            final long count = this.loadCount + this.loadFailureCount;
+            return (count == 0) ? 0.0 : ((double)this.totalLoadNanos / count);
+        }
+        
+        @Override
+        public String toString() {
+            return "Stats[hitCount=" + this.hitCount
+                    + ", missCount="        + this.missCount
+                    + ", loadCount="        + this.loadCount
+                    + ", loadFailureCount=" + this.loadFailureCount
+                    + ", totalLoadNanos="   + this.totalLoadNanos
+                    + ", evictionCount="    + this.evictionCount
+                    + "]";
+        }
+        
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new unbounded {@code KeyedHolder}.
+     **/
+    public static <K, T> KeyedHolder<K, T> keyed(
+            final Function<? super K, ? extends T> initializer) {
+        return new KeyedHolder<K, T>(initializer);
+    }
+    
+    /**
+     * Create and return a new unbounded {@code KeyedHolder}.
+     **/
+    public static <K, T> KeyedHolder<K, T> of(
+            final Function<? super K, ? extends T> initializer) {
+        return new KeyedHolder<K, T>(initializer);
+    }
+    
+    /**
+     * Create and return a new bounded {@code KeyedHolder}.
+     **/
+    public static <K, T> KeyedHolder<K, T> keyed(
+            final Function<? super K, ? extends T> initializer,
+            final int                              maximumSize,
+            final EvictionPolicy<K>                policy) {
+        return new KeyedHolder<K, T>(initializer, maximumSize, policy);
+    }
+    
+    /**
+     * Create and return a new bounded {@code KeyedHolder}.
+     **/
+    public static <K, T> KeyedHolder<K, T> of(
+            final Function<? super K, ? extends T> initializer,
+            final int                              maximumSize,
+            final EvictionPolicy<K>                policy) {
+        return new KeyedHolder<K, T>(initializer, maximumSize, policy);
+    }
+    
+}
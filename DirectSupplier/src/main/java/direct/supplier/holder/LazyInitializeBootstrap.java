@@ -0,0 +1,374 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This bootstrap initializes lazy holders that depend on one another.
+ * 
+ * Each holder is a {@link Node} created by {@link #lazyInitialize(String, Supplier)}.
+ * A dependency is either declared with {@link Node#dependsOn(Node...)} or recorded when a producer of one node calls
+ *   {@code get()} of another node.
+ * With the dependencies known, {@link #initialize()} initializes the nodes on a fork-join pool -- each node as soon as
+ *   all its dependencies are initialized so independent branches are initialized concurrently.
+ * 
+ * A dependency cycle is reported with an {@link IllegalStateException} instead of a deadlock -- by
+ *   {@link #initialize()} for the known dependencies or by {@code get()} when a producer closes a cycle, in the same
+ *   thread or across threads.
+ * 
+ * The graph and the initialization time of each node can be exported with {@link #toDot()}.
+ * 
+ * @author NawaMan
+ **/
+public class LazyInitializeBootstrap {
+    
+    private final List<Node<?>> nodes = new CopyOnWriteArrayList<>();
+    
+    private final Map<String, Node<?>> nodesByName = new ConcurrentHashMap<>();
+    
+    private final ThreadLocal<Node<?>> initializingNode = new ThreadLocal<>();
+    
+    private final Map<Thread, Node<?>> waitingNodes = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger initializingCount = new AtomicInteger();
+    
+    private final ForkJoinPool pool;
+    
+    /**
+     * Construct a bootstrap that initializes on the common pool.
+     **/
+    public LazyInitializeBootstrap() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Construct a bootstrap that initializes on the given pool.
+     * 
+     * @param pool  the pool.
+     **/
+    public LazyInitializeBootstrap(
+            final ForkJoinPool pool) {
+        this.pool = requireNonNull(pool);
+    }
+    
+    /**
+     * Create a new node.
+     * 
+     * @param  name         the unique name of the node.
+     * @param  initializer  the value producer.
+     * @return the node.
+     **/
+    public final <T> Node<T> lazyInitialize(
+            final String                name,
+            final Supplier<? extends T> initializer) {
+        final Node<T> node = new Node<T>(requireNonNull(name), requireNonNull(initializer));
+        if (this.nodesByName.putIfAbsent(name, node) != null) {
+            throw new IllegalArgumentException("Duplicate node: " + name);
+        }
+        this.nodes.add(node);
+        return node;
+    }
+    
+    /**
+     * Returns all the nodes in the order they were created.
+     * 
+     * @return the nodes.
+     **/
+    public final List<Node<?>> getNodes() {
+        return Collections.unmodifiableList(new ArrayList<>(this.nodes));
+    }
+    
+    /**
+     * Initializes all the nodes. Each node is initialized on the pool once all its dependencies are initialized.
+     * 
+     * @return the future that completes when all the nodes are initialized.
+     *           If any of the initialization fails, the future completes exceptionally.
+     * @throws IllegalStateException  if the known dependencies contain a cycle.
+     **/
+    public final CompletableFuture<Void> initialize() {
+        final List<Node<?>>                         order   = dependencyOrder();
+        final Map<Node<?>, CompletableFuture<Void>> futures = new HashMap<>();
+        for (Node<?> node : order) {
+            final CompletableFuture<?>[] dependencies = node.dependencies.stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture<?>[]::new);
+            futures.put(node, CompletableFuture.allOf(dependencies).thenRunAsync(node::get, this.pool));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[futures.size()]));
+    }
+    
+    /**
+     * Returns the graph in Graphviz DOT format. Each node is labeled with its initialization time (inclusive of its
+     *   dependencies) and its self time (exclusive of its dependencies).
+     * 
+     * @return the graph.
+     **/
+    public final String toDot() {
+        final StringBuilder dot = new StringBuilder("digraph bootstrap {\n");
+        for (Node<?> node : this.nodes) {
+            dot.append("  ").append(quote(node.name));
+            if (node.isInitialized()) {
+                dot.append(" [label=").append(quote(node.name
+                        + "\\n" + millis(node.getInitializationNanos()) + " ms"
+                        + " (self " + millis(node.getSelfNanos()) + " ms)")).append("]");
+            }
+            dot.append(";\n");
+        }
+        for (Node<?> node : this.nodes) {
+            for (Node<?> dependency : node.dependencies) {
+                dot.append("  ").append(quote(node.name)).append(" -> ").append(quote(dependency.name)).append(";\n");
+            }
+        }
+        return dot.append("}\n").toString();
+    }
+    
+    private static String quote(
+            final String text) {
+        return "\"" + text.replace("\"", "\\\"") + "\"";
+    }
+    
+    private static String millis(
+            final long nanos) {
+        return String.format("%.3f", nanos / (double)TimeUnit.MILLISECONDS.toNanos(1));
+    }
+    
+    private List<Node<?>> dependencyOrder() {
+        final Set<Node<?>> ordered  = new LinkedHashSet<>();
+        final Set<Node<?>> visiting = new LinkedHashSet<>();
+        for (Node<?> node : this.nodes) {
+            visit(node, visiting, ordered);
+        }
+        return new ArrayList<>(ordered);
+    }
+    
+    private void visit(
+            final Node<?>      node,
+            final Set<Node<?>> visiting,
+            final Set<Node<?>> ordered) {
+        if (ordered.contains(node)) {
+            return;
+        }
+        if (!visiting.add(node)) {
+            final List<Node<?>> chain = new ArrayList<>(visiting);
+            chain.add(node);
+            final List<Node<?>> cycle = chain.subList(chain.indexOf(node), chain.size());
+            throw new IllegalStateException("Dependency cycle: " + path(cycle));
+        }
+        for (Node<?> dependency : new ArrayList<>(node.dependencies)) {
+            visit(dependency, visiting, ordered);
+        }
+        visiting.remove(node);
+        ordered.add(node);
+    }
+    
+    private static String path(
+            final List<Node<?>> nodes) {
+        final StringBuilder path = new StringBuilder();
+        for (Node<?> node : nodes) {
+            if (path.length() != 0) {
+                path.append(" -> ");
+            }
+            path.append(node.name);
+        }
+        return path.toString();
+    }
+    
+    /**
+     * A lazily initialized value in the bootstrap.
+     * 
+     * @param <V>  the value type.
+     **/
+    public final class Node<V>
+                    implements Supplier<V> {
+        
+        private final String name;
+        
+        private final LazyInitializeHolder<V> holder;
+        
+        private final Set<Node<?>> dependencies = ConcurrentHashMap.newKeySet();
+        
+        private volatile Thread initializingThread = null;
+        
+        private volatile Node<?> caller = null;
+        
+        private volatile long initializationNanos = -1;
+        
+        private volatile long dependencyNanos = 0;
+        
+        Node(
+                final String                name,
+                final Supplier<? extends V> initializer) {
+            this.name   = name;
+            this.holder = new LazyInitializeHolder<V>(()->initialize(initializer));
+        }
+        
+        /**
+         * Returns the name of the node.
+         * 
+         * @return the name.
+         **/
+        public String getName() {
+            return this.name;
+        }
+        
+        /**
+         * Declare that this node depends on the other nodes.
+         * 
+         * @param  others  the nodes this node depends on.
+         * @return this node.
+         **/
+        public Node<V> dependsOn(
+                final Node<?> ... others) {
+            for (Node<?> other : others) {
+                if (LazyInitializeBootstrap.this.nodesByName.get(other.name) != other) {
+                    throw new IllegalArgumentException("The node is not in the same bootstrap: " + other.name);
+                }
+                this.dependencies.add(other);
+            }
+            return this;
+        }
+        
+        /**
+         * Returns the nodes this node depends on -- declared or recorded so far.
+         * 
+         * @return the dependencies.
+         **/
+        public Set<Node<?>> getDependencies() {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(this.dependencies));
+        }
+        
+        /**
+         * Check if the value is initialized.
+         * 
+         * @return {@code true} if the value is initialized.
+         **/
+        public boolean isInitialized() {
+            return this.initializationNanos >= 0;
+        }
+        
+        /**
+         * Returns the initialization time including the time spent getting the dependencies or -1 if not initialized.
+         * 
+         * @return the initialization time in nanoseconds.
+         **/
+        public long getInitializationNanos() {
+            return this.initializationNanos;
+        }
+        
+        /**
+         * Returns the initialization time excluding the time spent getting the dependencies or -1 if not initialized.
+         * 
+         * @return the self initialization time in nanoseconds.
+         **/
+        public long getSelfNanos() {
+            final long initializationNanos = this.initializationNanos;
+            return (initializationNanos < 0) ? -1 : Math.max(0, initializationNanos - this.dependencyNanos);
+        }
+        
+        @Override
+        public V get() {
+            if (LazyInitializeBootstrap.this.initializingCount.get() == 0) {
+                return this.holder.get();
+            }
+            
+            final Node<?> dependent = LazyInitializeBootstrap.this.initializingNode.get();
+            if (dependent == null) {
+                return this.holder.get();
+            }
+            
+            dependent.dependencies.add(this);
+            if (isInitialized()) {
+                return this.holder.get();
+            }
+            
+            // Register the wait before checking so two threads closing a cycle at the same time both see it.
+            final Thread thread    = Thread.currentThread();
+            final long   startTime = System.nanoTime();
+            LazyInitializeBootstrap.this.waitingNodes.put(thread, this);
+            try {
+                checkCycle(dependent, thread);
+                return this.holder.get();
+            } finally {
+                LazyInitializeBootstrap.this.waitingNodes.remove(thread);
+                dependent.dependencyNanos += System.nanoTime() - startTime;
+            }
+        }
+        
+        private void checkCycle(
+                final Node<?> dependent,
+                final Thread  thread) {
+            // In the same thread -- this node is being initialized down the call chain.
+            final List<Node<?>> chain = new ArrayList<>();
+            for (Node<?> node = dependent; node != null; node = node.caller) {
+                chain.add(0, node);
+                if (node == this) {
+                    chain.add(this);
+                    throw new IllegalStateException("Dependency cycle: " + path(chain));
+                }
+            }
+            
+            // Across threads -- the thread initializing this node is (transitively) waiting for this thread.
+            final List<Node<?>> waits = new ArrayList<>();
+            waits.add(dependent);
+            Node<?> waitFor = this;
+            for (int i = 0; (waitFor != null) && (i <= LazyInitializeBootstrap.this.nodes.size()); i++) {
+                waits.add(waitFor);
+                final Thread initializingThread = waitFor.initializingThread;
+                if (initializingThread == thread) {
+                    waits.add(dependent);
+                    throw new IllegalStateException("Dependency cycle across threads: " + path(waits));
+                }
+                waitFor = (initializingThread != null)
+                        ? LazyInitializeBootstrap.this.waitingNodes.get(initializingThread)
+                        : null;
+            }
+        }
+        
+        private V initialize(
+                final Supplier<? extends V> initializer) {
+            final ThreadLocal<Node<?>> initializingNode = LazyInitializeBootstrap.this.initializingNode;
+            final Node<?> caller    = initializingNode.get();
+            final long    startTime = System.nanoTime();
+            this.caller             = caller;
+            this.initializingThread = Thread.currentThread();
+            this.dependencyNanos    = 0;
+            initializingNode.set(this);
+            LazyInitializeBootstrap.this.initializingCount.incrementAndGet();
+            try {
+                final V value = initializer.get();
+                this.initializationNanos = System.nanoTime() - startTime;
+                return value;
+            } finally {
+                LazyInitializeBootstrap.this.initializingCount.decrementAndGet();
+                if (caller == null) {
+                    initializingNode.remove();
+                } else {
+                    initializingNode.set(caller);
+                }
+                this.initializingThread = null;
+                this.caller             = null;
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return "Node[" + this.name + "]";
+        }
+        
+    }
+    
+}
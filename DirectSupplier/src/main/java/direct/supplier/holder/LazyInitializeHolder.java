@@ -1,10 +1,14 @@
 package direct.supplier.holder;
 
 import static java.util.Objects.*;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Supplier;
 
+import direct.supplier.metrics.HolderMetrics;
+import direct.supplier.metrics.MetricsRegistry;
+
 /**
  * Lazy Initialize holder initializes the value on the first request.
  * 
@@ -14,21 +18,61 @@ import java.util.function.Supplier;
  *   threads.
  * 
  * NOTE: This holder has three states.
- *         1. Uninitialized -- isInitialized is null.
- *         2. Initializing  -- isInitialized is false.
- *         3. Initialized   -- isInitialized is true.
+ *         1. Uninitialized -- state is UNINITIALIZED or a Failed marker of the last failure.
+ *         2. Initializing  -- state is an Initializing marker of the initializing thread.
+ *         3. Initialized   -- state is the value itself.
+ *       Once initialized, {@code get()} is a single read of the state field.
+ *       Threads that request the value while it is being initialized wait (not spin) for the initialization.
+ *       What happens when the initialization fails is determined by the {@link InitializationPolicy}.
  * 
  * @author NawaMan
  **/
 public class LazyInitializeHolder<V>
                 implements Supplier<V> {
     
-    private volatile AtomicBoolean isInitialized = null;
+    /** The marker for the states other than initialized. No value can ever be an instance of this class. */
+    private static class State {
+    }
+    
+    /** The marker for the initializing state. */
+    private static final class Initializing extends State {
+        private final Thread thread = Thread.currentThread();
+        private final int    failureCount;
+        Initializing(
+                final int failureCount) {
+            this.failureCount = failureCount;
+        }
+    }
+    
+    /** The marker for the failed initialization. */
+    private static final class Failed extends State {
+        private final Throwable cause;
+        private final int       failureCount;
+        private final long      retryAt;
+        Failed(
+                final Throwable cause,
+                final int       failureCount,
+                final long      retryAt) {
+            this.cause        = cause;
+            this.failureCount = failureCount;
+            this.retryAt      = retryAt;
+        }
+    }
+    
+    private static final State UNINITIALIZED = new State();
+    
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LazyInitializeHolder, Object> stateUpdater
+            = AtomicReferenceFieldUpdater.newUpdater(LazyInitializeHolder.class, Object.class, "state");
     
-    private final AtomicReference<V> value = new AtomicReference<>();
+    private volatile Object state = UNINITIALIZED;
     
     private final Supplier<? extends V> valueProducer;
     
+    private final InitializationPolicy policy;
+    
+    private final MetricsSupport metrics = new MetricsSupport(LazyInitializeHolder.class);
+    
     /**
      * Construct the holder with the producer of the value.
      * 
@@ -37,38 +81,186 @@ public class LazyInitializeHolder<V>
      **/
     public LazyInitializeHolder(
             final Supplier<? extends V> valueProducer) {
+        this(valueProducer, InitializationPolicy.retry());
+    }
+    
+    /**
+     * Construct the holder with the producer of the value and the policy.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     * @param policy
+     *          the initialization policy.
+     **/
+    public LazyInitializeHolder(
+            final Supplier<? extends V> valueProducer,
+            final InitializationPolicy  policy) {
         this.valueProducer = requireNonNull(valueProducer);
+        this.policy        = requireNonNull(policy);
+        if (HolderMetrics.IS_ENABLED_FOR_ALL) {
+            enableMetrics(HolderMetrics.generateName(LazyInitializeHolder.class.getSimpleName()));
+        }
     }
     
     /** {@inheritDoc} */
+    @SuppressWarnings("unchecked")
     @Override
     public final V get() {
-        ensureInitialized();
-        final V value = this.value.get();
-        return value;
+        if (HolderMetrics.IS_ENABLED) {
+            this.metrics.recordRead();
+        }
+        final Object state = this.state;
+        if (!(state instanceof State)) {
+            return (V)state;
+        }
+        return ensureInitialized();
     }
     
-    private void ensureInitialized() {
-        while ((this.isInitialized == null) || !this.isInitialized.get()) {
-            if (this.isInitialized != null) {
-                continue;
-            }
-            synchronized (this) {
-                if (this.isInitialized != null) {
+    /**
+     * Enable the metrics of this holder -- registered with {@link MetricsRegistry#global()}.
+     * 
+     * Enabling again replaces (and unregisters) the metrics enabled before.
+     * 
+     * @param name  the name of the holder.
+     * @return the metrics -- empty if the metrics are disabled (see {@link HolderMetrics#IS_ENABLED}).
+     **/
+    public final Optional<HolderMetrics> enableMetrics(
+            final String name) {
+        return this.metrics.enable(name);
+    }
+    
+    /**
+     * Disable the metrics of this holder -- unregistered from {@link MetricsRegistry#global()} (and its MXBean).
+     * 
+     * The holders whose metrics are enabled for all (see {@link HolderMetrics#ALL_PROPERTY}) should call this when
+     *   they are no longer used.
+     **/
+    public final void disableMetrics() {
+        this.metrics.disable();
+    }
+    
+    /**
+     * Returns the metrics of this holder.
+     * 
+     * @return the metrics -- empty if not enabled.
+     **/
+    public final Optional<HolderMetrics> metrics() {
+        return this.metrics.metrics();
+    }
+    
+    /**
+     * Returns the exception of the last failed initialization if the holder is currently failed.
+     * 
+     * @return the exception of the last failure.
+     **/
+    public final Optional<Throwable> lastFailure() {
+        final Object state = this.state;
+        if (state instanceof Failed) {
+            return Optional.of(((Failed)state).cause);
+        }
+        return Optional.empty();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V ensureInitialized() {
+        final long waitTimeout   = this.policy.getWaitTimeoutNanos();
+        final long waitDeadline  = System.nanoTime() + waitTimeout;
+        int        waitedFor     = -1;
+        boolean    isInterrupted = false;
+        try {
+            while (true) {
+                final Object state = this.state;
+                if (!(state instanceof State)) {
+                    return (V)state;
+                }
+                if (state instanceof Failed) {
+                    final Failed failed = (Failed)state;
+                    final boolean isWaitedFor = (failed.failureCount == waitedFor + 1);
+                    if (isWaitedFor || !isRetryDue(failed)) {
+                        throw new InitializationException("Initialization failed.", failed.cause);
+                    }
+                }
+                if (!(state instanceof Initializing)) {
+                    final int          failureCount = (state instanceof Failed) ? ((Failed)state).failureCount : 0;
+                    final Initializing initializing = new Initializing(failureCount);
+                    if (stateUpdater.compareAndSet(this, state, initializing)) {
+                        return initializeAndPublish(initializing);
+                    }
                     continue;
                 }
                 
-                this.isInitialized = new AtomicBoolean(false);
+                final Initializing initializing = (Initializing)state;
+                if (initializing.thread == Thread.currentThread()) {
+                    throw new IllegalStateException("Recursive initialization: the producer requires its own value.");
+                }
+                
+                waitedFor = initializing.failureCount;
+                if (HolderMetrics.IS_ENABLED) {
+                    this.metrics.recordContention();
+                }
+                synchronized (this) {
+                    while (this.state == initializing) {
+                        try {
+                            if (waitTimeout == 0) {
+                                this.wait();
+                                continue;
+                            }
+                            final long remaining = waitDeadline - System.nanoTime();
+                            if (remaining <= 0) {
+                                throw new InitializationException("Timed out waiting for the initialization.");
+                            }
+                            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        } catch (InterruptedException exception) {
+                            isInterrupted = true;
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
             }
-            
+        }
+    }
+    
+    private boolean isRetryDue(
+            final Failed failed) {
+        return this.policy.isRetry()
+            && ((System.nanoTime() - failed.retryAt) >= 0);
+    }
+    
+    private V initializeAndPublish(
+            final Initializing initializing) {
+        try {
             final V value = initialize();
-            this.value.set(value);
-            
-            this.isInitialized.set(true);
+            publish(value);
+            return value;
+        } catch (RuntimeException | Error exception) {
+            final int  failureCount = initializing.failureCount + 1;
+            final long retryAt      = System.nanoTime() + this.policy.getBackoffNanos(failureCount);
+            publish(new Failed(exception, failureCount, retryAt));
+            throw exception;
+        }
+    }
+    
+    private void publish(
+            final Object newState) {
+        synchronized (this) {
+            this.state = newState;
+            this.notifyAll();
         }
     }
     
     private V initialize() {
+        if (HolderMetrics.IS_ENABLED) {
+            final HolderMetrics metrics = this.metrics.get();
+            if (metrics != null) {
+                final long startTime = System.nanoTime();
+                final V    value     = requireNonNull(this.valueProducer).get();
+                metrics.recordInitialization(System.nanoTime() - startTime);
+                return value;
+            }
+        }
         final V value = requireNonNull(this.valueProducer).get();
         return value;
     }
@@ -91,4 +283,22 @@ public class LazyInitializeHolder<V>
         return new LazyInitializeHolder<T>(initializer);
     }
     
+    /**
+     * Create and return a new {@code LazyInitializeHolder} with the policy.
+     **/
+    public static <T> LazyInitializeHolder<T> lazyInitialize(
+            final Supplier<? extends T> initializer,
+            final InitializationPolicy  policy) {
+        return new LazyInitializeHolder<T>(initializer, policy);
+    }
+    
+    /**
+     * Create and return a new {@code LazyInitializeHolder} with the policy.
+     **/
+    public static <T> LazyInitializeHolder<T> of(
+            final Supplier<? extends T> initializer,
+            final InitializationPolicy  policy) {
+        return new LazyInitializeHolder<T>(initializer, policy);
+    }
+    
 }
@@ -0,0 +1,80 @@
+package direct.supplier.holder;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Least-frequently-used eviction policy. The least-recently-used key is evicted among the least-frequently-used ones.
+ * 
+ * @author NawaMan
+ **/
+class LfuEvictionPolicy<K> implements EvictionPolicy<K> {
+    
+    private final Map<K, Integer> frequencies = new HashMap<>();
+    
+    private final TreeMap<Integer, LinkedHashSet<K>> keysByFrequency = new TreeMap<>();
+    
+    @Override
+    public void recordAccess(
+            final K key) {
+        final Integer frequency = this.frequencies.get(key);
+        if (frequency == null) {
+            return;
+        }
+        unlink(key, frequency);
+        link(key, frequency + 1);
+    }
+    
+    @Override
+    public void recordInsertion(
+            final K key) {
+        final Integer frequency = this.frequencies.get(key);
+        if (frequency != null) {
+            unlink(key, frequency);
+        }
+        link(key, 1);
+    }
+    
+    @Override
+    public void recordRemoval(
+            final K key) {
+        final Integer frequency = this.frequencies.remove(key);
+        if (frequency != null) {
+            unlink(key, frequency);
+        }
+    }
+    
+    @Override
+    public K selectVictim(
+            final K candidate) {
+        for (LinkedHashSet<K> keys : this.keysByFrequency.values()) {
+            for (K key : keys) {
+                if (!Objects.equals(key, candidate)) {
+                    return key;
+                }
+            }
+        }
+        return candidate;
+    }
+    
+    private void link(
+            final K   key,
+            final int frequency) {
+        this.frequencies.put(key, frequency);
+        this.keysByFrequency.computeIfAbsent(frequency, f->new LinkedHashSet<>()).add(key);
+    }
+    
+    private void unlink(
+            final K   key,
+            final int frequency) {
+        final LinkedHashSet<K> keys = this.keysByFrequency.get(frequency);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            this.keysByFrequency.remove(frequency);
+        }
+    }
+    
+}
@@ -0,0 +1,237 @@
+package direct.supplier.holder;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Changeable holder of {@code long} -- {@link ChangeableHolder} without boxing.
+ * 
+ * If a key is assigned, the key must be used to perform the changes -- as {@link ChangeableHolder}.
+ * All the changes are atomic and lock free and none of them allocates.
+ * Unlike {@link ChangeableHolder}, the changes are not stamped nor can be subscribed to.
+ * 
+ * @author NawaMan
+ **/
+public class LongChangeableHolder
+        implements LongSupplier {
+    
+    private static final AtomicLongFieldUpdater<LongChangeableHolder> updater
+            = AtomicLongFieldUpdater.newUpdater(LongChangeableHolder.class, "value");
+    
+    private volatile long value;
+    
+    private final Object key;
+    
+    /**
+     * Construct a holder with a key. If the key is {@code ChangeableHolder.NOKEY}, then no key is assigned.
+     * 
+     * @param  key    the key.
+     * @param  value  the initial value.
+     */
+    public LongChangeableHolder(
+            final Object key,
+            final long   value) {
+        this.key   = key;
+        this.value = value;
+    }
+    
+    /**
+     * Returns the value.
+     * 
+     * {@inheritDoc}
+     */
+    @Override
+    public final long getAsLong() {
+        return this.value;
+    }
+    
+    /**
+     * Given no key was assigned. Change the value.
+     * 
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if a key was assigned.
+     */
+    public final boolean set(
+            final long value) {
+        if (this.key != ChangeableHolder.NOKEY) {
+            return false;
+        }
+        this.value = value;
+        return true;
+    }
+    
+    /**
+     * Given a key was assigned. Change the value.
+     * 
+     * @param  key    the key.
+     * @param  value  the value.
+     * @return {@code true} if successful -- {@code false} if the key does not match.
+     */
+    public final boolean set(
+            final Object key,
+            final long   value) {
+        if (!isMatchedKey(key)) {
+            return false;
+        }
+        this.value = value;
+        return true;
+    }
+    
+    /**
+     * Given no key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final long expectedValue,
+            final long newValue) {
+        return (this.key == ChangeableHolder.NOKEY)
+            && updater.compareAndSet(this, expectedValue, newValue);
+    }
+    
+    /**
+     * Given a key was assigned. Change the value if the current value is the expected value.
+     * 
+     * @param  key            the key.
+     * @param  expectedValue  the expected current value.
+     * @param  newValue       the new value.
+     * @return {@code true} if successful.
+     */
+    public final boolean compareAndSet(
+            final Object key,
+            final long   expectedValue,
+            final long   newValue) {
+        return isMatchedKey(key)
+            && updater.compareAndSet(this, expectedValue, newValue);
+    }
+    
+    /**
+     * Given no key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if a key was assigned.
+     */
+    public final long updateAndGet(
+            final LongUnaryOperator function) {
+        checkNoKey();
+        return doUpdateAndGet(function);
+    }
+    
+    /**
+     * Given a key was assigned. Update the value atomically with the function.
+     * 
+     * The function may be applied more than once if the value is changed concurrently so it should have no side effect.
+     * 
+     * @param  key       the key.
+     * @param  function  the update function.
+     * @return the new value.
+     * @throws IllegalStateException  if the key does not match.
+     */
+    public final long updateAndGet(
+            final Object            key,
+            final LongUnaryOperator function) {
+        checkKey(key);
+        return doUpdateAndGet(function);
+    }
+    
+    /**
+     * Given no key was assigned. Add the delta to the value atomically.
+     * 
+     * @param  delta  the delta.
+     * @return the new value.
+     * @throws IllegalStateException  if a key was assigned.
+     */
+    public final long addAndGet(
+            final long delta) {
+        checkNoKey();
+        return updater.addAndGet(this, delta);
+    }
+    
+    /**
+     * Given a key was assigned. Add the delta to the value atomically.
+     * 
+     * @param  key    the key.
+     * @param  delta  the delta.
+     * @return the new value.
+     * @throws IllegalStateException  if the key does not match.
+     */
+    public final long addAndGet(
+            final Object key,
+            final long    delta) {
+        checkKey(key);
+        return updater.addAndGet(this, delta);
+    }
+    
+    private long doUpdateAndGet(
+            final LongUnaryOperator function) {
+        while (true) {
+            final long current  = this.value;
+            final long newValue = function.applyAsLong(current);
+            if (updater.compareAndSet(this, current, newValue)) {
+                return newValue;
+            }
+        }
+    }
+    
+    private boolean isMatchedKey(
+            final Object key) {
+        return (this.key != ChangeableHolder.NOKEY) && Objects.equals(this.key, key);
+    }
+    
+    private void checkNoKey() {
+        if (this.key != ChangeableHolder.NOKEY) {
+            throw new IllegalStateException("A key was assigned.");
+        }
+    }
+    
+    private void checkKey(
+            final Object key) {
+        if (!isMatchedKey(key)) {
+            throw new IllegalStateException("The key does not match.");
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code LongChangeableHolder}.
+     **/
+    public static LongChangeableHolder changeable(
+            final Object key,
+            final long   value) {
+        return of(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code LongChangeableHolder}.
+     **/
+    public static LongChangeableHolder of(
+            final Object key,
+            final long   value) {
+        return new LongChangeableHolder(key, value);
+    }
+    
+    /**
+     * Create and return a new {@code LongChangeableHolder} without a key.
+     **/
+    public static LongChangeableHolder changeable(
+            final long value) {
+        return of(ChangeableHolder.NOKEY, value);
+    }
+    
+    /**
+     * Create and return a new {@code LongChangeableHolder} without a key.
+     **/
+    public static LongChangeableHolder of(
+            final long value) {
+        return new LongChangeableHolder(ChangeableHolder.NOKEY, value);
+    }
+    
+}
@@ -0,0 +1,54 @@
+package direct.supplier.holder;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Constant holder of {@code long} -- {@link ConstantHolder} without boxing.
+ * 
+ * @author NawaMan
+ **/
+public class LongConstantHolder
+            implements LongSupplier {
+    
+    private final long value;
+    
+    /**
+     * Construct the holder with a value.
+     * 
+     * @param value
+     *          the value.
+     **/
+    public LongConstantHolder(
+            final long value) {
+        this.value = value;
+    }
+    
+    /**
+     * Returns the value held in this holder.
+     * 
+     * {@inheritDoc}
+     **/
+    @Override
+    public final long getAsLong() {
+        return this.value;
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code LongConstantHolder}.
+     **/
+    public static LongConstantHolder constant(
+            final long value) {
+        return of(value);
+    }
+    
+    /**
+     * Create and return a new {@code LongConstantHolder}.
+     **/
+    public static LongConstantHolder of(
+            final long value) {
+        return new LongConstantHolder(value);
+    }
+    
+}
@@ -0,0 +1,90 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Lazy initialize holder of {@code long} -- {@link LazyInitializeHolder} without boxing.
+ * 
+ * The value is initialized only once even if it was accessed from multiple threads.
+ * If the initialization fails, the exception is thrown and the next request tries again.
+ * 
+ * @author NawaMan
+ **/
+public class LongLazyInitializeHolder
+                implements LongSupplier {
+    
+    private volatile boolean isInitialized = false;
+    
+    private long value;
+    
+    private Thread initializingThread;
+    
+    private final LongSupplier valueProducer;
+    
+    /**
+     * Construct the holder with the producer of the value.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     **/
+    public LongLazyInitializeHolder(
+            final LongSupplier valueProducer) {
+        this.valueProducer = requireNonNull(valueProducer);
+    }
+    
+    /** {@inheritDoc} */
+    @Override
+    public final long getAsLong() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        return initialize();
+    }
+    
+    /**
+     * Check if the value is initialized.
+     * 
+     * @return {@code true} if the value is initialized.
+     **/
+    public final boolean isInitialized() {
+        return this.isInitialized;
+    }
+    
+    private synchronized long initialize() {
+        if (this.isInitialized) {
+            return this.value;
+        }
+        if (this.initializingThread == Thread.currentThread()) {
+            throw new IllegalStateException("Recursive initialization: the producer requires its own value.");
+        }
+        this.initializingThread = Thread.currentThread();
+        try {
+            this.value         = this.valueProducer.getAsLong();
+            this.isInitialized = true;
+            return this.value;
+        } finally {
+            this.initializingThread = null;
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code LongLazyInitializeHolder}.
+     **/
+    public static LongLazyInitializeHolder lazyInitialize(
+            final LongSupplier initializer) {
+        return new LongLazyInitializeHolder(initializer);
+    }
+    
+    /**
+     * Create and return a new {@code LongLazyInitializeHolder}.
+     **/
+    public static LongLazyInitializeHolder of(
+            final LongSupplier initializer) {
+        return new LongLazyInitializeHolder(initializer);
+    }
+    
+}
@@ -0,0 +1,44 @@
+package direct.supplier.holder;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * Least-recently-used eviction policy.
+ * 
+ * @author NawaMan
+ **/
+class LruEvictionPolicy<K> implements EvictionPolicy<K> {
+    
+    private final LinkedHashMap<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+    
+    @Override
+    public void recordAccess(
+            final K key) {
+        this.order.get(key);
+    }
+    
+    @Override
+    public void recordInsertion(
+            final K key) {
+        this.order.put(key, Boolean.TRUE);
+    }
+    
+    @Override
+    public void recordRemoval(
+            final K key) {
+        this.order.remove(key);
+    }
+    
+    @Override
+    public K selectVictim(
+            final K candidate) {
+        for (K key : this.order.keySet()) {
+            if (!Objects.equals(key, candidate)) {
+                return key;
+            }
+        }
+        return candidate;
+    }
+    
+}
@@ -0,0 +1,82 @@
+package direct.supplier.holder;
+
+import java.util.Optional;
+
+import direct.supplier.metrics.HolderMetrics;
+import direct.supplier.metrics.MetricsRegistry;
+
+/**
+ * The metrics of one instrumented holder -- enabling, disabling and recording them the same way for all the holders.
+ * 
+ * The holders only call the recording methods if {@link HolderMetrics#IS_ENABLED} so this costs nothing when the
+ *   metrics are disabled.
+ * 
+ * @author NawaMan
+ **/
+final class MetricsSupport {
+    
+    private final String type;
+    
+    /** The metrics -- {@code null} if not enabled. */
+    private volatile HolderMetrics metrics = null;
+    
+    MetricsSupport(
+            final Class<?> holderClass) {
+        this.type = holderClass.getSimpleName();
+    }
+    
+    /**
+     * Enable the metrics -- registered with {@link MetricsRegistry#global()}.
+     * 
+     * The metrics enabled before (if any) are unregistered first.
+     * 
+     * @param name  the name of the holder.
+     * @return the metrics -- empty if the metrics are disabled (see {@link HolderMetrics#IS_ENABLED}).
+     **/
+    synchronized Optional<HolderMetrics> enable(
+            final String name) {
+        if (!HolderMetrics.IS_ENABLED) {
+            return Optional.empty();
+        }
+        disable();
+        final HolderMetrics metrics = MetricsRegistry.global().create(name, this.type);
+        this.metrics = metrics;
+        return Optional.of(metrics);
+    }
+    
+    /**
+     * Disable the metrics -- unregistered from {@link MetricsRegistry#global()} (and its MXBean).
+     **/
+    synchronized void disable() {
+        final HolderMetrics metrics = this.metrics;
+        if (metrics != null) {
+            this.metrics = null;
+            MetricsRegistry.global().unregister(metrics);
+        }
+    }
+    
+    /** @return the metrics -- empty if not enabled. */
+    Optional<HolderMetrics> metrics() {
+        return Optional.ofNullable(this.metrics);
+    }
+    
+    /** @return the metrics -- {@code null} if not enabled. */
+    HolderMetrics get() {
+        return this.metrics;
+    }
+    
+    void recordRead() {
+        final HolderMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordRead();
+        }
+    }
+    
+    void recordContention() {
+        final HolderMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordContention();
+        }
+    }
+    
+}
@@ -0,0 +1,27 @@
+package direct.supplier.holder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The atomic reference padded to take up more than a cache line so the objects allocated next to it do not share the
+ *   cache line of its value.
+ * 
+ * The padding follows the value (the fields of a subclass are laid out after those of the superclass) so when all the
+ *   frequently-written references are padded, the value of each of them is on a line of its own.
+ * 
+ * @author NawaMan
+ **/
+@SuppressWarnings("unused")
+final class PaddedAtomicReference<V> extends AtomicReference<V> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private long p01, p02, p03, p04, p05, p06, p07, p08;
+    private long p09, p10, p11, p12, p13, p14, p15, p16;
+    
+    PaddedAtomicReference(
+            final V initialValue) {
+        super(initialValue);
+    }
+    
+}
@@ -0,0 +1,64 @@
+package direct.supplier.holder;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link LazyInitializeHolder} padded to take up more than a cache line so the objects allocated next to it do not
+ *   share the cache line of its state.
+ * 
+ * Use this for the holders that are read on every request and are allocated together with frequently-written objects
+ *   (such as other holders) at startup -- otherwise every write next to it makes its readers miss the cache.
+ * 
+ * @author NawaMan
+ **/
+@SuppressWarnings("unused")
+public class PaddedLazyInitializeHolder<V> extends LazyInitializeHolder<V> {
+    
+    private long p01, p02, p03, p04, p05, p06, p07, p08;
+    private long p09, p10, p11, p12, p13, p14, p15, p16;
+    
+    /**
+     * Construct the holder with the producer of the value.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     **/
+    public PaddedLazyInitializeHolder(
+            final Supplier<? extends V> valueProducer) {
+        super(valueProducer);
+    }
+    
+    /**
+     * Construct the holder with the producer of the value and the policy.
+     * 
+     * @param valueProducer
+     *          the value producer.
+     * @param policy
+     *          the initialization policy.
+     **/
+    public PaddedLazyInitializeHolder(
+            final Supplier<? extends V> valueProducer,
+            final InitializationPolicy  policy) {
+        super(valueProducer, policy);
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code PaddedLazyInitializeHolder}.
+     **/
+    public static <T> PaddedLazyInitializeHolder<T> paddedLazyInitialize(
+            final Supplier<? extends T> initializer) {
+        return new PaddedLazyInitializeHolder<T>(initializer);
+    }
+    
+    /**
+     * Create and return a new {@code PaddedLazyInitializeHolder} with the policy.
+     **/
+    public static <T> PaddedLazyInitializeHolder<T> paddedLazyInitialize(
+            final Supplier<? extends T> initializer,
+            final InitializationPolicy  policy) {
+        return new PaddedLazyInitializeHolder<T>(initializer, policy);
+    }
+    
+}
@@ -0,0 +1,583 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Pooled holder lends non-thread-safe instances out of a bounded pool.
+ * 
+ * Like {@link ThreadLocalHolder}, this holder allows an expensive non-thread-safe object to be reused but the number
+ *   of the instances is bounded by the pool not by the number of the threads -- what matters with large thread pools
+ *   or virtual threads.
+ * 
+ * <pre>
+ * try (PooledHolder.Lease&lt;SimpleDateFormat&gt; format = formats.lease()) {
+ *     return format.get().format(date);
+ * }
+ * </pre>
+ * 
+ * Each instance has its own slot for the life of the instance and the slot knows if the instance is lent out, so an
+ *   instance returned twice (or not from this pool) is rejected.
+ * The idle slots are kept in lock-free stacks striped by the thread so the threads mostly do not touch the same stack.
+ * A thread takes from and returns to its own stripe first and only looks at the other stripes if needed -- taking an
+ *   instance never scans the slots.
+ * When all the instances are lent out and the maximum is reached, the borrower waits (backing off) for one to be
+ *   returned -- until it is interrupted or, with {@link #borrow(long, TimeUnit)}, until the timeout.
+ * A returned instance is validated (an invalid one is discarded) and then reset before it is pooled again.
+ * If the validator or the resetter throws, the instance is discarded (freeing its capacity) and the exception is
+ *   rethrown to the releaser.
+ * 
+ * The statistics of the pool are available from {@link #stats()}.
+ * 
+ * @author NawaMan
+ **/
+public class PooledHolder<R> {
+    
+    /** The maximum number of the instances of a pool. */
+    public static final int MAX_INSTANCES = 1 << 16;
+    
+    private static final long MIN_BACKOFF_NANOS = 1_000L;
+    private static final long MAX_BACKOFF_NANOS = 1_000_000L;
+    
+    /** The heads of the stripes are this many longs apart so they are not on the same cache line. */
+    private static final int HEAD_SPACING = 8;
+    
+    private static final long INDEX_MASK = 0xFFFF_FFFFL;
+    private static final long NO_INDEX   = INDEX_MASK;
+    
+    private final Supplier<? extends R> factory;
+    
+    private final Predicate<? super R> validator;
+    
+    private final Consumer<? super R> resetter;
+    
+    private final int maxInstances;
+    
+    private final int stripeCount;
+    
+    /** The slot of each instance -- published to the other threads by the CAS of the stack heads. */
+    private final Slot<R>[] slots;
+    
+    /** The next slot index in the same stack -- published to the other threads by the CAS of the stack heads. */
+    private final int[] nextIndexes;
+    
+    /** The heads of the stacks of the idle slots (one per stripe) and the unused indexes (the last one). */
+    private final AtomicLongArray heads;
+    
+    private final int unusedHead;
+    
+    private final ConcurrentHashMap<Identity, Slot<R>> slotsByInstance = new ConcurrentHashMap<>();
+    
+    private final AtomicInteger instanceCount = new AtomicInteger();
+    
+    private final LongAdder borrowCount  = new LongAdder();
+    private final LongAdder hitCount     = new LongAdder();
+    private final LongAdder createCount  = new LongAdder();
+    private final LongAdder waitCount    = new LongAdder();
+    private final LongAdder discardCount = new LongAdder();
+    
+    /**
+     * Construct a pool of the instances from the factory.
+     * 
+     * @param factory       the factory of the instances.
+     * @param maxInstances  the maximum number of the instances.
+     **/
+    public PooledHolder(
+            final Supplier<? extends R> factory,
+            final int                   maxInstances) {
+        this(factory, maxInstances, null, null);
+    }
+    
+    /**
+     * Construct a pool of the instances from the factory.
+     * 
+     * @param factory       the factory of the instances.
+     * @param maxInstances  the maximum number of the instances.
+     * @param validator     the validator of the returned instances -- {@code null} for all valid.
+     * @param resetter      the resetter of the returned instances -- {@code null} for no reset.
+     **/
+    @SuppressWarnings("unchecked")
+    public PooledHolder(
+            final Supplier<? extends R> factory,
+            final int                   maxInstances,
+            final Predicate<? super R>  validator,
+            final Consumer<? super R>   resetter) {
+        if ((maxInstances <= 0) || (maxInstances > MAX_INSTANCES)) {
+            throw new IllegalArgumentException("Invalid maximum instances: " + maxInstances);
+        }
+        this.factory      = requireNonNull(factory);
+        this.validator    = validator;
+        this.resetter     = resetter;
+        this.maxInstances = maxInstances;
+        this.stripeCount  = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1), 64);
+        this.slots        = (Slot<R>[])new Slot<?>[maxInstances];
+        this.nextIndexes  = new int[maxInstances];
+        this.heads        = new AtomicLongArray((this.stripeCount + 1) * HEAD_SPACING);
+        this.unusedHead   = this.stripeCount * HEAD_SPACING;
+        for (int i = 0; i < this.stripeCount; i++) {
+            this.heads.set(i * HEAD_SPACING, NO_INDEX);
+        }
+        for (int i = 0; i < maxInstances; i++) {
+            this.nextIndexes[i] = (i + 1 < maxInstances) ? i + 1 : -1;
+        }
+        this.heads.set(this.unusedHead, 0);
+    }
+    
+    /**
+     * Borrow an instance as a lease that returns it when closed.
+     * 
+     * This waits if all the instances are lent out and the maximum is reached.
+     * 
+     * @return  the lease.
+     * @throws InterruptedException  if the thread is interrupted while waiting.
+     **/
+    public final Lease<R> lease() throws InterruptedException {
+        return new Lease<R>(this, borrowSlot(-1L));
+    }
+    
+    /**
+     * Borrow an instance as a lease that returns it when closed -- waiting at most the given time.
+     * 
+     * @param timeout  the maximum time to wait.
+     * @param unit     the unit of the timeout.
+     * @return  the lease or {@code null} if no instance was available before the timeout.
+     * @throws InterruptedException  if the thread is interrupted while waiting.
+     **/
+    public final Lease<R> lease(
+            final long     timeout,
+            final TimeUnit unit)
+                throws InterruptedException {
+        final Slot<R> slot = borrowSlot(Math.max(0L, unit.toNanos(timeout)));
+        return (slot != null) ? new Lease<R>(this, slot) : null;
+    }
+    
+    /**
+     * Borrow an instance -- it must be returned with {@link #release(Object)}.
+     * 
+     * This waits if all the instances are lent out and the maximum is reached.
+     * 
+     * @return  the instance.
+     * @throws InterruptedException  if the thread is interrupted while waiting.
+     **/
+    public final R borrow() throws InterruptedException {
+        return borrowSlot(-1L).instance;
+    }
+    
+    /**
+     * Borrow an instance -- waiting at most the given time. The instance must be returned with {@link #release(Object)}.
+     * 
+     * @param timeout  the maximum time to wait.
+     * @param unit     the unit of the timeout.
+     * @return  the instance or {@code null} if no instance was available before the timeout.
+     * @throws InterruptedException  if the thread is interrupted while waiting.
+     **/
+    public final R borrow(
+            final long     timeout,
+            final TimeUnit unit)
+                throws InterruptedException {
+        final Slot<R> slot = borrowSlot(Math.max(0L, unit.toNanos(timeout)));
+        return (slot != null) ? slot.instance : null;
+    }
+    
+    /**
+     * Return the borrowed instance to the pool.
+     * 
+     * @param instance  the instance.
+     * @throws IllegalStateException  if the instance is not currently lent out by this pool -- e.g., returned twice.
+     **/
+    public final void release(
+            final R instance) {
+        final Slot<R> slot = this.slotsByInstance.get(new Identity(requireNonNull(instance)));
+        if (slot == null) {
+            throw new IllegalStateException("The instance is not lent out by this pool: " + instance);
+        }
+        releaseSlot(slot);
+    }
+    
+    /**
+     * Returns the number of the instances -- both idle and lent out.
+     * 
+     * @return  the number of the instances.
+     **/
+    public final int instanceCount() {
+        return this.instanceCount.get();
+    }
+    
+    /**
+     * Returns the snapshot of the statistics.
+     * 
+     * @return the statistics.
+     **/
+    public final Stats stats() {
+        return new Stats(
+                this.borrowCount.sum(),
+                this.hitCount.sum(),
+                this.createCount.sum(),
+                this.waitCount.sum(),
+                this.discardCount.sum(),
+                this.instanceCount.get());
+    }
+    
+    /** Borrow a slot -- waiting for the given nanoseconds (negative for no limit). */
+    private Slot<R> borrowSlot(
+            final long timeoutNanos) throws InterruptedException {
+        this.borrowCount.increment();
+        final int stripe = stripe();
+        
+        Slot<R> slot = pollIdle(stripe);
+        if (slot != null) {
+            this.hitCount.increment();
+            return lend(slot);
+        }
+        
+        final long deadline = (timeoutNanos >= 0) ? System.nanoTime() + timeoutNanos : 0L;
+        for (int retry = 0; ; retry++) {
+            final int count = this.instanceCount.get();
+            if (count < this.maxInstances) {
+                if (this.instanceCount.compareAndSet(count, count + 1)) {
+                    return create();
+                }
+                continue;
+            }
+            
+            slot = pollIdle(stripe);
+            if (slot != null) {
+                this.hitCount.increment();
+                return lend(slot);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            
+            long backoff = Math.min(MIN_BACKOFF_NANOS << Math.min(retry, 20), MAX_BACKOFF_NANOS);
+            if (timeoutNanos >= 0) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                backoff = Math.min(backoff, remaining);
+            }
+            if (retry == 0) {
+                this.waitCount.increment();
+            }
+            LockSupport.parkNanos(this, backoff);
+        }
+    }
+    
+    private Slot<R> lend(
+            final Slot<R> slot) {
+        slot.set(true);
+        return slot;
+    }
+    
+    private void releaseSlot(
+            final Slot<R> slot) {
+        if (!slot.compareAndSet(true, false)) {
+            throw new IllegalStateException("The instance is already returned: " + slot.instance);
+        }
+        final R instance = slot.instance;
+        try {
+            if ((this.validator != null) && !this.validator.test(instance)) {
+                discard(slot);
+                return;
+            }
+            if (this.resetter != null) {
+                this.resetter.accept(instance);
+            }
+        } catch (RuntimeException | Error exception) {
+            discard(slot);
+            throw exception;
+        }
+        push(stripe() * HEAD_SPACING, slot.index);
+    }
+    
+    private Slot<R> create() {
+        final int index = pop(this.unusedHead);
+        try {
+            final R       instance = requireNonNull(this.factory.get());
+            final Slot<R> slot     = new Slot<R>(instance, index);
+            this.slots[index] = slot;
+            this.slotsByInstance.put(new Identity(instance), slot);
+            this.createCount.increment();
+            return lend(slot);
+        } catch (RuntimeException | Error exception) {
+            push(this.unusedHead, index);
+            this.instanceCount.decrementAndGet();
+            throw exception;
+        }
+    }
+    
+    private void discard(
+            final Slot<R> slot) {
+        this.slotsByInstance.remove(new Identity(slot.instance));
+        this.slots[slot.index] = null;
+        push(this.unusedHead, slot.index);
+        this.instanceCount.decrementAndGet();
+        this.discardCount.increment();
+    }
+    
+    private int stripe() {
+        final long id   = Thread.currentThread().getId();
+        final int  hash = (int)(id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash >>> 16) & (this.stripeCount - 1);
+    }
+    
+    private Slot<R> pollIdle(
+            final int stripe) {
+        final int stripeCount = this.stripeCount;
+        for (int i = 0, s = stripe; i < stripeCount; i++, s = (s + 1) & (stripeCount - 1)) {
+            final int index = pop(s * HEAD_SPACING);
+            if (index >= 0) {
+                return this.slots[index];
+            }
+        }
+        return null;
+    }
+    
+    /** Pop an index from the stack (Treiber stack with a stamp in the high bits against ABA) -- -1 if empty. */
+    private int pop(
+            final int head) {
+        final AtomicLongArray heads = this.heads;
+        while (true) {
+            final long current = heads.get(head);
+            final long index   = current & INDEX_MASK;
+            if (index == NO_INDEX) {
+                return -1;
+            }
+            final long next  = this.nextIndexes[(int)index] & INDEX_MASK;
+            final long stamp = (current >>> 32) + 1;
+            if (heads.compareAndSet(head, current, (stamp << 32) | next)) {
+                return (int)index;
+            }
+        }
+    }
+    
+    private void push(
+            final int head,
+            final int index) {
+        final AtomicLongArray heads = this.heads;
+        while (true) {
+            final long current = heads.get(head);
+            final long stamp   = (current >>> 32) + 1;
+            final long top     = current & INDEX_MASK;
+            this.nextIndexes[index] = (top == NO_INDEX) ? -1 : (int)top;
+            if (heads.compareAndSet(head, current, (stamp << 32) | index)) {
+                return;
+            }
+        }
+    }
+    
+    /** The slot of an instance -- the value is {@code true} while the instance is lent out. */
+    @SuppressWarnings("serial")
+    static final class Slot<R> extends AtomicBoolean {
+        
+        final R instance;
+        
+        final int index;
+        
+        Slot(
+                final R   instance,
+                final int index) {
+            this.instance = instance;
+            this.index    = index;
+        }
+        
+    }
+    
+    /** The key comparing the instances by identity. */
+    static final class Identity {
+        
+        private final Object instance;
+        
+        Identity(
+                final Object instance) {
+            this.instance = instance;
+        }
+        
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.instance);
+        }
+        
+        @Override
+        public boolean equals(
+                final Object other) {
+            return (other instanceof Identity) && (((Identity)other).instance == this.instance);
+        }
+        
+    }
+    
+    /**
+     * The lease of a pooled instance. Closing the lease returns the instance to the pool.
+     * 
+     * @author NawaMan
+     **/
+    public static final class Lease<R> implements Supplier<R>, AutoCloseable {
+        
+        private final PooledHolder<R> pool;
+        
+        private Slot<R> slot;
+        
+        Lease(
+                final PooledHolder<R> pool,
+                final Slot<R>         slot) {
+            this.pool = pool;
+            this.slot = slot;
+        }
+        
+        /**
+         * Returns the leased instance.
+         * 
+         * @throws IllegalStateException  if the lease is already closed.
+         **/
+        @Override
+        public R get() {
+            final Slot<R> slot = this.slot;
+            if (slot == null) {
+                throw new IllegalStateException("The lease is closed.");
+            }
+            return slot.instance;
+        }
+        
+        /**
+         * Return the instance to the pool. Closing more than once has no effect.
+         **/
+        @Override
+        public void close() {
+            final Slot<R> slot = this.slot;
+            if (slot != null) {
+                this.slot = null;
+                this.pool.releaseSlot(slot);
+            }
+        }
+        
+    }
+    
+    /**
+     * The snapshot of the statistics of a {@link PooledHolder}.
+     **/
+    public static final class Stats {
+        
+        private final long borrowCount;
+        private final long hitCount;
+        private final long createCount;
+        private final long waitCount;
+        private final long discardCount;
+        private final int  instanceCount;
+        
+        Stats(
+                final long borrowCount,
+                final long hitCount,
+                final long createCount,
+                final long waitCount,
+                final long discardCount,
+                final int  instanceCount) {
+            this.borrowCount   = borrowCount;
+            this.hitCount      = hitCount;
+            this.createCount   = createCount;
+            this.waitCount     = waitCount;
+            this.discardCount  = discardCount;
+            this.instanceCount = instanceCount;
+        }
+        
+        /** @return the number of the borrows. */
+        public long getBorrowCount() {
+            return this.borrowCount;
+        }
+        
+        /** @return the number of the borrows served by a pooled instance. */
+        public long getHitCount() {
+            return this.hitCount;
+        }
+        
+        /** @return the number of the created instances. */
+        public long getCreateCount() {
+            return this.createCount;
+        }
+        
+        /** @return the number of the borrows that had to wait because the maximum was reached. */
+        public long getWaitCount() {
+            return this.waitCount;
+        }
+        
+        /** @return the number of the returned instances that were invalid. */
+        public long getDiscardCount() {
+            return this.discardCount;
+        }
+        
+        /** @return the number of the instances -- both idle and lent out. */
+        public int getInstanceCount() {
+            return this.instanceCount;
+        }
+        
+        /** @return the ratio of the borrows served by a pooled instance -- 1.0 if there is no borrow. */
+        public double getHitRate() {
+            return (this.borrowCount == 0) ? 1.0 : ((double)this.hitCount / this.borrowCount);
+        }
+        
+        @Override
+        public String toString() {
+            return "Stats[borrowCount=" + this.borrowCount
+                    + ", hitCount="      + this.hitCount
+                    + ", createCount="   + this.createCount
+                    + ", waitCount="     + this.waitCount
+                    + ", discardCount="  + this.discardCount
+                    + ", instanceCount=" + this.instanceCount
+                    + "]";
+        }
+        
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code PooledHolder}.
+     **/
+    public static <T> PooledHolder<T> pooled(
+            final Supplier<? extends T> factory,
+            final int                   maxInstances) {
+        return new PooledHolder<T>(factory, maxInstances);
+    }
+    
+    /**
+     * Create and return a new {@code PooledHolder}.
+     **/
+    public static <T> PooledHolder<T> of(
+            final Supplier<? extends T> factory,
+            final int                   maxInstances) {
+        return new PooledHolder<T>(factory, maxInstances);
+    }
+    
+    /**
+     * Create and return a new {@code PooledHolder} with the validator and the resetter.
+     **/
+    public static <T> PooledHolder<T> pooled(
+            final Supplier<? extends T> factory,
+            final int                   maxInstances,
+            final Predicate<? super T>  validator,
+            final Consumer<? super T>   resetter) {
+        return new PooledHolder<T>(factory, maxInstances, validator, resetter);
+    }
+    
+    /**
+     * Create and return a new {@code PooledHolder} with the validator and the resetter.
+     **/
+    public static <T> PooledHolder<T> of(
+            final Supplier<? extends T> factory,
+            final int                   maxInstances,
+            final Predicate<? super T>  validator,
+            final Consumer<? super T>   resetter) {
+        return new PooledHolder<T>(factory, maxInstances, validator, resetter);
+    }
+    
+}
@@ -0,0 +1,115 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+/**
+ * This group keeps the lazy holders to be initialized together, usually at the application start.
+ * 
+ * {@link #prewarm()} starts the initialization of all the registered holders at once on the executor so the start up
+ *   takes as long as the slowest producer instead of the sum of all of them.
+ * An {@link AsyncLazyInitializeHolder} is initialized on its own executor while a {@link LazyInitializeHolder} is
+ *   initialized on the executor of this group.
+ * 
+ * @author NawaMan
+ **/
+public class PrewarmGroup {
+    
+    private final List<Supplier<CompletableFuture<?>>> prewarmers = new CopyOnWriteArrayList<>();
+    
+    private final Executor executor;
+    
+    /**
+     * Construct a group that prewarms on the common pool.
+     **/
+    public PrewarmGroup() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Construct a group that prewarms on the given executor.
+     * 
+     * @param executor  the executor.
+     **/
+    public PrewarmGroup(
+            final Executor executor) {
+        this.executor = requireNonNull(executor);
+    }
+    
+    /**
+     * Register the holder to this group.
+     * 
+     * @param  holder  the holder.
+     * @return the holder.
+     **/
+    public final <H extends AsyncLazyInitializeHolder<?>> H register(
+            final H holder) {
+        requireNonNull(holder);
+        this.prewarmers.add(()->holder.prewarm());
+        return holder;
+    }
+    
+    /**
+     * Register the holder to this group.
+     * 
+     * @param  holder  the holder.
+     * @return the holder.
+     **/
+    public final <H extends LazyInitializeHolder<?>> H register(
+            final H holder) {
+        requireNonNull(holder);
+        this.prewarmers.add(()->CompletableFuture.runAsync(holder::get, this.executor));
+        return holder;
+    }
+    
+    /**
+     * Create a new {@code AsyncLazyInitializeHolder} that initializes on the executor of this group and register it.
+     * 
+     * @param  initializer  the value producer.
+     * @return the holder.
+     **/
+    public final <T> AsyncLazyInitializeHolder<T> asyncLazyInitialize(
+            final Supplier<? extends T> initializer) {
+        return register(new AsyncLazyInitializeHolder<T>(initializer, this.executor));
+    }
+    
+    /**
+     * Create a new {@code LazyInitializeHolder} and register it.
+     * 
+     * @param  initializer  the value producer.
+     * @return the holder.
+     **/
+    public final <T> LazyInitializeHolder<T> lazyInitialize(
+            final Supplier<? extends T> initializer) {
+        return register(new LazyInitializeHolder<T>(initializer));
+    }
+    
+    /**
+     * Returns the number of the registered holders.
+     * 
+     * @return the number of the registered holders.
+     **/
+    public final int size() {
+        return this.prewarmers.size();
+    }
+    
+    /**
+     * Starts the initialization of all the registered holders. This method returns immediately.
+     * 
+     * @return the future that completes when all the holders are initialized.
+     *           If any of the initialization fails, the future completes exceptionally.
+     **/
+    public final CompletableFuture<Void> prewarm() {
+        final CompletableFuture<?>[] futures = this.prewarmers.stream()
+                .map(Supplier::get)
+                .toArray(CompletableFuture<?>[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+    
+}
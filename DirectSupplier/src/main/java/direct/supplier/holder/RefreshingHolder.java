@@ -0,0 +1,271 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Refreshing holder holds a value that is reloaded periodically.
+ * 
+ * This holder can be used for slowly-changing values such as feature flags, tokens or remote configurations.
+ * 
+ * The value is loaded on the first request and is considered fresh for the time-to-live (TTL).
+ * The reload starts in the background the refresh-ahead window before the TTL is over so the new value is usually
+ *   available before the current one expires.
+ * While reloading, the current value continues to be served.
+ * If the reload fails, the current value (now stale) continues to be served and the reload is tried again after the
+ *   refresh-ahead window (or the TTL if there is no window).
+ * 
+ * Only the first request waits for the value -- later requests cost one volatile read.
+ * Concurrent requests for {@link #refresh()} are collapsed into one reload.
+ * 
+ * Closing the holder stops the scheduled reloads but the last value continues to be served.
+ * 
+ * @author NawaMan
+ **/
+public class RefreshingHolder<V>
+                implements Supplier<V>, AutoCloseable {
+    
+    private static final LazyInitializeHolder<ScheduledExecutorService> defaultScheduler
+            = new LazyInitializeHolder<>(RefreshingHolder::newDefaultScheduler);
+    
+    private static final Object UNLOADED = new Object();
+    
+    private volatile Object value = UNLOADED;
+    
+    private volatile long loadTime;
+    
+    private volatile Throwable lastFailure = null;
+    
+    private volatile boolean isClosed = false;
+    
+    private final AtomicReference<CompletableFuture<V>> reloading = new AtomicReference<>();
+    
+    private final AtomicReference<ScheduledFuture<?>> scheduledReload = new AtomicReference<>();
+    
+    private final LazyInitializeHolder<V> firstLoad = new LazyInitializeHolder<>(this::loadFirst);
+    
+    private final Supplier<? extends V> valueLoader;
+    
+    private final long ttlNanos;
+    
+    private final long refreshAheadNanos;
+    
+    private final ScheduledExecutorService scheduler;
+    
+    private final Executor executor;
+    
+    /**
+     * Construct the holder that reloads on the common pool.
+     * 
+     * @param valueLoader   the value loader.
+     * @param ttl           the time-to-live of each loaded value.
+     * @param refreshAhead  how long before the value expires the reload should start.
+     * @param unit          the unit of {@code ttl} and {@code refreshAhead}.
+     **/
+    public RefreshingHolder(
+            final Supplier<? extends V> valueLoader,
+            final long                  ttl,
+            final long                  refreshAhead,
+            final TimeUnit              unit) {
+        this(valueLoader, ttl, refreshAhead, unit, defaultScheduler.get(), ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Construct the holder.
+     * 
+     * @param valueLoader   the value loader.
+     * @param ttl           the time-to-live of each loaded value.
+     * @param refreshAhead  how long before the value expires the reload should start.
+     * @param unit          the unit of {@code ttl} and {@code refreshAhead}.
+     * @param scheduler     the scheduler to trigger the reloads.
+     * @param executor      the executor to run the loader on.
+     **/
+    public RefreshingHolder(
+            final Supplier<? extends V>    valueLoader,
+            final long                     ttl,
+            final long                     refreshAhead,
+            final TimeUnit                 unit,
+            final ScheduledExecutorService scheduler,
+            final Executor                 executor) {
+        if ((ttl <= 0) || (refreshAhead < 0) || (refreshAhead >= ttl)) {
+            throw new IllegalArgumentException("Invalid ttl and refresh-ahead: " + ttl + ", " + refreshAhead);
+        }
+        this.valueLoader       = requireNonNull(valueLoader);
+        this.ttlNanos          = unit.toNanos(ttl);
+        this.refreshAheadNanos = unit.toNanos(refreshAhead);
+        this.scheduler         = requireNonNull(scheduler);
+        this.executor          = requireNonNull(executor);
+    }
+    
+    /**
+     * Returns the current value -- only the first request waits for the value to be loaded.
+     * 
+     * {@inheritDoc}
+     **/
+    @SuppressWarnings("unchecked")
+    @Override
+    public final V get() {
+        final Object value = this.value;
+        if (value != UNLOADED) {
+            return (V)value;
+        }
+        return this.firstLoad.get();
+    }
+    
+    /**
+     * Starts reloading the value in the background unless a reload is already in progress.
+     * 
+     * @return the future of the reloaded value -- the same future for all requests while the reload is in progress.
+     **/
+    public final CompletableFuture<V> refresh() {
+        while (true) {
+            final CompletableFuture<V> current = this.reloading.get();
+            if (current != null) {
+                return current.thenApply(Function.identity());
+            }
+            
+            final CompletableFuture<V> reload = new CompletableFuture<>();
+            if (this.reloading.compareAndSet(null, reload)) {
+                try {
+                    this.executor.execute(()->reload(reload));
+                } catch (RejectedExecutionException exception) {
+                    fail(reload, exception);
+                }
+                return reload.thenApply(Function.identity());
+            }
+        }
+    }
+    
+    /**
+     * Check if the current value is older than the TTL -- that is the reloads have been failing.
+     * 
+     * @return {@code true} if the value is expired.
+     **/
+    public final boolean isExpired() {
+        return (this.value != UNLOADED)
+            && ((System.nanoTime() - this.loadTime) > this.ttlNanos);
+    }
+    
+    /**
+     * Returns the exception of the last reload if it failed.
+     * 
+     * @return the exception of the last failure.
+     **/
+    public final Optional<Throwable> lastFailure() {
+        return Optional.ofNullable(this.lastFailure);
+    }
+    
+    /**
+     * Stops the scheduled reloads. The last value continues to be served.
+     **/
+    @Override
+    public void close() {
+        this.isClosed = true;
+        final ScheduledFuture<?> scheduled = this.scheduledReload.getAndSet(null);
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+    
+    private V loadFirst() {
+        final V value = this.valueLoader.get();
+        loaded(value);
+        return value;
+    }
+    
+    private void reload(
+            final CompletableFuture<V> reload) {
+        try {
+            final V value = this.valueLoader.get();
+            loaded(value);
+            this.reloading.set(null);
+            reload.complete(value);
+        } catch (RuntimeException | Error exception) {
+            fail(reload, exception);
+        }
+    }
+    
+    private void loaded(
+            final V value) {
+        this.loadTime    = System.nanoTime();
+        this.value       = value;
+        this.lastFailure = null;
+        schedule(this.ttlNanos - this.refreshAheadNanos);
+    }
+    
+    private void fail(
+            final CompletableFuture<V> reload,
+            final Throwable            exception) {
+        this.lastFailure = exception;
+        this.reloading.set(null);
+        schedule((this.refreshAheadNanos != 0) ? this.refreshAheadNanos : this.ttlNanos);
+        reload.completeExceptionally(exception);
+    }
+    
+    private void schedule(
+            final long delayNanos) {
+        if (this.isClosed) {
+            return;
+        }
+        final ScheduledFuture<?> scheduled;
+        try {
+            scheduled = this.scheduler.schedule(this::refresh, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException exception) {
+            return;
+        }
+        final ScheduledFuture<?> previous = this.scheduledReload.getAndSet(scheduled);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        if (this.isClosed) {
+            close();
+        }
+    }
+    
+    private static ScheduledExecutorService newDefaultScheduler() {
+        final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable->{
+            final Thread thread = new Thread(runnable, "RefreshingHolder-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code RefreshingHolder}.
+     **/
+    public static <T> RefreshingHolder<T> refreshing(
+            final Supplier<? extends T> loader,
+            final long                  ttl,
+            final long                  refreshAhead,
+            final TimeUnit              unit) {
+        return new RefreshingHolder<T>(loader, ttl, refreshAhead, unit);
+    }
+    
+    /**
+     * Create and return a new {@code RefreshingHolder}.
+     **/
+    public static <T> RefreshingHolder<T> of(
+            final Supplier<? extends T> loader,
+            final long                  ttl,
+            final long                  refreshAhead,
+            final TimeUnit              unit) {
+        return new RefreshingHolder<T>(loader, ttl, refreshAhead, unit);
+    }
+    
+}
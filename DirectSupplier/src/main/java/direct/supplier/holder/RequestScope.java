@@ -0,0 +1,232 @@
+package direct.supplier.holder;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The scope of a request (or a unit of work) holding the values of all the {@link RequestScopedHolder}s.
+ * 
+ * <pre>
+ * try (RequestScope scope = RequestScope.open()) {
+ *     ... scope.get(connection) ... scope.get(transaction) ...
+ * }
+ * </pre>
+ * 
+ * A scope keeps the values in one array indexed by the ids of the holders so, however many holders are used, a
+ *   request only costs one thread-local entry and one lookup of it: opening the scope looks it up once, getting the
+ *   values through the scope with {@link #get(RequestScopedHolder)} -- the primary API -- does not look it up and
+ *   closing does not look it up.
+ * Code that does not have the scope at hand can use {@link RequestScopedHolder#get()} which looks up the current scope
+ *   on each get (one more thread-local lookup per get).
+ * The values are created on the first get and released together -- in the reverse order of the creation -- when the
+ *   scope is closed like an arena.
+ * 
+ * A scope opened inside another starts empty and the outer one is current again when it is closed.
+ * 
+ * @author NawaMan
+ **/
+public final class RequestScope implements AutoCloseable {
+    
+    /** The marker for the value of null. */
+    private static final Object NULL = new Object();
+    
+    private static final int MIN_CAPACITY = 8;
+    
+    /** The current scope of a thread. */
+    private static final class Cell {
+        
+        RequestScope scope;
+        
+    }
+    
+    private static final ThreadLocal<Cell> cell = ThreadLocal.withInitial(Cell::new);
+    
+    private static final AtomicInteger nextId = new AtomicInteger();
+    
+    private final Thread owner;
+    
+    private final Cell threadCell;
+    
+    private final RequestScope outer;
+    
+    private Object[] values;
+    
+    private RequestScopedHolder<?>[] created;
+    
+    private int createdCount;
+    
+    private boolean isClosed;
+    
+    private RequestScope(
+            final Cell threadCell) {
+        this.owner      = Thread.currentThread();
+        this.threadCell = threadCell;
+        this.outer      = threadCell.scope;
+    }
+    
+    /**
+     * Open a new scope and make it the current scope of the current thread.
+     * 
+     * @return the new scope.
+     **/
+    public static RequestScope open() {
+        final Cell         threadCell = cell.get();
+        final RequestScope scope      = new RequestScope(threadCell);
+        threadCell.scope = scope;
+        return scope;
+    }
+    
+    /**
+     * Returns the current scope of the current thread.
+     * 
+     * @return the scope -- {@code null} if none.
+     **/
+    public static RequestScope current() {
+        return cell.get().scope;
+    }
+    
+    static int nextId() {
+        return nextId.getAndIncrement();
+    }
+    
+    /**
+     * Returns the value of the holder in this scope -- created if this is the first get.
+     * 
+     * This is the primary way to get the values: no thread-local lookup.
+     * 
+     * @param holder  the holder.
+     * @return the value.
+     * @throws IllegalStateException  if this scope is closed.
+     **/
+    @SuppressWarnings("unchecked")
+    public <T> T get(
+            final RequestScopedHolder<T> holder) {
+        final int id = holder.id;
+        final Object[] values = this.values;
+        if ((values != null) && (id < values.length)) {
+            final Object value = values[id];
+            if (value != null) {
+                return (value != NULL) ? (T)value : null;
+            }
+        }
+        return create(holder);
+    }
+    
+    /**
+     * Check if the holder has a value in this scope.
+     * 
+     * @param holder  the holder.
+     * @return {@code true} if the value was created.
+     **/
+    public boolean contains(
+            final RequestScopedHolder<?> holder) {
+        final Object[] values = this.values;
+        return (values != null) && (holder.id < values.length) && (values[holder.id] != null);
+    }
+    
+    /**
+     * Returns the number of the values created in this scope.
+     * 
+     * @return the number of the values.
+     **/
+    public int size() {
+        return this.createdCount;
+    }
+    
+    private <T> T create(
+            final RequestScopedHolder<T> holder) {
+        if (this.isClosed) {
+            throw new IllegalStateException("The request scope is closed.");
+        }
+        final T   value = holder.create();
+        final int id    = holder.id;
+        if (this.values == null) {
+            this.values  = new Object[Math.max(MIN_CAPACITY, Math.max(nextId.get(), id + 1))];
+            this.created = new RequestScopedHolder<?>[MIN_CAPACITY];
+        } else if (id >= this.values.length) {
+            this.values = Arrays.copyOf(this.values, Math.max(this.values.length * 2, id + 1));
+        }
+        if (this.createdCount == this.created.length) {
+            this.created = Arrays.copyOf(this.created, this.createdCount * 2);
+        }
+        this.values[id] = (value != null) ? value : NULL;
+        this.created[this.createdCount++] = holder;
+        return value;
+    }
+    
+    /**
+     * Close this scope -- releasing all its values in the reverse order of the creation and making the outer scope
+     *   current.
+     * 
+     * The values are all released even if some fail; the first failure is thrown with the others suppressed.
+     * If some scopes opened inside this one were not closed, they are closed first (so nothing is left on a pooled
+     *   thread) and then an exception is thrown to report the leak.
+     * Closing more than once has no effect.
+     * 
+     * @throws IllegalStateException  if this scope is closed by another thread or was not the current scope of its
+     *                                  thread.
+     **/
+    @Override
+    public void close() {
+        if (this.isClosed) {
+            return;
+        }
+        if (Thread.currentThread() != this.owner) {
+            throw new IllegalStateException("The request scope must be closed by the thread that opened it.");
+        }
+        
+        Throwable problem = null;
+        if (this.threadCell.scope != this) {
+            problem = new IllegalStateException("The request scope must be closed as the current scope of its thread.");
+            for (RequestScope inner = this.threadCell.scope; (inner != null) && (inner != this); inner = inner.outer) {
+                inner.isClosed = true;
+                inner.releaseValues(problem);
+            }
+        }
+        this.isClosed         = true;
+        this.threadCell.scope = this.outer;
+        problem = releaseValues(problem);
+        
+        if (problem instanceof RuntimeException) {
+            throw (RuntimeException)problem;
+        }
+        if (problem instanceof Error) {
+            throw (Error)problem;
+        }
+        if (problem != null) {
+            throw new IllegalStateException(problem);
+        }
+    }
+    
+    /**
+     * Release the values of this scope.
+     * 
+     * @param problem  the problem so far -- {@code null} if none.
+     * @return the problem -- the given one with the failures of this scope suppressed or the first failure.
+     **/
+    private Throwable releaseValues(
+            final Throwable problem) {
+        Throwable result = problem;
+        for (int i = this.createdCount - 1; i >= 0; i--) {
+            final RequestScopedHolder<?> holder = this.created[i];
+            final Object                 value  = this.values[holder.id];
+            this.values[holder.id] = null;
+            this.created[i]        = null;
+            if (value == NULL) {
+                continue;
+            }
+            try {
+                holder.release(value);
+            } catch (Throwable exception) {
+                if (result == null) {
+                    result = exception;
+                } else {
+                    result.addSuppressed(exception);
+                }
+            }
+        }
+        this.createdCount = 0;
+        return result;
+    }
+    
+}
@@ -0,0 +1,160 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This holder holds one value for each {@link RequestScope} -- created on the first get in the scope and released
+ *   when the scope is closed.
+ * 
+ * Unlike {@link StackThreadLocalHolder}, the holder does not own a thread local and does not need its own push and
+ *   pop for each request: the values of all the request-scoped holders are kept in the slots of the scope indexed by
+ *   the id of the holder.
+ * The ids are never reused so the holders are meant to be long-lived (like static constants).
+ * 
+ * Get the values through the scope at hand -- {@code scope.get(holder)} or {@link #get(RequestScope)} -- where
+ *   possible: {@link #get()} looks up the current scope of the thread on each call.
+ * 
+ * By default, a released value is closed if it is {@link AutoCloseable}.
+ * 
+ * @author NawaMan
+ **/
+public class RequestScopedHolder<R> implements Supplier<R> {
+    
+    final int id;
+    
+    private final Supplier<? extends R> supplier;
+    
+    private final Consumer<? super R> disposer;
+    
+    private final boolean isClosing;
+    
+    /**
+     * The class of the last released value that is not {@link AutoCloseable} -- a failed interface check is slow on
+     *   some JVMs so it is done once per class instead of once per value.
+     **/
+    private Class<?> plainClass;
+    
+    /**
+     * Constructor -- the released values are closed if they are {@link AutoCloseable}.
+     * 
+     * @param supplier  the supplier of the value of each scope.
+     **/
+    public RequestScopedHolder(
+            final Supplier<? extends R> supplier) {
+        this.supplier  = requireNonNull(supplier);
+        this.disposer  = null;
+        this.isClosing = true;
+        this.id        = RequestScope.nextId();
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param supplier  the supplier of the value of each scope.
+     * @param disposer  the disposer of the released values -- {@code null} for none.
+     **/
+    public RequestScopedHolder(
+            final Supplier<? extends R> supplier,
+            final Consumer<? super R>   disposer) {
+        this.supplier  = requireNonNull(supplier);
+        this.disposer  = disposer;
+        this.isClosing = false;
+        this.id        = RequestScope.nextId();
+    }
+    
+    /**
+     * Returns the value of the current request scope -- looking up the current scope of the thread.
+     * 
+     * {@inheritDoc}
+     * 
+     * @throws IllegalStateException  if there is no current scope.
+     **/
+    @Override
+    public final R get() {
+        final RequestScope scope = RequestScope.current();
+        if (scope == null) {
+            throw new IllegalStateException("No request scope.");
+        }
+        return scope.get(this);
+    }
+    
+    /**
+     * Returns the value of the given request scope -- without looking up the current scope.
+     * 
+     * @param scope  the scope.
+     * @return the value.
+     **/
+    public final R get(
+            final RequestScope scope) {
+        return scope.get(this);
+    }
+    
+    final R create() {
+        return this.supplier.get();
+    }
+    
+    @SuppressWarnings("unchecked")
+    final void release(
+            final Object value) {
+        if (this.disposer != null) {
+            this.disposer.accept((R)value);
+        } else if (this.isClosing && (value.getClass() != this.plainClass)) {
+            if (value instanceof AutoCloseable) {
+                close((AutoCloseable)value);
+            } else {
+                this.plainClass = value.getClass();
+            }
+        }
+    }
+    
+    private static void close(
+            final AutoCloseable value) {
+        try {
+            value.close();
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IllegalStateException("Failed to close: " + value, exception);
+        }
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code RequestScopedHolder}.
+     **/
+    public static <T> RequestScopedHolder<T> requestScoped(
+            final Supplier<? extends T> supplier) {
+        return new RequestScopedHolder<T>(supplier);
+    }
+    
+    /**
+     * Create and return a new {@code RequestScopedHolder}.
+     **/
+    public static <T> RequestScopedHolder<T> of(
+            final Supplier<? extends T> supplier) {
+        return new RequestScopedHolder<T>(supplier);
+    }
+    
+    /**
+     * Create and return a new {@code RequestScopedHolder} with the disposer.
+     **/
+    public static <T> RequestScopedHolder<T> requestScoped(
+            final Supplier<? extends T> supplier,
+            final Consumer<? super T>   disposer) {
+        return new RequestScopedHolder<T>(supplier, disposer);
+    }
+    
+    /**
+     * Create and return a new {@code RequestScopedHolder} with the disposer.
+     **/
+    public static <T> RequestScopedHolder<T> of(
+            final Supplier<? extends T> supplier,
+            final Consumer<? super T>   disposer) {
+        return new RequestScopedHolder<T>(supplier, disposer);
+    }
+    
+}
@@ -0,0 +1,407 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import direct.supplier.SupplierSupplier;
+
+/**
+ * This holder holds a value bound for the duration of a call -- similar to {@code java.lang.ScopedValue}.
+ * 
+ * Unlike {@link ThreadLocalHolder} and {@link StackThreadLocalHolder}, this holder does not own a thread local.
+ * All the scoped holders share one thread local with an immutable chain of the bindings so
+ * <ul>
+ *   <li>a thread has at most one thread-local entry no matter how many holders are bound and none when nothing is
+ *         bound -- what matters with millions of virtual threads,</li>
+ *   <li>no value is created just because a thread asks for it -- the values are only created when bound, and</li>
+ *   <li>the bindings can be captured as a {@link Snapshot} in O(1) (the chain is shared, not copied) and installed for
+ *         a task on another thread.</li>
+ * </ul>
+ * 
+ * The bindings are not inherited by the threads created inside a scope -- a thread pool started by a task would
+ *   otherwise keep them for the life of its threads.
+ * To pass the bindings to a child thread or a task, wrap it with a {@link Snapshot} from {@link #capture()} or use
+ *   {@link ContextPropagator}.
+ * The binding is undone when the call returns so a pooled thread never keeps it.
+ * 
+ * <pre>
+ * ScopedHolder&lt;Transaction&gt; transaction = ScopedHolder.of(Transaction::new);
+ * transaction.runNew(()-&gt;{
+ *     ... transaction.get() ...
+ * });
+ * </pre>
+ * 
+ * @author NawaMan
+ **/
+public class ScopedHolder<V>
+                implements SupplierSupplier<V> {
+    
+    /** The immutable chain of the bindings. */
+    static final class Bindings {
+        
+        final ScopedHolder<?> holder;
+        
+        final Object value;
+        
+        final Bindings previous;
+        
+        Bindings(
+                final ScopedHolder<?> holder,
+                final Object          value,
+                final Bindings        previous) {
+            this.holder   = holder;
+            this.value    = value;
+            this.previous = previous;
+        }
+        
+        Bindings find(
+                final ScopedHolder<?> holder) {
+            for (Bindings bindings = this; bindings != null; bindings = bindings.previous) {
+                if (bindings.holder == holder) {
+                    return bindings;
+                }
+            }
+            return null;
+        }
+        
+    }
+    
+    private static final ThreadLocal<Bindings> bindings = new ThreadLocal<Bindings>();
+    
+    private final Function<V, V> creator;
+    
+    /**
+     * Constructor.
+     * 
+     * @param supplier  the supplier to create new instance for each scope.
+     **/
+    public ScopedHolder(
+            final Supplier<V> supplier) {
+        requireNonNull(supplier);
+        
+        this.creator = previous->supplier.get();
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param creator  the function to create new instance for each scope given the value of the enclosing scope.
+     **/
+    public ScopedHolder(
+            final Function<V, V> creator) {
+        this.creator = requireNonNull(creator);
+    }
+    
+    /**
+     * Returns the value bound to this holder or {@code null} if it is not bound.
+     * 
+     * {@inheritDoc}
+     **/
+    @SuppressWarnings("unchecked")
+    @Override
+    public final V get() {
+        final Bindings current = bindings.get();
+        if (current == null) {
+            return null;
+        }
+        final Bindings found = current.find(this);
+        return (found != null) ? (V)found.value : null;
+    }
+    
+    /**
+     * Check if this holder is bound on the current thread.
+     * 
+     * @return {@code true} if this holder is bound.
+     **/
+    public final boolean isBound() {
+        final Bindings current = bindings.get();
+        return (current != null) && (current.find(this) != null);
+    }
+    
+    /**
+     * Returns a carrier that binds this holder to the given value.
+     * 
+     * @param value  the value.
+     * @return  the carrier.
+     **/
+    public final Carrier where(
+            final V value) {
+        return new Carrier(this, value, null);
+    }
+    
+    /**
+     * Run the given runnable with this holder bound to a new instance created from the value of the enclosing scope.
+     * 
+     * @param runnable  the runnable.
+     **/
+    public final void runNew(
+            final Runnable runnable) {
+        where(this.creator.apply(get())).run(runnable);
+    }
+    
+    /**
+     * Call the given callable with this holder bound to a new instance created from the value of the enclosing scope.
+     * 
+     * @param callable  the callable.
+     * @return  the result of the callable.
+     * @throws Exception  the exception thrown by the callable.
+     **/
+    public final <T> T callNew(
+            final Callable<T> callable) throws Exception {
+        return where(this.creator.apply(get())).call(callable);
+    }
+    
+    /**
+     * Returns the carrier of the values of this holder for {@link ContextPropagator}.
+     **/
+    final ContextCarrier carrier() {
+        final ScopedHolder<V> holder = this;
+        return new ContextCarrier() {
+            @Override
+            public Object capture() {
+                final Bindings current = bindings.get();
+                return (current != null) ? current.find(holder) : null;
+            }
+            
+            @Override
+            public Object install(
+                    final Object captured) {
+                final Bindings current = bindings.get();
+                if (captured != null) {
+                    ScopedHolder.install(new Bindings(holder, ((Bindings)captured).value, current));
+                }
+                return current;
+            }
+            
+            @Override
+            public void restore(
+                    final Object token) {
+                ScopedHolder.install((Bindings)token);
+            }
+        };
+    }
+    
+    /**
+     * Returns the snapshot of all the scoped bindings of the current thread.
+     * 
+     * @return  the snapshot.
+     **/
+    public static Snapshot capture() {
+        return new Snapshot(bindings.get());
+    }
+    
+    static Bindings install(
+            final Bindings newBindings) {
+        final Bindings previous = bindings.get();
+        if (newBindings != null) {
+            bindings.set(newBindings);
+        } else {
+            bindings.remove();
+        }
+        return previous;
+    }
+    
+    /**
+     * The bindings to be bound for a call.
+     * 
+     * @author NawaMan
+     **/
+    public static final class Carrier {
+        
+        private final ScopedHolder<?> holder;
+        
+        private final Object value;
+        
+        private final Carrier previous;
+        
+        Carrier(
+                final ScopedHolder<?> holder,
+                final Object          value,
+                final Carrier         previous) {
+            this.holder   = holder;
+            this.value    = value;
+            this.previous = previous;
+        }
+        
+        /**
+         * Returns a carrier with the given holder also bound to the given value.
+         * 
+         * @param holder  the holder.
+         * @param value   the value.
+         * @return  the carrier.
+         **/
+        public <T> Carrier where(
+                final ScopedHolder<T> holder,
+                final T               value) {
+            return new Carrier(requireNonNull(holder), value, this);
+        }
+        
+        /**
+         * Run the given runnable with the bindings.
+         * 
+         * @param runnable  the runnable.
+         **/
+        public void run(
+                final Runnable runnable) {
+            final Bindings previous = install(bind(bindings.get()));
+            try {
+                runnable.run();
+            } finally {
+                install(previous);
+            }
+        }
+        
+        /**
+         * Call the given callable with the bindings.
+         * 
+         * @param callable  the callable.
+         * @return  the result of the callable.
+         * @throws Exception  the exception thrown by the callable.
+         **/
+        public <T> T call(
+                final Callable<T> callable) throws Exception {
+            final Bindings previous = install(bind(bindings.get()));
+            try {
+                return callable.call();
+            } finally {
+                install(previous);
+            }
+        }
+        
+        /**
+         * Get the value from the given supplier with the bindings.
+         * 
+         * @param supplier  the supplier.
+         * @return  the value from the supplier.
+         **/
+        public <T> T get(
+                final Supplier<T> supplier) {
+            final Bindings previous = install(bind(bindings.get()));
+            try {
+                return supplier.get();
+            } finally {
+                install(previous);
+            }
+        }
+        
+        private Bindings bind(
+                final Bindings enclosing) {
+            final Bindings outer = (this.previous != null) ? this.previous.bind(enclosing) : enclosing;
+            return new Bindings(this.holder, this.value, outer);
+        }
+        
+    }
+    
+    /**
+     * The scoped bindings of a thread at one moment.
+     * 
+     * The snapshot can be installed on another thread to run a task with the same bindings -- for example, a task
+     *   forked by the thread.
+     * 
+     * @author NawaMan
+     **/
+    public static final class Snapshot {
+        
+        private final Bindings bindings;
+        
+        Snapshot(
+                final Bindings bindings) {
+            this.bindings = bindings;
+        }
+        
+        /**
+         * Run the given runnable with the bindings of this snapshot.
+         * 
+         * @param runnable  the runnable.
+         **/
+        public void run(
+                final Runnable runnable) {
+            final Bindings previous = install(this.bindings);
+            try {
+                runnable.run();
+            } finally {
+                install(previous);
+            }
+        }
+        
+        /**
+         * Call the given callable with the bindings of this snapshot.
+         * 
+         * @param callable  the callable.
+         * @return  the result of the callable.
+         * @throws Exception  the exception thrown by the callable.
+         **/
+        public <T> T call(
+                final Callable<T> callable) throws Exception {
+            final Bindings previous = install(this.bindings);
+            try {
+                return callable.call();
+            } finally {
+                install(previous);
+            }
+        }
+        
+        /**
+         * Returns a runnable that runs the given runnable with the bindings of this snapshot.
+         * 
+         * @param runnable  the runnable.
+         * @return  the wrapped runnable.
+         **/
+        public Runnable wrapRunnable(
+                final Runnable runnable) {
+            requireNonNull(runnable);
+            return ()->run(runnable);
+        }
+        
+        /**
+         * Returns a callable that calls the given callable with the bindings of this snapshot.
+         * 
+         * @param callable  the callable.
+         * @return  the wrapped callable.
+         **/
+        public <T> Callable<T> wrapCallable(
+                final Callable<T> callable) {
+            requireNonNull(callable);
+            return ()->call(callable);
+        }
+        
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code ScopedHolder}.
+     **/
+    public static <T> ScopedHolder<T> scoped(
+            final Supplier<T> supplier) {
+        return new ScopedHolder<T>(supplier);
+    }
+    
+    /**
+     * Create and return a new {@code ScopedHolder}.
+     **/
+    public static <T> ScopedHolder<T> of(
+            final Supplier<T> supplier) {
+        return new ScopedHolder<T>(supplier);
+    }
+    
+    /**
+     * Create and return a new {@code ScopedHolder}.
+     **/
+    public static <T> ScopedHolder<T> scoped(
+            final Function<T,T> creator) {
+        return new ScopedHolder<T>(creator);
+    }
+    
+    /**
+     * Create and return a new {@code ScopedHolder}.
+     **/
+    public static <T> ScopedHolder<T> of(
+            final Function<T,T> creator) {
+        return new ScopedHolder<T>(creator);
+    }
+    
+}
@@ -1,7 +1,8 @@
 package direct.supplier.holder;
 
+import java.util.Arrays;
+import java.util.EmptyStackException;
 import java.util.Objects;
-import java.util.Stack;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -14,15 +15,148 @@ import direct.supplier.SupplierSupplier;
  * And another supplier can be create to obtain that resource value.
  * When needed, another instance can be created and pushed on the stack or pop out of the stack. 
  * 
+ * The stack of each thread is only accessed by that thread so it is an unsynchronized growable array and each
+ *   operation looks up the thread local only once.
+ * 
+ * To make sure a pushed frame is always popped, use {@link #pushNewScope()} or {@link #pushScope(Object)} with
+ *   try-with-resources. The returned scopes are reused per thread and depth so the scoped push allocates nothing.
+ * 
  * @author NawaMan
  */
 public class StackThreadLocalHolder<R>
         implements SupplierSupplier<R> {
     
-    private ThreadLocal<Stack<R>> resource = new ThreadLocal<Stack<R>>() {
+    /**
+     * The scope of a pushed frame. Closing the scope pops that frame.
+     * 
+     * The scope is reused for the next frame pushed at the same depth by the same thread so it must not be kept after
+     *   it is closed -- closing a stale scope after a new frame was pushed at its depth pops that new frame.
+     * 
+     * @author NawaMan
+     **/
+    public static final class Scope implements AutoCloseable {
+        
+        private final Frames frames;
+        
+        private final int depth;
+        
+        Scope(
+                final Frames frames,
+                final int    depth) {
+            this.frames = frames;
+            this.depth  = depth;
+        }
+        
+        /**
+         * Returns the depth of the frame of this scope -- the size of the stack when the frame is on the top.
+         * 
+         * @return the depth.
+         **/
+        public int depth() {
+            return this.depth;
+        }
+        
+        /**
+         * Pop the frame of this scope.
+         * 
+         * If some frames pushed after this one were not popped, they are popped together with this frame before the
+         *   exception is thrown so a leaked frame does not stay on a pooled thread.
+         * 
+         * @throws IllegalStateException  if the frame of this scope was not on the top of the stack of the current
+         *                                  thread -- some frames were not popped or the stack is already below this
+         *                                  frame.
+         **/
         @Override
-        protected Stack<R> initialValue() {
-            return new Stack<>();
+        public void close() {
+            final Frames frames = this.frames;
+            if (frames.owner != Thread.currentThread()) {
+                throw new IllegalStateException("The scope must be closed by the thread that opened it.");
+            }
+            final int size = frames.size;
+            if (size == this.depth) {
+                frames.pop();
+                return;
+            }
+            if (size > this.depth) {
+                frames.unwindTo(this.depth - 1);
+            }
+            throw new IllegalStateException(
+                    "Unbalanced scope: expected depth " + this.depth + " but was " + size + ".");
+        }
+        
+    }
+    
+    /** The marker for the capture of an empty stack. */
+    private static final Object EMPTY = new Object();
+    
+    /** The stack of the frames of one thread. */
+    private static final class Frames {
+        
+        private final Thread owner = Thread.currentThread();
+        
+        private Object[] elements = new Object[8];
+        
+        private Scope[] scopes = new Scope[8];
+        
+        private int size = 0;
+        
+        void push(
+                final Object element) {
+            if (this.size == this.elements.length) {
+                this.elements = Arrays.copyOf(this.elements, this.size * 2);
+            }
+            this.elements[this.size++] = element;
+        }
+        
+        Object pop() {
+            if (this.size == 0) {
+                throw new EmptyStackException();
+            }
+            final Object element = this.elements[--this.size];
+            this.elements[this.size] = null;
+            return element;
+        }
+        
+        Object peek() {
+            if (this.size == 0) {
+                throw new EmptyStackException();
+            }
+            return this.elements[this.size - 1];
+        }
+        
+        Object top() {
+            return (this.size == 0) ? null : this.elements[this.size - 1];
+        }
+        
+        Scope scope() {
+            final int depth = this.size;
+            if (depth >= this.scopes.length) {
+                this.scopes = Arrays.copyOf(this.scopes, Math.max(depth + 1, this.scopes.length * 2));
+            }
+            Scope scope = this.scopes[depth];
+            if (scope == null) {
+                scope = new Scope(this, depth);
+                this.scopes[depth] = scope;
+            }
+            return scope;
+        }
+        
+        void unwindTo(
+                final int depth) {
+            if ((depth < 0) || (depth > this.size)) {
+                throw new IllegalStateException(
+                        "Unbalanced scope: expected depth " + depth + " but was " + this.size + ".");
+            }
+            Arrays.fill(this.elements, depth, this.size, null);
+            this.size = depth;
+        }
+        
+    }
+    
+    private final ThreadLocal<Frames> resource = new ThreadLocal<Frames>() {
+        @Override
+        protected Frames initialValue() {
+            return new Frames();
         }
     };
     
@@ -51,13 +185,10 @@ public class StackThreadLocalHolder<R>
         this.creator = Objects.requireNonNull(function);
     }
     
+    @SuppressWarnings("unchecked")
     @Override
     public final R get() {
-        if (this.resource.get().isEmpty()) {
-            return null;
-        } else {
-            return this.resource.get().peek();
-        }
+        return (R)this.resource.get().top();
     }
     
     /**
@@ -65,10 +196,12 @@ public class StackThreadLocalHolder<R>
      * 
      * @return the instance.
      **/
+    @SuppressWarnings("unchecked")
     public final R pushNew() {
-        R previous = !this.isEmpty() ? this.peek() : null;
-        R resource = this.creator.apply(previous);
-        this.resource.get().push(resource);
+        Frames frames   = this.resource.get();
+        R      previous = (R)frames.top();
+        R      resource = this.creator.apply(previous);
+        frames.push(resource);
         return resource;
     }
     
@@ -84,22 +217,81 @@ public class StackThreadLocalHolder<R>
         return resource;
     }
     
+    /**
+     * Create a new instance from the supplier, push on to the stack and returns the scope that pops it.
+     * 
+     * <pre>
+     * try (Scope scope = holder.pushNewScope()) {
+     *     ... holder.get() ...
+     * }
+     * </pre>
+     * 
+     * @return the scope of the new frame.
+     **/
+    @SuppressWarnings("unchecked")
+    public final Scope pushNewScope() {
+        Frames frames   = this.resource.get();
+        R      previous = (R)frames.top();
+        R      resource = this.creator.apply(previous);
+        frames.push(resource);
+        return frames.scope();
+    }
+    
+    /**
+     * Push the given resource on to the stack and returns the scope that pops it.
+     * 
+     * @param  resource  the resource.
+     * @return  the scope of the new frame.
+     **/
+    public final Scope pushScope(
+            final R resource) {
+        Frames frames = this.resource.get();
+        frames.push(resource);
+        return frames.scope();
+    }
+    
+    /**
+     * Pop all the elements pushed after the stack was at the given size.
+     * 
+     * Together with {@link #size()}, this is a scope as a primitive depth marker.
+     * <pre>
+     * int depth = holder.size();
+     * try {
+     *     holder.pushNew();
+     *     ...
+     * } finally {
+     *     holder.unwindTo(depth);
+     * }
+     * </pre>
+     * 
+     * @param depth  the size of the stack to return to.
+     * @throws IllegalStateException  if the stack is already smaller than the given size.
+     **/
+    public final void unwindTo(
+            final int depth) {
+        this.resource.get().unwindTo(depth);
+    }
+    
     /**
      * Pop of the top element.
      * 
      * @return the top element.
+     * @throws EmptyStackException  if the stack is empty.
      */
+    @SuppressWarnings("unchecked")
     public final R pop() {
-        return this.resource.get().pop();
+        return (R)this.resource.get().pop();
     }
     
     /**
      * Get the top element without removing it.
      * 
      * @return the top element.
+     * @throws EmptyStackException  if the stack is empty.
      */
+    @SuppressWarnings("unchecked")
     public final R peek() {
-        return this.resource.get().peek();
+        return (R)this.resource.get().peek();
     }
     
     /**
@@ -108,7 +300,7 @@ public class StackThreadLocalHolder<R>
      * @return {@code true} of the stack is empty.
      */
     public final boolean isEmpty() {
-        return this.resource.get().isEmpty();
+        return this.resource.get().size == 0;
     }
     
     /**
@@ -117,7 +309,41 @@ public class StackThreadLocalHolder<R>
      * @return the size.
      */
     public final int size() {
-        return this.resource.get().size();
+        return this.resource.get().size;
+    }
+    
+    /**
+     * Returns the carrier of the values of this holder for {@link ContextPropagator}.
+     **/
+    final ContextCarrier carrier() {
+        final ThreadLocal<Frames> resource = this.resource;
+        return new ContextCarrier() {
+            @Override
+            public Object capture() {
+                final Frames frames = resource.get();
+                return (frames.size != 0) ? frames.top() : EMPTY;
+            }
+            
+            @Override
+            public Object install(
+                    final Object captured) {
+                if (captured == EMPTY) {
+                    return null;
+                }
+                final Frames frames = resource.get();
+                final int    depth  = frames.size;
+                frames.push(captured);
+                return depth;
+            }
+            
+            @Override
+            public void restore(
+                    final Object token) {
+                if (token != null) {
+                    resource.get().unwindTo((Integer)token);
+                }
+            }
+        };
     }
     
     //== Static creation ===============================================================================================
@@ -0,0 +1,56 @@
+package direct.supplier.holder;
+
+/**
+ * A value with the stamp of the change that set it.
+ * 
+ * Each change to a versioned {@link ChangeableHolder} has a stamp one higher than the previous one so two reads with
+ *   the same stamp read the same value without comparing the values.
+ * 
+ * This class is immutable.
+ * 
+ * @param <V>  the value type.
+ * 
+ * @author NawaMan
+ **/
+public final class Stamped<V> {
+    
+    private final V value;
+    
+    private final long stamp;
+    
+    Stamped(
+            final V    value,
+            final long stamp) {
+        this.value = value;
+        this.stamp = stamp;
+    }
+    
+    /**
+     * Returns the value.
+     * 
+     * @return the value.
+     **/
+    public V getValue() {
+        return this.value;
+    }
+    
+    /**
+     * Returns the stamp.
+     * 
+     * @return the stamp.
+     **/
+    public long getStamp() {
+        return this.stamp;
+    }
+    
+    Stamped<V> next(
+            final V value) {
+        return new Stamped<V>(value, this.stamp + 1);
+    }
+    
+    @Override
+    public String toString() {
+        return "Stamped[" + this.value + ", stamp=" + this.stamp + "]";
+    }
+    
+}
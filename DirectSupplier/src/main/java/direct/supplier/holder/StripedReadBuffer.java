@@ -0,0 +1,108 @@
+package direct.supplier.holder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * The lossy buffer of the reads to be replayed to a policy later.
+ * 
+ * Each thread records into one of the stripes (selected by its id) with one compare-and-set and no lock.
+ * When the stripe is full or the slot is contended, the read is dropped -- the policy only needs a sample of the reads.
+ * The buffer is drained by one thread at a time (the caller holds the lock of the policy).
+ * 
+ * @param <E>  the element type.
+ * 
+ * @author NawaMan
+ **/
+final class StripedReadBuffer<E> {
+    
+    static final int STRIPE_SIZE = 16;
+    
+    private static final int STRIPE_MASK = STRIPE_SIZE - 1;
+    
+    private static final int MAX_STRIPE_COUNT = 64;
+    
+    private final Stripe<E>[] stripes;
+    
+    private final int stripeMask;
+    
+    @SuppressWarnings("unchecked")
+    StripedReadBuffer() {
+        final int processors  = Runtime.getRuntime().availableProcessors();
+        final int stripeCount = Math.min(MAX_STRIPE_COUNT, Integer.highestOneBit(Math.max(1, processors * 2 - 1)));
+        this.stripes    = (Stripe<E>[])new Stripe<?>[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe<E>();
+        }
+    }
+    
+    /**
+     * Record the element.
+     * 
+     * @param  element  the element.
+     * @return {@code true} if the stripe is full and should be drained.
+     **/
+    boolean offer(
+            final E element) {
+        final long threadId = Thread.currentThread().getId();
+        final int  index    = (int)((threadId * 0x9E3779B97F4A7C15L) >>> 40) & this.stripeMask;
+        return this.stripes[index].offer(element);
+    }
+    
+    /**
+     * Replay the recorded elements to the consumer -- must be called by one thread at a time.
+     * 
+     * @param consumer  the consumer.
+     **/
+    void drainTo(
+            final Consumer<? super E> consumer) {
+        for (Stripe<E> stripe : this.stripes) {
+            stripe.drainTo(consumer);
+        }
+    }
+    
+    static final class Stripe<E> {
+        
+        private final AtomicReferenceArray<E> elements = new AtomicReferenceArray<>(STRIPE_SIZE);
+        
+        private final AtomicLong writeCount = new AtomicLong();
+        
+        private volatile long readCount = 0;
+        
+        boolean offer(
+                final E element) {
+            final long head = this.readCount;
+            final long tail = this.writeCount.get();
+            final long size = tail - head;
+            if (size >= STRIPE_SIZE) {
+                return true;
+            }
+            if (this.writeCount.compareAndSet(tail, tail + 1)) {
+                this.elements.lazySet((int)(tail & STRIPE_MASK), element);
+                return (size + 1) >= STRIPE_SIZE;
+            }
+            return false;
+        }
+        
+        void drainTo(
+                final Consumer<? super E> consumer) {
+            long       head = this.readCount;
+            final long tail = this.writeCount.get();
+            for (; head != tail; head++) {
+                final int index   = (int)(head & STRIPE_MASK);
+                final E   element = this.elements.get(index);
+                if (element == null) {
+                    // The writer has claimed the slot but not published the element yet.
+                    break;
+                }
+                this.elements.lazySet(index, null);
+                consumer.accept(element);
+            }
+            this.readCount = head;
+        }
+    
+    }
+    
+}
@@ -0,0 +1,17 @@
+package direct.supplier.holder;
+
+/**
+ * The subscription of a listener to the changes of a holder. Closing the subscription stops the notifications.
+ * 
+ * @author NawaMan
+ **/
+@FunctionalInterface
+public interface Subscription extends AutoCloseable {
+    
+    /**
+     * Stops the notifications to the listener. Closing a closed subscription does nothing.
+     **/
+    @Override
+    public void close();
+    
+}
@@ -1,8 +1,20 @@
 package direct.supplier.holder;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.text.SimpleDateFormat;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import direct.supplier.metrics.HolderMetrics;
+import direct.supplier.metrics.MetricsRegistry;
 
 /**
  * This holder holds one instance of value for each thread. This enables two interesting features.
@@ -19,25 +31,103 @@ import java.util.function.Supplier;
  *    </li>
  * </ol>
  * 
+ * With pooled threads, a value lives as long as its thread so the holder keeps track of the values of all the threads.
+ * <ul>
+ *   <li>{@link #clear()} removes (and disposes) the value of the current thread.</li>
+ *   <li>{@link #clearAll()} disposes the values of all the threads -- each thread creates a new one when needed.
+ *         The thread-local entry of a thread is only a JDK cell so, once cleared, nothing loaded by the application
+ *         class loader is reachable from the pooled threads.</li>
+ *   <li>The values of the threads that have ended are disposed when the next value is created (or by
+ *         {@link #expungeDeadThreads()}).</li>
+ *   <li>{@link #diagnose()} reports the number of the live values and the bytes they hold.</li>
+ * </ul>
+ * Every holder joins {@link ThreadLocalRegistry#global()} so all of them can be cleared at once, for example, on
+ *   redeploy.
+ * 
  * @author NawaMan
  **/
 public class ThreadLocalHolder<R> implements Supplier<R> {
     
-    private ThreadLocal<R> resource = new ThreadLocal<R>() {
-        @Override
-        protected R initialValue() {
-            return ThreadLocalHolder.this.supplier.get();
+    /** The marker for the value of null. */
+    private static final Object NULL = new Object();
+    
+    /** The marker for the value that was cleared (disposed). */
+    private static final Object CLEARED = new Object();
+    
+    /**
+     * The bookkeeping of the value of a thread -- weakly referring to the thread so the value of an ended thread can be
+     *   disposed.
+     * 
+     * The thread itself only holds the cell (a JDK class) so the slot is never reachable from the thread.
+     **/
+    private static final class Slot extends WeakReference<Thread> {
+        
+        private final AtomicReference<Object> cell;
+        
+        Slot(
+                final Thread                  thread,
+                final AtomicReference<Object> cell,
+                final ReferenceQueue<Thread>  deadThreads) {
+            super(thread, deadThreads);
+            this.cell = cell;
         }
-    };
+        
+    }
+    
+    /** The cell of the value of each thread -- the cells of the lent values (see {@link #carrier()}) have no slot. */
+    private final ThreadLocal<AtomicReference<Object>> resource = new ThreadLocal<AtomicReference<Object>>();
+    
+    /** The slots of the values owned by this holder by their cells (which are compared by identity). */
+    private final Map<AtomicReference<Object>, Slot> slots = new ConcurrentHashMap<>();
+    
+    private final ReferenceQueue<Thread> deadThreads = new ReferenceQueue<>();
     
     private final Supplier<R> supplier;
     
+    private final Consumer<? super R> disposer;
+    
+    private final ToLongFunction<? super R> sizer;
+    
+    private final MetricsSupport metrics = new MetricsSupport(ThreadLocalHolder.class);
+    
     /**
      * Constructor.
      **/
     public ThreadLocalHolder(
             final Supplier<R> supplier) {
+        this(supplier, null, null);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param supplier  the supplier of the value of each thread.
+     * @param disposer  the disposer of the values that are cleared -- {@code null} for none.
+     **/
+    public ThreadLocalHolder(
+            final Supplier<R>         supplier,
+            final Consumer<? super R> disposer) {
+        this(supplier, disposer, null);
+    }
+    
+    /**
+     * Constructor.
+     * 
+     * @param supplier  the supplier of the value of each thread.
+     * @param disposer  the disposer of the values that are cleared -- {@code null} for none.
+     * @param sizer     the estimator of the bytes held by a value for {@link #diagnose()} -- {@code null} for unknown.
+     **/
+    public ThreadLocalHolder(
+            final Supplier<R>               supplier,
+            final Consumer<? super R>       disposer,
+            final ToLongFunction<? super R> sizer) {
         this.supplier = Objects.requireNonNull(supplier);
+        this.disposer = disposer;
+        this.sizer    = sizer;
+        ThreadLocalRegistry.global().register(this);
+        if (HolderMetrics.IS_ENABLED_FOR_ALL) {
+            enableMetrics(HolderMetrics.generateName(ThreadLocalHolder.class.getSimpleName()));
+        }
     }
     
     /**
@@ -45,11 +135,238 @@ public class ThreadLocalHolder<R> implements Supplier<R> {
      * 
      * {@inheritDoc}
      **/
+    @SuppressWarnings("unchecked")
     @Override
     public final R get() {
+        if (HolderMetrics.IS_ENABLED) {
+            this.metrics.recordRead();
+        }
+        final AtomicReference<Object> cell = this.resource.get();
+        if (cell != null) {
+            final Object value = cell.get();
+            if (value != CLEARED) {
+                return (value != NULL) ? (R)value : null;
+            }
+        }
+        return initialize();
+    }
+    
+    private R initialize() {
+        expungeDeadThreads();
+        
+        final R                       newValue = create();
+        final AtomicReference<Object> cell     = new AtomicReference<Object>((newValue != null) ? newValue : NULL);
+        this.slots.put(cell, new Slot(Thread.currentThread(), cell, this.deadThreads));
+        this.resource.set(cell);
+        return newValue;
+    }
+    
+    private R create() {
+        if (HolderMetrics.IS_ENABLED) {
+            final HolderMetrics metrics = this.metrics.get();
+            if (metrics != null) {
+                final long startTime = System.nanoTime();
+                final R    newValue  = this.supplier.get();
+                metrics.recordInitialization(System.nanoTime() - startTime);
+                return newValue;
+            }
+        }
+        return this.supplier.get();
+    }
+    
+    /**
+     * Enable the metrics of this holder -- registered with {@link MetricsRegistry#global()}.
+     * 
+     * Enabling again replaces (and unregisters) the metrics enabled before.
+     * 
+     * @param name  the name of the holder.
+     * @return the metrics -- empty if the metrics are disabled (see {@link HolderMetrics#IS_ENABLED}).
+     **/
+    public final Optional<HolderMetrics> enableMetrics(
+            final String name) {
+        final Optional<HolderMetrics> metrics = this.metrics.enable(name);
+        metrics.ifPresent(enabled->enabled.setInstanceCounter(this.slots, Map::size));
+        return metrics;
+    }
+    
+    /**
+     * Disable the metrics of this holder -- unregistered from {@link MetricsRegistry#global()} (and its MXBean).
+     * 
+     * The holders whose metrics are enabled for all (see {@link HolderMetrics#ALL_PROPERTY}) should call this when
+     *   they are no longer used.
+     **/
+    public final void disableMetrics() {
+        this.metrics.disable();
+    }
+    
+    /**
+     * Returns the metrics of this holder.
+     * 
+     * @return the metrics -- empty if not enabled.
+     **/
+    public final Optional<HolderMetrics> metrics() {
+        return this.metrics.metrics();
+    }
+    
+    /**
+     * Remove the value of the current thread -- disposing it.
+     * 
+     * The next {@link #get()} on this thread creates a new value.
+     **/
+    public final void clear() {
+        final AtomicReference<Object> cell = this.resource.get();
+        this.resource.remove();
+        final Slot slot = (cell != null) ? this.slots.get(cell) : null;
+        if (slot != null) {
+            dispose(slot);
+        }
+    }
+    
+    /**
+     * Dispose the values of all the threads.
+     * 
+     * The next {@link #get()} on each thread creates a new value.
+     * Note that a value is disposed even if its thread is still using it so this should be called when the threads
+     *   are not using the holder, for example, on shutdown or redeploy.
+     * Each thread is left with only its emptied cell, which holds nothing loaded by the application class loader.
+     **/
+    public final void clearAll() {
+        for (Slot slot : this.slots.values()) {
+            dispose(slot);
+        }
+    }
+    
+    /**
+     * Dispose the values of the threads that have ended (and were garbage collected).
+     **/
+    public final void expungeDeadThreads() {
+        Reference<? extends Thread> reference;
+        while ((reference = this.deadThreads.poll()) != null) {
+            dispose((Slot)reference);
+        }
+    }
+    
+    /**
+     * Returns the number of the live values and the bytes they hold.
+     * 
+     * @return  the diagnostics.
+     **/
+    @SuppressWarnings("unchecked")
+    public final Diagnostics diagnose() {
+        expungeDeadThreads();
+        
+        int  liveCount = 0;
+        long byteCount = (this.sizer != null) ? 0 : -1;
+        for (Slot slot : this.slots.values()) {
+            final Object value = slot.cell.get();
+            if (value == CLEARED) {
+                continue;
+            }
+            liveCount++;
+            if ((this.sizer != null) && (value != NULL)) {
+                byteCount += this.sizer.applyAsLong((R)value);
+            }
+        }
+        return new Diagnostics(liveCount, byteCount);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void dispose(
+            final Slot slot) {
+        this.slots.remove(slot.cell);
+        final Object value = slot.cell.getAndSet(CLEARED);
+        if ((value == CLEARED) || (value == NULL) || (this.disposer == null)) {
+            return;
+        }
+        try {
+            this.disposer.accept((R)value);
+        } catch (RuntimeException exception) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, exception);
+        }
+    }
+    
+    /** Returns the entry of this holder in the thread-local map of the current thread -- for the tests. */
+    final Object threadLocalEntry() {
         return this.resource.get();
     }
     
+    /**
+     * Returns the carrier of the values of this holder for {@link ContextPropagator}.
+     * 
+     * The value is lent to the other thread so it is not tracked or disposed there.
+     **/
+    final ContextCarrier carrier() {
+        final ThreadLocal<AtomicReference<Object>> resource = this.resource;
+        return new ContextCarrier() {
+            @Override
+            public Object capture() {
+                final AtomicReference<Object> cell  = resource.get();
+                final Object                  value = (cell != null) ? cell.get() : null;
+                return (value != CLEARED) ? value : null;
+            }
+            
+            @Override
+            public Object install(
+                    final Object captured) {
+                final AtomicReference<Object> previous = resource.get();
+                if (captured != null) {
+                    resource.set(new AtomicReference<Object>(captured));
+                } else {
+                    resource.remove();
+                }
+                return previous;
+            }
+            
+            @Override
+            public void restore(
+                    final Object token) {
+                if (token != null) {
+                    @SuppressWarnings("unchecked")
+                    final AtomicReference<Object> cell = (AtomicReference<Object>)token;
+                    resource.set(cell);
+                } else {
+                    resource.remove();
+                }
+            }
+        };
+    }
+    
+    /**
+     * The number of the live values of a {@link ThreadLocalHolder} and the bytes they hold.
+     * 
+     * @author NawaMan
+     **/
+    public static final class Diagnostics {
+        
+        private final int liveCount;
+        
+        private final long byteCount;
+        
+        Diagnostics(
+                final int  liveCount,
+                final long byteCount) {
+            this.liveCount = liveCount;
+            this.byteCount = byteCount;
+        }
+        
+        /** @return the number of the live values. */
+        public int getLiveCount() {
+            return this.liveCount;
+        }
+        
+        /** @return the estimated bytes held by the live values -- -1 if unknown. */
+        public long getByteCount() {
+            return this.byteCount;
+        }
+        
+        @Override
+        public String toString() {
+            return "Diagnostics[liveCount=" + this.liveCount + ", byteCount=" + this.byteCount + "]";
+        }
+        
+    }
+    
     //== Static creation ===============================================================================================
     
     /**
@@ -68,4 +385,41 @@ public class ThreadLocalHolder<R> implements Supplier<R> {
         return new ThreadLocalHolder<T>(valueSupplier);
     }
     
+    /**
+     * Create and return a new {@code ThreadLocalHolder} with the disposer.
+     **/
+    public static <T> ThreadLocalHolder<T> threadLocal(
+            final Supplier<T>         valueSupplier,
+            final Consumer<? super T> disposer) {
+        return new ThreadLocalHolder<T>(valueSupplier, disposer);
+    }
+    
+    /**
+     * Create and return a new {@code ThreadLocalHolder} with the disposer.
+     **/
+    public static <T> ThreadLocalHolder<T> of(
+            final Supplier<T>         valueSupplier,
+            final Consumer<? super T> disposer) {
+        return new ThreadLocalHolder<T>(valueSupplier, disposer);
+    }
+    
+    /**
+     * Create and return a new {@code ThreadLocalHolder} that closes the values when they are cleared.
+     **/
+    public static <T extends AutoCloseable> ThreadLocalHolder<T> closing(
+            final Supplier<T> valueSupplier) {
+        return new ThreadLocalHolder<T>(valueSupplier, ThreadLocalHolder::close);
+    }
+    
+    private static void close(
+            final AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (RuntimeException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            throw new IllegalStateException("Failed to close: " + closeable, exception);
+        }
+    }
+    
 }
@@ -0,0 +1,104 @@
+package direct.supplier.holder;
+
+import static java.util.Objects.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * This registry keeps track of {@link ThreadLocalHolder}s so the values of all the threads of all of them can be
+ *   cleared at once -- for example, when an application is undeployed from a server with pooled threads.
+ * 
+ * The holders are weakly referenced so the registry does not keep them alive.
+ * Every holder is registered with the {@link #global()} registry.
+ * 
+ * @author NawaMan
+ **/
+public final class ThreadLocalRegistry {
+    
+    private static final ThreadLocalRegistry global = new ThreadLocalRegistry();
+    
+    private final Set<ThreadLocalHolder<?>> holders = Collections.newSetFromMap(new WeakHashMap<>());
+    
+    /**
+     * Returns the registry of all the holders.
+     * 
+     * @return  the global registry.
+     **/
+    public static ThreadLocalRegistry global() {
+        return global;
+    }
+    
+    /**
+     * Register the holder.
+     * 
+     * @param holder  the holder.
+     * @return  the holder.
+     **/
+    public <T extends ThreadLocalHolder<?>> T register(
+            final T holder) {
+        requireNonNull(holder);
+        synchronized (this.holders) {
+            this.holders.add(holder);
+        }
+        return holder;
+    }
+    
+    /**
+     * Unregister the holder.
+     * 
+     * @param holder  the holder.
+     **/
+    public void unregister(
+            final ThreadLocalHolder<?> holder) {
+        synchronized (this.holders) {
+            this.holders.remove(holder);
+        }
+    }
+    
+    /**
+     * Returns the registered holders.
+     * 
+     * @return  the holders.
+     **/
+    public List<ThreadLocalHolder<?>> holders() {
+        synchronized (this.holders) {
+            return new ArrayList<>(this.holders);
+        }
+    }
+    
+    /**
+     * Dispose the values of all the threads of all the registered holders.
+     * 
+     * Afterward, the pooled threads hold only the empty JDK cells of the holders (see
+     *   {@link ThreadLocalHolder#clearAll()}) so they do not keep the application class loader reachable.
+     **/
+    public void clearAll() {
+        for (ThreadLocalHolder<?> holder : holders()) {
+            holder.clearAll();
+        }
+    }
+    
+    /**
+     * Returns the total number of the live values of the registered holders and the bytes they hold (only of the
+     *   holders that can estimate it).
+     * 
+     * @return  the diagnostics.
+     **/
+    public ThreadLocalHolder.Diagnostics diagnose() {
+        int  liveCount = 0;
+        long byteCount = -1;
+        for (ThreadLocalHolder<?> holder : holders()) {
+            final ThreadLocalHolder.Diagnostics diagnostics = holder.diagnose();
+            liveCount += diagnostics.getLiveCount();
+            if (diagnostics.getByteCount() >= 0) {
+                byteCount = Math.max(byteCount, 0) + diagnostics.getByteCount();
+            }
+        }
+        return new ThreadLocalHolder.Diagnostics(liveCount, byteCount);
+    }
+    
+}
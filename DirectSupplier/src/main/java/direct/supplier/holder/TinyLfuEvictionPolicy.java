@@ -0,0 +1,109 @@
+package direct.supplier.holder;
+
+import java.util.Objects;
+
+/**
+ * TinyLFU-style eviction policy.
+ * 
+ * The keys are kept in the least-recently-used order but a new key only replaces the least-recently-used key if it
+ *   was requested more often.
+ * The request frequencies are estimated with a count-min sketch that also remembers the keys no longer kept so a key
+ *   that is requested regularly gets in eventually while a one-off key does not push out a popular one.
+ * The counters are halved periodically so the old popularity fades.
+ * 
+ * @author NawaMan
+ **/
+class TinyLfuEvictionPolicy<K> implements EvictionPolicy<K> {
+    
+    private static final int[] SEEDS = { 0x97cb3127, 0xb1e3a2ef, 0x5bd1e995, 0x2f3b0c9d };
+    
+    private final LruEvictionPolicy<K> order = new LruEvictionPolicy<>();
+    
+    private final int[][] counters;
+    
+    private final int mask;
+    
+    private final int sampleSize;
+    
+    private int additions = 0;
+    
+    TinyLfuEvictionPolicy(
+            final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maximumSize);
+        }
+        final int width = Integer.highestOneBit(Math.max(16, maximumSize) * 2 - 1);
+        this.counters   = new int[SEEDS.length][width];
+        this.mask       = width - 1;
+        this.sampleSize = 10 * Math.max(16, maximumSize);
+    }
+    
+    @Override
+    public void recordAccess(
+            final K key) {
+        increment(key);
+        this.order.recordAccess(key);
+    }
+    
+    @Override
+    public void recordInsertion(
+            final K key) {
+        increment(key);
+        this.order.recordInsertion(key);
+    }
+    
+    @Override
+    public void recordRemoval(
+            final K key) {
+        this.order.recordRemoval(key);
+    }
+    
+    @Override
+    public K selectVictim(
+            final K candidate) {
+        final K victim = this.order.selectVictim(candidate);
+        if (Objects.equals(victim, candidate)) {
+            return candidate;
+        }
+        return (frequency(candidate) > frequency(victim)) ? victim : candidate;
+    }
+    
+    int frequency(
+            final K key) {
+        final int hash = key.hashCode();
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            frequency = Math.min(frequency, this.counters[row][index(hash, row)]);
+        }
+        return frequency;
+    }
+    
+    private void increment(
+            final K key) {
+        final int hash = key.hashCode();
+        for (int row = 0; row < SEEDS.length; row++) {
+            this.counters[row][index(hash, row)]++;
+        }
+        if (++this.additions >= this.sampleSize) {
+            reset();
+        }
+    }
+    
+    private void reset() {
+        for (int[] row : this.counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] >>>= 1;
+            }
+        }
+        this.additions /= 2;
+    }
+    
+    private int index(
+            final int hash,
+            final int row) {
+        int h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= (h >>> 16);
+        return h & this.mask;
+    }
+    
+}
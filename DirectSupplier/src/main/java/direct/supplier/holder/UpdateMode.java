@@ -0,0 +1,30 @@
+package direct.supplier.holder;
+
+/**
+ * The way a {@link ChangeableHolder} performs the conditional updates -- {@code compareAndSupply} and
+ *   {@code checkAndUpdate}.
+ * 
+ * @author NawaMan
+ **/
+public enum UpdateMode {
+    
+    /**
+     * The writers take turn on the holder's monitor.
+     * The value supplier or updater is called at most once per update so it is safe for it to have side effects.
+     * A slow supplier or updater blocks all other writers.
+     **/
+    SYNCHRONIZED,
+    
+    /**
+     * The new value is computed without any lock then compared-and-set. On conflict, the update is retried.
+     * The value supplier or updater may be called more than once per update so it should be free of side effects.
+     **/
+    LOCK_FREE,
+    
+    /**
+     * Like {@link #LOCK_FREE} but the writer parks for an exponentially growing time between the retries to ease the
+     *   contention.
+     **/
+    LOCK_FREE_WITH_BACKOFF;
+    
+}
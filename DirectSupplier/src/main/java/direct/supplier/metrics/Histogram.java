@@ -0,0 +1,171 @@
+package direct.supplier.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of non-negative long values (such as durations in nanoseconds) in the style of
+ *   HdrHistogram.
+ * 
+ * The values are counted in log-linear buckets: each power-of-two range is split into the same number of sub-buckets
+ *   so the relative error is bounded (by {@code 1 / 2^(precisionBits - 1)}) whatever the magnitude of the value and
+ *   the memory is fixed -- recording is one atomic increment, no allocation.
+ * 
+ * @author NawaMan
+ **/
+public final class Histogram {
+    
+    /** The default precision -- 32 sub-buckets, about 6% relative error at most. */
+    public static final int DEFAULT_PRECISION_BITS = 5;
+    
+    private final int precisionBits;
+    
+    private final int subBucketCount;
+    
+    private final int halfCount;
+    
+    private final AtomicLongArray counts;
+    
+    private final LongAdder totalCount = new LongAdder();
+    
+    private final LongAdder totalSum = new LongAdder();
+    
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Construct a histogram with the default precision.
+     **/
+    public Histogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+    
+    /**
+     * Construct a histogram with the precision.
+     * 
+     * @param precisionBits  the number of the bits of the sub-buckets -- from 1 to 10.
+     **/
+    public Histogram(
+            final int precisionBits) {
+        if ((precisionBits < 1) || (precisionBits > 10)) {
+            throw new IllegalArgumentException("Invalid precision bits: " + precisionBits);
+        }
+        this.precisionBits  = precisionBits;
+        this.subBucketCount = 1 << precisionBits;
+        this.halfCount      = this.subBucketCount >>> 1;
+        this.counts         = new AtomicLongArray(this.subBucketCount + (64 - precisionBits) * this.halfCount);
+    }
+    
+    /**
+     * Record the value.
+     * 
+     * @param value  the value -- negative values are recorded as zero.
+     **/
+    public void record(
+            final long value) {
+        final long recorded = Math.max(value, 0);
+        this.counts.incrementAndGet(indexOf(recorded));
+        this.totalCount.increment();
+        this.totalSum.add(recorded);
+        this.max.accumulate(recorded);
+    }
+    
+    /**
+     * Returns the number of the recorded values.
+     * 
+     * @return the count.
+     **/
+    public long getCount() {
+        return this.totalCount.sum();
+    }
+    
+    /**
+     * Returns the largest recorded value.
+     * 
+     * @return the maximum -- 0 if nothing was recorded.
+     **/
+    public long getMax() {
+        return this.max.get();
+    }
+    
+    /**
+     * Returns the mean of the recorded values.
+     * 
+     * @return the mean -- 0.0 if nothing was recorded.
+     **/
+    public double getMean() {
+        final long count = this.totalCount.sum();
+        return (count == 0) ? 0.0 : ((double)this.totalSum.sum() / count);
+    }
+    
+    /**
+     * Returns the value at the percentile -- the highest value equivalent (within the precision) to the recorded value
+     *   at the percentile.
+     * 
+     * @param percentile  the percentile -- from 0.0 to 100.0.
+     * @return the value -- 0 if nothing was recorded.
+     **/
+    public long getValueAtPercentile(
+            final double percentile) {
+        final AtomicLongArray counts = this.counts;
+        final int             length = counts.length();
+        long total = 0;
+        for (int i = 0; i < length; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final double bounded = Math.min(Math.max(percentile, 0.0), 100.0);
+        final long   rank    = Math.max(1, (long)Math.ceil(bounded / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < length; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueAt(i), getMax());
+            }
+        }
+        return getMax();
+    }
+    
+    int indexOf(
+            final long value) {
+        if (value < this.subBucketCount) {
+            return (int)value;
+        }
+        final int  shift    = (63 - Long.numberOfLeadingZeros(value)) - this.precisionBits + 1;
+        final long subIndex = value >>> shift;
+        return this.subBucketCount + (shift - 1) * this.halfCount + (int)(subIndex - this.halfCount);
+    }
+    
+    long lowestValueAt(
+            final int index) {
+        if (index < this.subBucketCount) {
+            return index;
+        }
+        final int  offset   = index - this.subBucketCount;
+        final int  shift    = offset / this.halfCount + 1;
+        final long subIndex = offset % this.halfCount + this.halfCount;
+        return subIndex << shift;
+    }
+    
+    long highestValueAt(
+            final int index) {
+        if (index < this.subBucketCount) {
+            return index;
+        }
+        final int shift = (index - this.subBucketCount) / this.halfCount + 1;
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+    
+    @Override
+    public String toString() {
+        return "Histogram[count=" + getCount()
+                + ", mean=" + getMean()
+                + ", p50="  + getValueAtPercentile(50.0)
+                + ", p99="  + getValueAtPercentile(99.0)
+                + ", max="  + getMax()
+                + "]";
+    }
+    
+}
@@ -0,0 +1,240 @@
+package direct.supplier.metrics;
+
+import static java.util.Objects.*;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * The metrics of a holder.
+ * 
+ * The instrumented holders only record their metrics if {@link #IS_ENABLED} -- it is {@code static final} so the
+ *   recording code is removed by the JIT when disabled:
+ * <pre>
+ * if (HolderMetrics.IS_ENABLED) {
+ *     final HolderMetrics metrics = this.metrics;
+ *     if (metrics != null) {
+ *         metrics.recordRead();
+ *     }
+ * }
+ * </pre>
+ * 
+ * The metrics do not keep their holder (nor its state) reachable but, once registered, the metrics themselves stay in
+ *   the registry and the MBean server until the holder disables them (or they are unregistered).
+ * 
+ * @author NawaMan
+ **/
+public final class HolderMetrics implements HolderMetricsMXBean {
+    
+    /** The system property to enable the metrics. */
+    public static final String ENABLED_PROPERTY = "direct.supplier.metrics";
+    
+    /**
+     * The system property to enable the metrics of all the instrumented holders.
+     * 
+     * Each holder created registers its metrics (and its MXBean) until it disables them so this is only meant for the
+     *   applications whose holders are long-lived (like static constants) -- not for those creating holders per
+     *   request or per object.
+     **/
+    public static final String ALL_PROPERTY = "direct.supplier.metrics.all";
+    
+    /** Whether the metrics are enabled -- from the system property {@value #ENABLED_PROPERTY}. */
+    public static final boolean IS_ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    
+    /** Whether the metrics of all the instrumented holders are enabled -- also needs {@link #IS_ENABLED}. */
+    public static final boolean IS_ENABLED_FOR_ALL = IS_ENABLED && Boolean.getBoolean(ALL_PROPERTY);
+    
+    private static final AtomicInteger nextSequence = new AtomicInteger();
+    
+    private final String name;
+    
+    private final String type;
+    
+    private final LongAdder readCount = new LongAdder();
+    
+    private final LongAdder contentionCount = new LongAdder();
+    
+    private final Histogram initializationNanos = new Histogram();
+    
+    /** The number of the threads in or entering the monitor of the holder. */
+    private final AtomicInteger lockers = new AtomicInteger();
+    
+    private volatile InstanceCounter<?> instanceCounter = null;
+    
+    /**
+     * Construct the metrics of a holder.
+     * 
+     * @param name  the name of the holder.
+     * @param type  the type of the holder.
+     **/
+    public HolderMetrics(
+            final String name,
+            final String type) {
+        this.name = requireNonNull(name);
+        this.type = requireNonNull(type);
+    }
+    
+    /**
+     * Returns a generated name for the holder of the type -- for the holders whose metrics are enabled by
+     *   {@link #IS_ENABLED_FOR_ALL}.
+     * 
+     * @param type  the type of the holder.
+     * @return the name.
+     **/
+    public static String generateName(
+            final String type) {
+        return type + "#" + nextSequence.incrementAndGet();
+    }
+    
+    /**
+     * Record a read of the value.
+     **/
+    public void recordRead() {
+        this.readCount.increment();
+    }
+    
+    /**
+     * Record an initialization of the value.
+     * 
+     * @param nanos  the duration of the initialization in nanoseconds.
+     **/
+    public void recordInitialization(
+            final long nanos) {
+        this.initializationNanos.record(nanos);
+    }
+    
+    /**
+     * Record a contention -- a failed CAS to be retried or a wait.
+     **/
+    public void recordContention() {
+        this.contentionCount.increment();
+    }
+    
+    /**
+     * Record a thread entering the monitor of the holder -- a contention if another thread is already in or entering.
+     * Each call must be followed by {@link #exitMonitor()}.
+     **/
+    public void enterMonitor() {
+        if (this.lockers.getAndIncrement() != 0) {
+            this.contentionCount.increment();
+        }
+    }
+    
+    /**
+     * Record a thread exiting the monitor of the holder.
+     **/
+    public void exitMonitor() {
+        this.lockers.decrementAndGet();
+    }
+    
+    /**
+     * Set the counter of the live instances -- for the holders with an instance for each thread.
+     * 
+     * The state is only weakly referenced so the metrics do not keep the holder state reachable -- the counter must
+     *   not capture the holder either (use an unbound method reference like {@code Set::size}).
+     * 
+     * @param state    the state of the holder to count the instances of.
+     * @param counter  the counter of the instances in the state.
+     **/
+    public <S> void setInstanceCounter(
+            final S                         state,
+            final ToLongFunction<? super S> counter) {
+        this.instanceCounter = new InstanceCounter<S>(state, counter);
+    }
+    
+    /**
+     * Returns the histogram of the durations of the initializations in nanoseconds.
+     * 
+     * @return the histogram.
+     **/
+    public Histogram getInitializationNanos() {
+        return this.initializationNanos;
+    }
+    
+    @Override
+    public String getName() {
+        return this.name;
+    }
+    
+    @Override
+    public String getType() {
+        return this.type;
+    }
+    
+    @Override
+    public long getReadCount() {
+        return this.readCount.sum();
+    }
+    
+    @Override
+    public long getInitializationCount() {
+        return this.initializationNanos.getCount();
+    }
+    
+    @Override
+    public double getInitializationNanosMean() {
+        return this.initializationNanos.getMean();
+    }
+    
+    @Override
+    public long getInitializationNanosP50() {
+        return this.initializationNanos.getValueAtPercentile(50.0);
+    }
+    
+    @Override
+    public long getInitializationNanosP99() {
+        return this.initializationNanos.getValueAtPercentile(99.0);
+    }
+    
+    @Override
+    public long getInitializationNanosMax() {
+        return this.initializationNanos.getMax();
+    }
+    
+    @Override
+    public long getContentionCount() {
+        return this.contentionCount.sum();
+    }
+    
+    @Override
+    public long getInstanceCount() {
+        final InstanceCounter<?> instanceCounter = this.instanceCounter;
+        return (instanceCounter != null) ? instanceCounter.count() : -1;
+    }
+    
+    @Override
+    public String toString() {
+        return "HolderMetrics[name=" + this.name
+                + ", type="                + this.type
+                + ", readCount="           + getReadCount()
+                + ", initializationCount=" + getInitializationCount()
+                + ", initializationNanos=" + this.initializationNanos
+                + ", contentionCount="     + getContentionCount()
+                + ", instanceCount="       + getInstanceCount()
+                + "]";
+    }
+    
+    /** The counter of the instances of a weakly referenced state. */
+    private static final class InstanceCounter<S> {
+        
+        private final WeakReference<S> state;
+        
+        private final ToLongFunction<? super S> counter;
+        
+        InstanceCounter(
+                final S                         state,
+                final ToLongFunction<? super S> counter) {
+            this.state   = new WeakReference<S>(requireNonNull(state));
+            this.counter = requireNonNull(counter);
+        }
+        
+        long count() {
+            final S state = this.state.get();
+            return (state != null) ? this.counter.applyAsLong(state) : 0;
+        }
+        
+    }
+    
+}
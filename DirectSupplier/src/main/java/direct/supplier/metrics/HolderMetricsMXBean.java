@@ -0,0 +1,40 @@
+package direct.supplier.metrics;
+
+/**
+ * The JMX view of the {@link HolderMetrics} of a holder.
+ * 
+ * @author NawaMan
+ **/
+public interface HolderMetricsMXBean {
+    
+    /** @return the name of the holder. */
+    public String getName();
+    
+    /** @return the type of the holder. */
+    public String getType();
+    
+    /** @return the number of the reads. */
+    public long getReadCount();
+    
+    /** @return the number of the initializations (the values produced). */
+    public long getInitializationCount();
+    
+    /** @return the mean duration of the initializations in nanoseconds. */
+    public double getInitializationNanosMean();
+    
+    /** @return the median duration of the initializations in nanoseconds. */
+    public long getInitializationNanosP50();
+    
+    /** @return the 99th percentile duration of the initializations in nanoseconds. */
+    public long getInitializationNanosP99();
+    
+    /** @return the longest duration of the initializations in nanoseconds. */
+    public long getInitializationNanosMax();
+    
+    /** @return the number of the contentions -- the failed CASes retried or the waits for the monitor. */
+    public long getContentionCount();
+    
+    /** @return the number of the live instances (of the threads) -- -1 if not applicable. */
+    public long getInstanceCount();
+    
+}
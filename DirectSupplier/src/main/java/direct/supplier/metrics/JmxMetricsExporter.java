@@ -0,0 +1,111 @@
+package direct.supplier.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This exporter registers each {@link HolderMetrics} as an MXBean named
+ *   {@code direct.supplier:type=HolderMetrics,name=<name>}.
+ * 
+ * The MXBeans are live views of the metrics so each metrics only needs to be exported once -- exporting it again has
+ *   no effect. A metrics replaces the MXBean of the same name.
+ * The MXBean of a metrics is unregistered when the metrics is unexported.
+ * 
+ * @author NawaMan
+ **/
+public final class JmxMetricsExporter implements MetricsExporter {
+    
+    /** The domain of the object names. */
+    public static final String DOMAIN = "direct.supplier";
+    
+    private final MBeanServer server;
+    
+    private final Map<HolderMetrics, ObjectName> registered = new ConcurrentHashMap<>();
+    
+    /**
+     * Construct an exporter to the platform MBean server.
+     **/
+    public JmxMetricsExporter() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+    
+    /**
+     * Construct an exporter to the MBean server.
+     * 
+     * @param server  the server.
+     **/
+    public JmxMetricsExporter(
+            final MBeanServer server) {
+        this.server = server;
+    }
+    
+    @Override
+    public void export(
+            final List<HolderMetrics> metrics) {
+        for (HolderMetrics each : metrics) {
+            if (this.registered.containsKey(each)) {
+                continue;
+            }
+            try {
+                final ObjectName name = objectName(each);
+                if (this.server.isRegistered(name)) {
+                    this.server.unregisterMBean(name);
+                    this.registered.values().remove(name);
+                }
+                this.server.registerMBean(each, name);
+                this.registered.put(each, name);
+            } catch (JMException exception) {
+                throw new IllegalStateException("Failed to register the MXBean of: " + each.getName(), exception);
+            }
+        }
+    }
+    
+    @Override
+    public void unexport(
+            final List<HolderMetrics> metrics) {
+        for (HolderMetrics each : metrics) {
+            final ObjectName name = this.registered.remove(each);
+            if (name != null) {
+                unregister(name);
+            }
+        }
+    }
+    
+    /**
+     * Unregister the MXBeans of all the exported metrics.
+     **/
+    public void unregisterAll() {
+        for (Map.Entry<HolderMetrics, ObjectName> entry : this.registered.entrySet()) {
+            unregister(entry.getValue());
+            this.registered.remove(entry.getKey());
+        }
+    }
+    
+    private void unregister(
+            final ObjectName name) {
+        try {
+            this.server.unregisterMBean(name);
+        } catch (JMException exception) {
+            // Already unregistered.
+        }
+    }
+    
+    /**
+     * Returns the object name of the MXBean of the metrics.
+     * 
+     * @param metrics  the metrics.
+     * @return the object name.
+     * @throws JMException  if the name is invalid.
+     **/
+    public static ObjectName objectName(
+            final HolderMetrics metrics) throws JMException {
+        return new ObjectName(DOMAIN + ":type=HolderMetrics,name=" + ObjectName.quote(metrics.getName()));
+    }
+    
+}
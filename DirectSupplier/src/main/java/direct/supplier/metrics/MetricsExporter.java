@@ -0,0 +1,28 @@
+package direct.supplier.metrics;
+
+import java.util.List;
+
+/**
+ * The exporter of the {@link HolderMetrics} -- to a monitoring system.
+ * 
+ * @author NawaMan
+ **/
+@FunctionalInterface
+public interface MetricsExporter {
+    
+    /**
+     * Export the metrics.
+     * 
+     * @param metrics  the metrics.
+     **/
+    public void export(List<HolderMetrics> metrics);
+    
+    /**
+     * Withdraw the metrics that are unregistered -- by default nothing.
+     * 
+     * @param metrics  the metrics.
+     **/
+    public default void unexport(List<HolderMetrics> metrics) {
+    }
+    
+}
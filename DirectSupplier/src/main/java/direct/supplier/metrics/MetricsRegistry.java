@@ -0,0 +1,161 @@
+package direct.supplier.metrics;
+
+import static java.util.Objects.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This registry keeps the {@link HolderMetrics} by the names of the holders.
+ * 
+ * The {@link #global()} registry -- where the holders register their metrics -- exposes each metrics as a JMX MXBean
+ *   (see {@link JmxMetricsExporter}) as it is registered and removes the MXBean as it is unregistered.
+ * All the metrics can be exported to any exporter with {@link #exportTo(MetricsExporter)} (for example, periodically).
+ * 
+ * @author NawaMan
+ **/
+public final class MetricsRegistry {
+    
+    private static final MetricsRegistry global = new MetricsRegistry(new JmxMetricsExporter());
+    
+    private final Map<String, HolderMetrics> metrics = new LinkedHashMap<>();
+    
+    private final MetricsExporter onRegister;
+    
+    /**
+     * Construct a registry.
+     **/
+    public MetricsRegistry() {
+        this(null);
+    }
+    
+    /**
+     * Construct a registry that exports each metrics to the exporter as it is registered.
+     * 
+     * @param onRegister  the exporter -- {@code null} for none.
+     **/
+    public MetricsRegistry(
+            final MetricsExporter onRegister) {
+        this.onRegister = onRegister;
+    }
+    
+    /**
+     * Returns the registry of the metrics of the holders.
+     * 
+     * @return the global registry.
+     **/
+    public static MetricsRegistry global() {
+        return global;
+    }
+    
+    /**
+     * Create and register the metrics of the holder.
+     * 
+     * @param name  the name of the holder.
+     * @param type  the type of the holder.
+     * @return the metrics.
+     * @throws IllegalArgumentException  if metrics of the name are already registered.
+     **/
+    public HolderMetrics create(
+            final String name,
+            final String type) {
+        return register(new HolderMetrics(name, type));
+    }
+    
+    /**
+     * Register the metrics.
+     * 
+     * @param holderMetrics  the metrics.
+     * @return the metrics.
+     * @throws IllegalArgumentException  if metrics of the same name are already registered.
+     **/
+    public HolderMetrics register(
+            final HolderMetrics holderMetrics) {
+        requireNonNull(holderMetrics);
+        synchronized (this.metrics) {
+            if (this.metrics.containsKey(holderMetrics.getName())) {
+                throw new IllegalArgumentException("Duplicate metrics: " + holderMetrics.getName());
+            }
+            this.metrics.put(holderMetrics.getName(), holderMetrics);
+        }
+        if (this.onRegister != null) {
+            this.onRegister.export(Collections.singletonList(holderMetrics));
+        }
+        return holderMetrics;
+    }
+    
+    /**
+     * Unregister the metrics of the name -- also withdrawn from the exporter given to the constructor.
+     * 
+     * @param name  the name.
+     * @return the unregistered metrics -- {@code null} if none.
+     **/
+    public HolderMetrics unregister(
+            final String name) {
+        final HolderMetrics removed;
+        synchronized (this.metrics) {
+            removed = this.metrics.remove(name);
+        }
+        if ((removed != null) && (this.onRegister != null)) {
+            this.onRegister.unexport(Collections.singletonList(removed));
+        }
+        return removed;
+    }
+    
+    /**
+     * Unregister the metrics if it is still the one registered under its name -- also withdrawn from the exporter given
+     *   to the constructor.
+     * 
+     * @param holderMetrics  the metrics.
+     * @return {@code true} if the metrics was unregistered.
+     **/
+    public boolean unregister(
+            final HolderMetrics holderMetrics) {
+        final boolean isRemoved;
+        synchronized (this.metrics) {
+            isRemoved = this.metrics.remove(holderMetrics.getName(), holderMetrics);
+        }
+        if (isRemoved && (this.onRegister != null)) {
+            this.onRegister.unexport(Collections.singletonList(holderMetrics));
+        }
+        return isRemoved;
+    }
+    
+    /**
+     * Returns the metrics of the name.
+     * 
+     * @param name  the name.
+     * @return the metrics -- {@code null} if none.
+     **/
+    public HolderMetrics get(
+            final String name) {
+        synchronized (this.metrics) {
+            return this.metrics.get(name);
+        }
+    }
+    
+    /**
+     * Returns all the registered metrics in the order of the registration.
+     * 
+     * @return the metrics.
+     **/
+    public List<HolderMetrics> all() {
+        synchronized (this.metrics) {
+            return new ArrayList<>(this.metrics.values());
+        }
+    }
+    
+    /**
+     * Export all the registered metrics to the exporter.
+     * 
+     * @param exporter  the exporter.
+     **/
+    public void exportTo(
+            final MetricsExporter exporter) {
+        exporter.export(all());
+    }
+    
+}
@@ -0,0 +1,16 @@
+/**
+ * The optional instrumentation of the holders -- the reads, the initializations (with the durations) and the
+ *   contention of each instrumented holder.
+ * 
+ * The instrumentation is compiled in only when the system property {@code direct.supplier.metrics} is
+ *   {@code true} -- otherwise the checks are on a {@code static final} {@code false} and the JIT removes them.
+ * When enabled, the metrics are collected for the holders they are enabled for (for example,
+ *   {@code LazyInitializeHolder.enableMetrics(name)}) or for all the instrumented holders if the system property
+ *   {@code direct.supplier.metrics.all} is also {@code true}.
+ * 
+ * The metrics of the holders are kept in {@link MetricsRegistry#global()} which exposes them as JMX MXBeans and can
+ *   export them to any {@link MetricsExporter}.
+ * 
+ * @author NawaMan
+ */
+package direct.supplier.metrics;
@@ -0,0 +1,25 @@
+package direct.supplier.switchboard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a static no-argument method of a {@link Switchboard} declaration as a binding -- the method produces the
+ *   production value of the binding.
+ * 
+ * @author NawaMan
+ **/
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Bind {
+    
+    /**
+     * The name of the binding. By default, the name of the method.
+     * 
+     * @return the name.
+     **/
+    String value() default "";
+    
+}
@@ -0,0 +1,63 @@
+package direct.supplier.switchboard;
+
+import static java.util.Objects.*;
+
+/**
+ * The key of a binding. Keys are compared by identity.
+ * 
+ * A {@link BindingRegistry} gives each key it binds a dense index of its own (from 0 in the order of binding) and
+ *   the key remembers the index of the registry that bound it last so the lookup is an array load.
+ * 
+ * @author NawaMan
+ **/
+public final class BindingKey<T> {
+    
+    /** The index of this key in the registry that bound it last -- written only when bound. */
+    BindingRegistry.Index registryIndex = null;
+    
+    private final String name;
+    
+    private final Class<? super T> type;
+    
+    private BindingKey(
+            final String           name,
+            final Class<? super T> type) {
+        this.name = requireNonNull(name);
+        this.type = requireNonNull(type);
+    }
+    
+    /**
+     * Returns the name of the binding.
+     * 
+     * @return the name.
+     **/
+    public String getName() {
+        return this.name;
+    }
+    
+    /**
+     * Returns the type of the values of the binding (erased if generic).
+     * 
+     * @return the type.
+     **/
+    public Class<? super T> getType() {
+        return this.type;
+    }
+    
+    @Override
+    public String toString() {
+        return "BindingKey[" + this.name + ": " + this.type.getName() + "]";
+    }
+    
+    //== Static creation ===============================================================================================
+    
+    /**
+     * Create and return a new {@code BindingKey}.
+     **/
+    public static <T> BindingKey<T> of(
+            final String           name,
+            final Class<? super T> type) {
+        return new BindingKey<T>(name, type);
+    }
+    
+}
@@ -0,0 +1,322 @@
+package direct.supplier.switchboard;
+
+import static java.util.Objects.*;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import direct.supplier.holder.ConstantHolder;
+
+/**
+ * This registry binds the {@link BindingKey}s to their suppliers (usually holders) -- a switchboard without
+ *   hand-written getters.
+ * 
+ * <pre>
+ * static final BindingKey&lt;Greeter&gt; GREETER = BindingKey.of("greeter", Greeter.class);
+ * ...
+ * registry.bind(GREETER, LazyInitializeHolder.of(FriendlyGreeter::new));
+ * ...
+ * static final BindingRegistry.Frozen bindings = registry.freeze();
+ * ...
+ * bindings.get(GREETER).greet();
+ * </pre>
+ * 
+ * The registry gives each key a dense index when the key is first bound so the suppliers are kept in a flat array
+ *   no larger than the number of the bound keys.
+ * The key remembers its index in the registry that bound it last so a lookup is an array load.
+ * A key bound in more than one registry is looked up with an identity map in the other registries.
+ * 
+ * While the bindings are being set up (at startup), the bindings are copied on each bind and read through a volatile
+ *   field.
+ * Once {@link #freeze()} is called, the registry no longer accepts bindings and the returned {@link Frozen} bindings
+ *   hold the array in a final field -- no volatile read on lookup and no {@link Overrides}.
+ * To honor the {@link Overrides} in use (like the generated switchboards do), freeze with
+ *   {@link #freezeWithOverrides()} instead -- usually in tests -- at the cost of a volatile read on each lookup.
+ * The registry itself (before it is frozen) always honors the overrides.
+ * 
+ * @author NawaMan
+ **/
+public final class BindingRegistry {
+    
+    private static final AtomicInteger nextRegistryId = new AtomicInteger();
+    
+    private static final Bindings EMPTY = new Bindings(new IdentityHashMap<>(), new Supplier<?>[0]);
+    
+    private final int id = nextRegistryId.incrementAndGet();
+    
+    private volatile Bindings bindings = EMPTY;
+    
+    private Frozen frozen = null;
+    
+    /**
+     * Bind the key to the supplier -- replacing the previous binding of the key.
+     * 
+     * @param key       the key.
+     * @param supplier  the supplier.
+     * @return this registry.
+     * @throws IllegalStateException  if the registry is frozen.
+     **/
+    public synchronized <T> BindingRegistry bind(
+            final BindingKey<T>         key,
+            final Supplier<? extends T> supplier) {
+        requireNonNull(key);
+        requireNonNull(supplier);
+        if (this.frozen != null) {
+            throw new IllegalStateException("The registry is frozen.");
+        }
+        final Bindings bindings = this.bindings;
+        final int      length   = bindings.suppliers.length;
+        final Integer  existing = bindings.indexes.get(key);
+        final int      index    = (existing != null) ? existing : length;
+        
+        final IdentityHashMap<BindingKey<?>, Integer> indexes = new IdentityHashMap<>(bindings.indexes);
+        indexes.put(key, index);
+        final Supplier<?>[] suppliers = Arrays.copyOf(bindings.suppliers, Math.max(length, index + 1));
+        suppliers[index] = supplier;
+        this.bindings = new Bindings(indexes, suppliers);
+        
+        key.registryIndex = new Index(this.id, index);
+        return this;
+    }
+    
+    /**
+     * Bind the key to the constant value.
+     * 
+     * @param key    the key.
+     * @param value  the value.
+     * @return this registry.
+     * @throws IllegalStateException  if the registry is frozen.
+     **/
+    public <T> BindingRegistry bindConstant(
+            final BindingKey<T> key,
+            final T             value) {
+        return bind(key, ConstantHolder.of(value));
+    }
+    
+    /**
+     * Check if the key is bound.
+     * 
+     * @param key  the key.
+     * @return {@code true} if the key is bound.
+     **/
+    public boolean isBound(
+            final BindingKey<?> key) {
+        return this.bindings.find(this.id, key) != null;
+    }
+    
+    /**
+     * Returns the value of the binding of the key -- honoring the overrides in use.
+     * 
+     * @param key  the key.
+     * @return the value.
+     * @throws IllegalStateException  if the key is not bound.
+     **/
+    public <T> T get(
+            final BindingKey<T> key) {
+        return resolveOverridable(this.id, this.bindings, key).get();
+    }
+    
+    /**
+     * Returns the supplier of the binding of the key -- honoring the overrides in use.
+     * 
+     * @param key  the key.
+     * @return the supplier.
+     * @throws IllegalStateException  if the key is not bound.
+     **/
+    public <T> Supplier<? extends T> supplier(
+            final BindingKey<T> key) {
+        return resolveOverridable(this.id, this.bindings, key);
+    }
+    
+    /**
+     * Check if the registry is frozen.
+     * 
+     * @return {@code true} if frozen.
+     **/
+    public synchronized boolean isFrozen() {
+        return this.frozen != null;
+    }
+    
+    /**
+     * Freeze the registry -- no more bindings are accepted -- and returns the immutable bindings which do not honor
+     *   the {@link Overrides}.
+     * Freezing more than once returns the same bindings.
+     * 
+     * @return the frozen bindings.
+     * @throws IllegalStateException  if the registry is already frozen with the overrides.
+     **/
+    public synchronized Frozen freeze() {
+        return freeze(false);
+    }
+    
+    /**
+     * Freeze the registry -- no more bindings are accepted -- and returns the immutable bindings which honor the
+     *   {@link Overrides} in use.
+     * Freezing more than once returns the same bindings.
+     * 
+     * @return the frozen bindings.
+     * @throws IllegalStateException  if the registry is already frozen without the overrides.
+     **/
+    public synchronized Frozen freezeWithOverrides() {
+        return freeze(true);
+    }
+    
+    private Frozen freeze(
+            final boolean isOverridable) {
+        if (this.frozen == null) {
+            this.frozen = new Frozen(this.id, this.bindings, isOverridable);
+        } else if (this.frozen.isOverridable != isOverridable) {
+            throw new IllegalStateException("The registry is already frozen "
+                    + (this.frozen.isOverridable ? "with" : "without") + " the overrides.");
+        }
+        return this.frozen;
+    }
+    
+    static <T> Supplier<? extends T> resolve(
+            final int           registryId,
+            final Bindings      bindings,
+            final BindingKey<T> key) {
+        final Supplier<? extends T> supplier = bindings.find(registryId, key);
+        if (supplier == null) {
+            throw new IllegalStateException("Not bound: " + key);
+        }
+        return supplier;
+    }
+    
+    static <T> Supplier<? extends T> resolveOverridable(
+            final int           registryId,
+            final Bindings      bindings,
+            final BindingKey<T> key) {
+        if (Overrides.isActive()) {
+            final Supplier<? extends T> override = Overrides.find(key);
+            if (override != null) {
+                return override;
+            }
+        }
+        return resolve(registryId, bindings, key);
+    }
+    
+    /** The index of a key in a registry. */
+    static final class Index {
+        
+        final int registryId;
+        
+        final int index;
+        
+        Index(
+                final int registryId,
+                final int index) {
+            this.registryId = registryId;
+            this.index      = index;
+        }
+        
+    }
+    
+    /** The immutable bindings -- the indexes of the keys and the suppliers at those indexes. */
+    static final class Bindings {
+        
+        final IdentityHashMap<BindingKey<?>, Integer> indexes;
+        
+        final Supplier<?>[] suppliers;
+        
+        Bindings(
+                final IdentityHashMap<BindingKey<?>, Integer> indexes,
+                final Supplier<?>[]                           suppliers) {
+            this.indexes   = indexes;
+            this.suppliers = suppliers;
+        }
+        
+        @SuppressWarnings("unchecked")
+        <T> Supplier<? extends T> find(
+                final int           registryId,
+                final BindingKey<T> key) {
+            final Index registryIndex = key.registryIndex;
+            final int   index;
+            if ((registryIndex != null) && (registryIndex.registryId == registryId)) {
+                index = registryIndex.index;
+            } else {
+                final Integer found = this.indexes.get(key);
+                if (found == null) {
+                    return null;
+                }
+                index = found;
+            }
+            return (index < this.suppliers.length) ? (Supplier<? extends T>)this.suppliers[index] : null;
+        }
+        
+    }
+    
+    /**
+     * The immutable bindings of a frozen {@link BindingRegistry}.
+     * 
+     * @author NawaMan
+     **/
+    public static final class Frozen {
+        
+        private final int registryId;
+        
+        final Bindings bindings;
+        
+        final boolean isOverridable;
+        
+        Frozen(
+                final int      registryId,
+                final Bindings bindings,
+                final boolean  isOverridable) {
+            this.registryId    = registryId;
+            this.bindings      = bindings;
+            this.isOverridable = isOverridable;
+        }
+        
+        /**
+         * Check if the bindings honor the {@link Overrides} in use.
+         * 
+         * @return {@code true} if the overrides are honored.
+         **/
+        public boolean isOverridable() {
+            return this.isOverridable;
+        }
+        
+        /**
+         * Check if the key is bound.
+         * 
+         * @param key  the key.
+         * @return {@code true} if the key is bound.
+         **/
+        public boolean isBound(
+                final BindingKey<?> key) {
+            return this.bindings.find(this.registryId, key) != null;
+        }
+        
+        /**
+         * Returns the value of the binding of the key.
+         * 
+         * @param key  the key.
+         * @return the value.
+         * @throws IllegalStateException  if the key is not bound.
+         **/
+        public <T> T get(
+                final BindingKey<T> key) {
+            return supplier(key).get();
+        }
+        
+        /**
+         * Returns the supplier of the binding of the key.
+         * 
+         * @param key  the key.
+         * @return the supplier.
+         * @throws IllegalStateException  if the key is not bound.
+         **/
+        public <T> Supplier<? extends T> supplier(
+                final BindingKey<T> key) {
+            if (this.isOverridable) {
+                return resolveOverridable(this.registryId, this.bindings, key);
+            }
+            return resolve(this.registryId, this.bindings, key);
+        }
+        
+    }
+    
+}
@@ -0,0 +1,164 @@
+package direct.supplier.switchboard;
+
+import static java.util.Objects.*;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import direct.supplier.holder.StackThreadLocalHolder;
+
+/**
+ * Overriding suppliers for the bindings of the switchboards -- usually to replace the production values in tests.
+ * 
+ * <pre>
+ * String greeting = Overrides.with(AppSwitchboard.GREETING, ()-&gt;"Test greeting")
+ *                            .using(()-&gt;new Client().greet());
+ * </pre>
+ * 
+ * The overrides are only in use on the thread running the action (and only during the action) so concurrent tests
+ *   or requests can override the same bindings differently.
+ * To use them on another thread, pass {@link #current()} and run the task with it there.
+ * 
+ * This is the slow path of the switchboard.
+ * The generated switchboards only check {@link #isActive()} -- one read of a global count of the actions running with
+ *   overrides -- unless some overrides are in use somewhere.
+ * 
+ * @author NawaMan
+ **/
+public final class Overrides {
+    
+    private static final Overrides NONE = new Overrides(new IdentityHashMap<>());
+    
+    /** The stack of the overrides in use of each thread -- each frame already includes the frames below. */
+    private static final StackThreadLocalHolder<Overrides> inUse = StackThreadLocalHolder.of(()->NONE);
+    
+    /** The number of the actions running with overrides on all the threads. */
+    private static final AtomicInteger activeCount = new AtomicInteger();
+    
+    private final Map<BindingKey<?>, Supplier<?>> suppliers;
+    
+    private Overrides(
+            final Map<BindingKey<?>, Supplier<?>> suppliers) {
+        this.suppliers = suppliers;
+    }
+    
+    /**
+     * Returns the empty overrides.
+     * 
+     * @return the overrides with nothing overridden.
+     **/
+    public static Overrides none() {
+        return NONE;
+    }
+    
+    /**
+     * Returns the overrides in use on the current thread.
+     * 
+     * @return the overrides -- {@link #none()} if none.
+     **/
+    public static Overrides current() {
+        if (activeCount.get() == 0) {
+            return NONE;
+        }
+        final Overrides overrides = inUse.get();
+        return (overrides != null) ? overrides : NONE;
+    }
+    
+    /**
+     * Returns the overrides with the binding of the key overridden by the supplier.
+     * 
+     * @param key       the key.
+     * @param supplier  the overriding supplier.
+     * @return the overrides.
+     **/
+    public static <T> Overrides with(
+            final BindingKey<T>         key,
+            final Supplier<? extends T> supplier) {
+        return NONE.and(key, supplier);
+    }
+    
+    /**
+     * Returns these overrides plus the binding of the key overridden by the supplier.
+     * 
+     * @param key       the key.
+     * @param supplier  the overriding supplier.
+     * @return the new overrides.
+     **/
+    public <T> Overrides and(
+            final BindingKey<T>         key,
+            final Supplier<? extends T> supplier) {
+        final Map<BindingKey<?>, Supplier<?>> suppliers = new IdentityHashMap<>(this.suppliers);
+        suppliers.put(requireNonNull(key), requireNonNull(supplier));
+        return new Overrides(suppliers);
+    }
+    
+    /**
+     * Get the result of the action with these overrides in use on the current thread (on top of the overrides already
+     *   in use).
+     * 
+     * @param action  the action.
+     * @return the result of the action.
+     **/
+    public <T> T using(
+            final Supplier<T> action) {
+        final Overrides previous  = inUse.get();
+        final Overrides overrides = (previous == null) ? this : previous.overriddenBy(this);
+        activeCount.incrementAndGet();
+        final StackThreadLocalHolder.Scope scope = inUse.pushScope(overrides);
+        try {
+            return action.get();
+        } finally {
+            scope.close();
+            activeCount.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Run the action with these overrides in use (on top of the overrides already in use).
+     * 
+     * @param action  the action.
+     **/
+    public void run(
+            final Runnable action) {
+        using(()->{
+            action.run();
+            return null;
+        });
+    }
+    
+    private Overrides overriddenBy(
+            final Overrides overrides) {
+        final Map<BindingKey<?>, Supplier<?>> suppliers = new IdentityHashMap<>(this.suppliers);
+        suppliers.putAll(overrides.suppliers);
+        return new Overrides(suppliers);
+    }
+    
+    //== For the switchboards ==========================================================================================
+    
+    /**
+     * Check if any overrides are in use on any thread. The generated switchboards check this before
+     *   {@link #find(BindingKey)}.
+     * 
+     * @return {@code true} if some overrides may be in use on the current thread.
+     **/
+    public static boolean isActive() {
+        return activeCount.get() != 0;
+    }
+    
+    /**
+     * Returns the overriding supplier of the binding in use on the current thread -- or {@code null} if the binding is
+     *   not overridden.
+     * 
+     * @param key  the key.
+     * @return the overriding supplier.
+     **/
+    @SuppressWarnings("unchecked")
+    public static <T> Supplier<? extends T> find(
+            final BindingKey<T> key) {
+        final Overrides overrides = inUse.get();
+        return (overrides != null) ? (Supplier<? extends T>)overrides.suppliers.get(key) : null;
+    }
+    
+}
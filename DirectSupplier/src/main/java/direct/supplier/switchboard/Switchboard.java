@@ -0,0 +1,46 @@
+package direct.supplier.switchboard;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class declaring the bindings of a switchboard -- its static methods annotated with {@link Bind}.
+ * 
+ * The switchboard processor (in DirectSupplierProcessor) generates the switchboard class in the same package.
+ * For each binding, the switchboard has
+ * <ul>
+ *   <li>a {@link BindingKey} constant -- to override the binding with {@link Overrides},</li>
+ *   <li>a static method returning the value -- the value is produced by the declaring method on the first request
+ *         and then held in a {@code static final} {@code ConstantHolder}, and</li>
+ *   <li>a static method returning the supplier of the value.</li>
+ * </ul>
+ * 
+ * <pre>
+ * &#64;Switchboard
+ * public class AppBindings {
+ *     &#64;Bind
+ *     public static Greeter greeter() {
+ *         return new FriendlyGreeter();
+ *     }
+ * }
+ * ...
+ * AppSwitchboard.greeter().greet();
+ * </pre>
+ * 
+ * @author NawaMan
+ **/
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Switchboard {
+    
+    /**
+     * The simple name of the generated class. By default, the name of the declaring class with "Bindings" replaced
+     *   by (or else followed by) "Switchboard".
+     * 
+     * @return the name.
+     **/
+    String value() default "";
+    
+}
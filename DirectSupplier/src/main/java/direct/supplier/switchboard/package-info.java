@@ -0,0 +1,10 @@
+/**
+ * The switchboard -- the central place where the suppliers of the application are bound.
+ * 
+ * The switchboard classes are generated from the declarations annotated with {@link Switchboard} so the production
+ *   bindings are constants the JIT can inline while they can still be overridden with {@link Overrides} (in tests).
+ * Without generation, {@link BindingRegistry} binds the {@link BindingKey}s to their suppliers.
+ * 
+ * @author NawaMan
+ */
+package direct.supplier.switchboard;
@@ -3,6 +3,14 @@ package direct.supplier.holder;
 import static direct.supplier.holder.ChangeableHolder.NOKEY;
 import static direct.supplier.holder.ChangeableHolder.changeable;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -124,4 +132,154 @@ public class ChangeableHolderTest {
         holder.checkAndUpdate(v->INIT_VALUE.equals(v), v->v + "1");
         assertEquals((INIT_VALUE + 1), holder.get());
     }
+    
+    @Test
+    public void lockFree_concurrentUpdatesAreNotLost() throws InterruptedException {
+        for (UpdateMode mode : new UpdateMode[] { UpdateMode.LOCK_FREE, UpdateMode.LOCK_FREE_WITH_BACKOFF }) {
+            ChangeableHolder<Integer> counter = changeable(NOKEY, 0, mode);
+            
+            int testSize  = 8;
+            int testCount = 10000;
+            CountDownLatch latch = new CountDownLatch(testSize);
+            for (int i = 0; i < testSize; i++) {
+                new Thread(()->{
+                    for (int c = 0; c < testCount; c++) {
+                        counter.checkAndUpdate(v->true, v->v + 1);
+                    }
+                    latch.countDown();
+                }).start();
+            }
+            latch.await();
+            
+            assertEquals(mode.toString(), Integer.valueOf(testSize * testCount), counter.get());
+        }
+    }
+    
+    @Test
+    public void lockFree_keyIsStillChecked() {
+        Object key = new Object();
+        holder = changeable(key, INIT_VALUE, UpdateMode.LOCK_FREE);
+        
+        assertFalse(holder.compareAndSupply(INIT_VALUE, ()->"42"));
+        assertFalse(holder.checkAndUpdate(new Object(), v->true, v->"42"));
+        assertEquals(INIT_VALUE, holder.get());
+        
+        assertTrue(holder.compareAndSupply(key, INIT_VALUE, ()->"42"));
+        assertEquals("42", holder.get());
+        assertFalse(holder.compareAndSupply(key, INIT_VALUE, ()->"24"));
+        assertEquals("42", holder.get());
+    }
+    
+    @Test
+    public void subscriber_isNotifiedOfEachChange() {
+        holder = ChangeableHolder.versioned(INIT_VALUE);
+        List<ChangeEvent<String>> events = new ArrayList<>();
+        Subscription subscription = holder.subscribe(events::add);
+        
+        holder.set("1");
+        holder.compareAndSupply("1", ()->"2");
+        holder.compareAndSupply("1", ()->"3");
+        holder.checkAndUpdate(v->true, v->v + "3");
+        subscription.close();
+        holder.set("4");
+        
+        assertEquals("[ChangeEvent[ -> 1, version=1], "
+                    + "ChangeEvent[1 -> 2, version=2], "
+                    + "ChangeEvent[2 -> 23, version=3]]",
+                    events.toString());
+    }
+    
+    @Test
+    public void dispatcher_coalescesTheChangesOfATick() {
+        holder = ChangeableHolder.versioned(INIT_VALUE);
+        List<ChangeEvent<String>> events = new ArrayList<>();
+        try (ChangeDispatcher dispatcher = new ChangeDispatcher(1, TimeUnit.HOURS)) {
+            holder.subscribe(events::add, dispatcher);
+            
+            for (int i = 1; i <= 1000; i++) {
+                holder.set("" + i);
+            }
+            dispatcher.flush();
+            holder.set("Last");
+            dispatcher.flush();
+            dispatcher.flush();
+        }
+        
+        assertEquals("[ChangeEvent[ -> 1000, version=1000], "
+                    + "ChangeEvent[1000 -> Last, version=1001]]",
+                    events.toString());
+    }
+    
+    @Test
+    public void stamp_changesWithEachChange() {
+        holder = ChangeableHolder.versioned(INIT_VALUE);
+        Stamped<String> stamped = holder.getStamped();
+        assertEquals(INIT_VALUE, stamped.getValue());
+        assertTrue(holder.validate(stamped.getStamp()));
+        
+        // Even the same value is a change.
+        holder.set(INIT_VALUE);
+        assertFalse(holder.validate(stamped.getStamp()));
+        assertEquals(stamped.getStamp() + 1, holder.getStamp());
+    }
+    
+    @Test
+    public void compareStampAndSet_onlySucceedsWithTheCurrentStamp() {
+        for (UpdateMode mode : UpdateMode.values()) {
+            Object key = new Object();
+            holder = ChangeableHolder.versioned(key, INIT_VALUE, mode);
+            long stamp = holder.getStamp();
+            
+            assertFalse(holder.compareStampAndSet(stamp, "42"));
+            assertTrue(holder.compareStampAndSet(key, stamp, "42"));
+            assertFalse(holder.compareStampAndSet(key, stamp, "24"));
+            assertEquals("42", holder.get());
+            assertTrue(holder.compareStampAndSet(key, stamp + 1, "24"));
+            assertEquals("24", holder.get());
+        }
+    }
+    
+    @Test
+    public void padded_behavesTheSame() {
+        for (UpdateMode mode : UpdateMode.values()) {
+            Object key = new Object();
+            holder = ChangeableHolder.padded(key, INIT_VALUE, mode);
+            
+            assertFalse(holder.set("42"));
+            assertTrue(holder.set(key, "42"));
+            assertTrue(holder.checkAndUpdate(key, "42"::equals, value->value + "!"));
+            assertEquals("42!", holder.get());
+        }
+    }
+    
+    @Test
+    public void plainHolder_hasNoStampsNorSubscriptions() {
+        holder = createHolder(NOKEY);
+        assertFalse(holder.isVersioned());
+        try {
+            holder.getStamp();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("The holder is not versioned.", exception.getMessage());
+        }
+        try {
+            holder.subscribe(event->{});
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("The holder is not versioned.", exception.getMessage());
+        }
+        
+        // The versioned holder behaves the same otherwise.
+        for (UpdateMode mode : UpdateMode.values()) {
+            Object key = new Object();
+            holder = ChangeableHolder.versioned(key, INIT_VALUE, mode);
+            assertTrue(holder.isVersioned());
+            assertFalse(holder.set("42"));
+            assertTrue(holder.set(key, "42"));
+            assertTrue(holder.checkAndUpdate(key, "42"::equals, value->value + "!"));
+            assertTrue(holder.compareAndSupply(key, "42!", ()->"24"));
+            assertEquals("24", holder.get());
+            assertEquals(3, holder.getStamp());
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.Test;
+
+public class TestAccumulatingHolder {
+    
+    @Test
+    public void testSumFromManyThreads() throws InterruptedException {
+        AccumulatingHolder count = AccumulatingHolder.sum();
+        
+        int threadCount = 8;
+        int addCount    = 10000;
+        CyclicBarrier  gate  = new CyclicBarrier(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(()->{
+                waitToStartAtTheSameTime(gate);
+                for (int j = 0; j < addCount; j++) {
+                    count.increment();
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        
+        assertEquals(threadCount * addCount, count.getAsLong());
+        assertEquals(threadCount * addCount, count.getThenReset());
+        assertEquals(0, count.getAsLong());
+    }
+    
+    @Test
+    public void testMaxAndMin() {
+        AccumulatingHolder max = AccumulatingHolder.max();
+        AccumulatingHolder min = AccumulatingHolder.min();
+        assertEquals(Long.MIN_VALUE, max.getAsLong());
+        assertEquals(Long.MAX_VALUE, min.getAsLong());
+        
+        for (long value : new long[] { 5, -3, 42, 7 }) {
+            max.accumulate(value);
+            min.accumulate(value);
+        }
+        assertEquals(42, max.getAsLong());
+        assertEquals(-3, min.getAsLong());
+        
+        max.reset();
+        assertEquals(max.getIdentity(), max.getAsLong());
+    }
+    
+    @Test
+    public void testCustomReducer() {
+        AccumulatingHolder bits = AccumulatingHolder.of((a, b)->a | b, 0L);
+        bits.accumulate(1);
+        bits.accumulate(4);
+        bits.accumulate(1);
+        assertEquals(5, bits.getAsLong());
+    }
+    
+    private void waitToStartAtTheSameTime(
+            final CyclicBarrier gate) {
+        try {
+            gate.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
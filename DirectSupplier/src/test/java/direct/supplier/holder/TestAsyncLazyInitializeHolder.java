@@ -0,0 +1,87 @@
+package direct.supplier.holder;
+
+import static direct.supplier.holder.AsyncLazyInitializeHolder.asyncLazyInitialize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TestAsyncLazyInitializeHolder {
+    
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    
+    @After
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+    
+    @Test
+    public void prewarm_doesNotBlockAndInitializesOnce() throws Exception {
+        final AtomicInteger  count   = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        AsyncLazyInitializeHolder<String> holder = asyncLazyInitialize(()->{
+            await(release);
+            return "Int-" + count.incrementAndGet();
+        }, this.executor);
+        
+        CompletableFuture<String> future = holder.prewarm();
+        assertFalse(future.isDone());
+        assertFalse(holder.isInitialized());
+        
+        release.countDown();
+        assertEquals("Int-1", future.get(5, TimeUnit.SECONDS));
+        assertEquals("Int-1", holder.get());
+        assertEquals("Int-1", holder.future().get());
+        assertTrue(holder.isInitialized());
+        assertEquals(1, count.get());
+    }
+    
+    @Test
+    public void completingTheView_doesNotAffectTheHolder() {
+        AsyncLazyInitializeHolder<String> holder = asyncLazyInitialize(()->"Real", this.executor);
+        
+        holder.future().complete("Fake");
+        assertEquals("Real", holder.get());
+    }
+    
+    @Test
+    public void failedInitialization_nextRequestTriesAgain() {
+        final AtomicInteger count = new AtomicInteger(0);
+        AsyncLazyInitializeHolder<String> holder = asyncLazyInitialize(()->{
+            if (count.incrementAndGet() == 1) {
+                throw new IllegalStateException("First attempt fails.");
+            }
+            return "Int-" + count.get();
+        }, this.executor);
+        
+        try {
+            holder.get();
+            fail("The first attempt should fail.");
+        } catch (InitializationException exception) {
+            assertEquals("First attempt fails.", exception.getCause().getMessage());
+        }
+        
+        assertEquals("Int-2", holder.get());
+        assertEquals(2, count.get());
+    }
+    
+    private void await(
+            final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
@@ -0,0 +1,116 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestContextPropagator {
+    
+    private final AtomicInteger created = new AtomicInteger();
+    
+    private final ThreadLocalHolder<String>      user  = ThreadLocalHolder.of(()->"user-" + created.incrementAndGet());
+    private final StackThreadLocalHolder<String> stack = StackThreadLocalHolder.of(()->"frame");
+    private final ScopedHolder<String>           scope = ScopedHolder.of(()->"scope");
+    
+    private final ContextPropagator propagator = ContextPropagator.of(user, stack, scope);
+    
+    private ExecutorService executor;
+    
+    @Before
+    public void setup() throws Exception {
+        executor = Executors.newSingleThreadExecutor();
+        // Start the pool thread first so nothing is inherited.
+        executor.submit(()->{}).get();
+    }
+    
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Test
+    public void testPropagateAndRestore() throws Exception {
+        // The worker has its own value.
+        String workerUser = executor.submit(()->user.get()).get();
+        
+        String mainUser = user.get();
+        stack.push("outer");
+        try {
+            String result = scope.where("request").call(()->{
+                ExecutorService propagating = propagator.wrap(executor);
+                return propagating.submit(()->user.get() + "," + stack.get() + "," + scope.get()).get();
+            });
+            assertEquals(mainUser + ",outer,request", result);
+        } finally {
+            stack.pop();
+        }
+        
+        // The worker is restored.
+        assertEquals(workerUser + ",true,null", executor.submit(()->user.get() + "," + stack.isEmpty() + "," + scope.get()).get());
+    }
+    
+    @Test
+    public void testCaptureDoesNotCreate() throws Exception {
+        ContextPropagator.Snapshot snapshot = propagator.capture();
+        assertEquals(0, created.get());
+        
+        // Nothing captured so the worker creates its own.
+        String inTask = executor.submit(()->snapshot.call(()->user.get())).get();
+        assertEquals("user-1", inTask);
+    }
+    
+    @Test
+    public void testCompletableFuture() throws Exception {
+        String mainUser = user.get();
+        stack.push("outer");
+        try {
+            CompletableFuture<String> first = propagator.supplyAsync(()->user.get(), executor);
+            // Let the first stage complete so the next stage is submitted (and captured) by this thread.
+            first.get();
+            CompletableFuture<String> future
+                    = first.thenApplyAsync(value->value + "," + stack.get(), propagator.wrap((Executor)executor));
+            assertEquals(mainUser + ",outer", future.get());
+        } finally {
+            stack.pop();
+        }
+        assertTrue(executor.submit(()->stack.isEmpty()).get());
+    }
+    
+    @Test
+    public void testWrapLambdas() throws Exception {
+        ContextPropagator.Snapshot snapshot = scope.where("request").get(()->propagator.capture());
+        
+        StringBuffer buffer = new StringBuffer();
+        executor.submit(snapshot.wrapRunnable(()->buffer.append(scope.get()))).get();
+        assertEquals("request", buffer.toString());
+        
+        assertEquals("request", executor.submit(snapshot.wrapCallable(()->scope.get())).get());
+        assertEquals("request", CompletableFuture.supplyAsync(snapshot.wrapSupplier(()->scope.get()), executor).get());
+        assertEquals("request:1", CompletableFuture.completedFuture(1)
+                .thenApplyAsync(snapshot.wrapFunction(value->scope.get() + ":" + value), executor)
+                .get());
+        
+        StringBuffer consumed = new StringBuffer();
+        CompletableFuture.completedFuture(2)
+                .thenAcceptAsync(snapshot.wrapConsumer(value->consumed.append(scope.get() + ":" + value)), executor)
+                .get();
+        assertEquals("request:2", consumed.toString());
+        
+        assertEquals("null", executor.submit(()->String.valueOf(scope.get())).get());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotContextHolder() {
+        ContextPropagator.of(ConstantHolder.of("value"));
+    }
+    
+}
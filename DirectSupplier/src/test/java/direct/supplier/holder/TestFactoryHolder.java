@@ -0,0 +1,183 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestFactoryHolder {
+    
+    @Test
+    public void testNewInstanceForEachGet() {
+        FactoryHolder<StringBuilder> factory = FactoryHolder.of(StringBuilder::new);
+        
+        StringBuilder first = factory.get();
+        factory.release(first);
+        assertNotSame(first, factory.get());
+        assertFalse(factory.isRecycling());
+        
+        FactoryHolder.Stats stats = factory.stats();
+        assertEquals(2, stats.getGetCount());
+        assertEquals(2, stats.getCreateCount());
+        assertEquals(0, stats.getReuseCount());
+        assertEquals(1, stats.getReleaseCount());
+    }
+    
+    @Test
+    public void testRecycling() {
+        FactoryHolder<StringBuilder> factory = FactoryHolder.recycling(StringBuilder::new, 4, sb->sb.setLength(0));
+        
+        StringBuilder first = factory.get();
+        first.append("Used");
+        factory.release(first);
+        
+        StringBuilder second = factory.get();
+        assertSame(first, second);
+        assertEquals("", second.toString());
+        assertNotSame(first, factory.get());
+        
+        FactoryHolder.Stats stats = factory.stats();
+        assertEquals(3,   stats.getGetCount());
+        assertEquals(2,   stats.getCreateCount());
+        assertEquals(1,   stats.getReuseCount());
+        assertEquals(1.0 / 3, stats.getReuseRate(), 0.0001);
+    }
+    
+    @Test
+    public void testFullRing_drops() {
+        FactoryHolder<Object> factory = FactoryHolder.recycling(Object::new, 2, null);
+        for (int i = 0; i < 3; i++) {
+            factory.release(new Object());
+        }
+        assertEquals(1, factory.stats().getDropCount());
+        
+        factory.get();
+        factory.get();
+        factory.get();
+        assertEquals(2, factory.stats().getReuseCount());
+        assertEquals(1, factory.stats().getCreateCount());
+    }
+    
+    @Test
+    public void testFailedReset_drops() {
+        FactoryHolder<StringBuilder> factory = FactoryHolder.recycling(StringBuilder::new, 4, sb->{
+            throw new IllegalStateException("Cannot reset.");
+        });
+        
+        StringBuilder first = factory.get();
+        try {
+            factory.release(first);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Cannot reset.", exception.getMessage());
+        }
+        assertEquals(1, factory.stats().getReleaseCount());
+        assertEquals(1, factory.stats().getDropCount());
+        
+        // Not offered for reuse.
+        assertNotSame(first, factory.get());
+        assertEquals(0, factory.stats().getReuseCount());
+    }
+    
+    @Test
+    public void testDoubleRelease_isNotDetected() {
+        // Pins the documented behavior: a double release is the caller's bug and hands one instance out twice.
+        FactoryHolder<StringBuilder> factory = FactoryHolder.recycling(StringBuilder::new, 4, null);
+        
+        StringBuilder instance = factory.get();
+        factory.release(instance);
+        factory.release(instance);
+        assertEquals(0, factory.stats().getDropCount());
+        assertSame(instance, factory.get());
+        assertSame(instance, factory.get());
+    }
+    
+    @Test
+    public void testInvalidCapacity() {
+        try {
+            FactoryHolder.recycling(Object::new, 0, null);
+            fail("Expect an exception.");
+        } catch (IllegalArgumentException exception) {
+        }
+    }
+    
+    @Test
+    public void testRing() {
+        FactoryHolder.Ring ring = new FactoryHolder.Ring(3);
+        assertEquals(4, ring.capacity());
+        assertNull(ring.poll());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(ring.offer(i));
+            }
+            assertFalse(ring.offer(4));
+            for (int i = 0; i < 4; i++) {
+                assertEquals(i, ring.poll());
+            }
+            assertNull(ring.poll());
+        }
+    }
+    
+    @Test
+    public void testRing_concurrent() throws InterruptedException {
+        final int threadCount = 4;
+        final int perThread   = 10000;
+        
+        FactoryHolder.Ring ring        = new FactoryHolder.Ring(16);
+        Set<Object>        polled      = ConcurrentHashMap.newKeySet();
+        AtomicInteger      nextElement = new AtomicInteger();
+        CyclicBarrier      barrier     = new CyclicBarrier(threadCount * 2);
+        
+        Thread[] threads = new Thread[threadCount * 2];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(()->{
+                waitToStartAtTheSameTime(barrier);
+                for (int i = 0; i < perThread; i++) {
+                    Integer element = nextElement.getAndIncrement();
+                    while (!ring.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[threadCount + t] = new Thread(()->{
+                waitToStartAtTheSameTime(barrier);
+                for (int i = 0; i < perThread; i++) {
+                    Object element;
+                    while ((element = ring.poll()) == null) {
+                        Thread.yield();
+                    }
+                    assertTrue(polled.add(element));
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(threadCount * perThread, polled.size());
+        assertNull(ring.poll());
+    }
+    
+    private void waitToStartAtTheSameTime(
+            final CyclicBarrier gate) {
+        try {
+            gate.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
@@ -0,0 +1,241 @@
+package direct.supplier.holder;
+
+import static direct.supplier.holder.KeyedHolder.keyed;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestKeyedHolder {
+    
+    @Test
+    public void eachKey_isInitializedOnce() throws InterruptedException {
+        final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+        KeyedHolder<String, String> holder = keyed(key->{
+            counts.computeIfAbsent(key, k->new AtomicInteger()).incrementAndGet();
+            sleep(50);
+            return "Value-" + key;
+        });
+        
+        int testSize = 100;
+        CyclicBarrier gate = new CyclicBarrier(testSize + 1);
+        CountDownLatch latch = new CountDownLatch(testSize);
+        for (int i = 0; i < testSize; i++) {
+            final String key = "T" + (i % 5);
+            new Thread(()->{
+                waitToStartAtTheSameTime(gate);
+                assertEquals("Value-" + key, holder.get(key));
+                latch.countDown();
+            }).start();
+        }
+        waitToStartAtTheSameTime(gate);
+        latch.await();
+        
+        assertEquals(5, counts.size());
+        counts.values().forEach(count->assertEquals(1, count.get()));
+        assertEquals(5,   holder.stats().getLoadCount());
+        assertEquals(100, holder.stats().getHitCount() + holder.stats().getMissCount());
+    }
+    
+    @Test
+    public void getAll_returnsValuesInKeyOrder() {
+        KeyedHolder<Integer, String> holder = keyed(key->"V" + key);
+        
+        Map<Integer, String> values = holder.getAll(Arrays.asList(3, 1, 2));
+        assertEquals("{3=V3, 1=V1, 2=V2}", values.toString());
+    }
+    
+    @Test
+    public void failedInitialization_isRemoved() {
+        final AtomicInteger count = new AtomicInteger();
+        KeyedHolder<String, String> holder = keyed(key->{
+            if (count.incrementAndGet() == 1) {
+                throw new IllegalStateException("First attempt fails.");
+            }
+            return "Value-" + key;
+        });
+        
+        try {
+            holder.get("A");
+            fail("The first attempt should fail.");
+        } catch (IllegalStateException exception) {
+        }
+        assertFalse(holder.containsKey("A"));
+        assertEquals("Value-A", holder.get("A"));
+        assertEquals(1, holder.stats().getLoadFailureCount());
+    }
+    
+    @Test
+    public void lru_evictsTheLeastRecentlyUsed() {
+        KeyedHolder<String, String> holder = keyed(key->"Value-" + key, 2, EvictionPolicy.lru());
+        
+        holder.get("A");
+        holder.get("B");
+        holder.get("A");
+        holder.get("C");
+        
+        assertEquals(2, holder.size());
+        assertTrue(holder.containsKey("A"));
+        assertFalse(holder.containsKey("B"));
+        assertTrue(holder.containsKey("C"));
+        assertEquals(1, holder.stats().getEvictionCount());
+    }
+    
+    @Test
+    public void lfu_evictsTheLeastFrequentlyUsed() {
+        KeyedHolder<String, String> holder = keyed(key->"Value-" + key, 2, EvictionPolicy.lfu());
+        
+        holder.get("A");
+        holder.get("A");
+        holder.get("A");
+        holder.get("B");
+        holder.get("C");
+        holder.get("D");
+        
+        assertTrue(holder.containsKey("A"));
+        assertFalse(holder.containsKey("B"));
+        assertFalse(holder.containsKey("C"));
+        assertTrue(holder.containsKey("D"));
+    }
+    
+    @Test
+    public void tinyLfu_doesNotAdmitOneOffKeys() {
+        KeyedHolder<String, String> holder = keyed(key->"Value-" + key, 2, EvictionPolicy.tinyLfu(2));
+        
+        for (int i = 0; i < 5; i++) {
+            holder.get("A");
+            holder.get("B");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Value-X" + i, holder.get("X" + i));
+        }
+        
+        assertTrue(holder.containsKey("A"));
+        assertTrue(holder.containsKey("B"));
+        assertEquals(2, holder.size());
+    }
+    
+    @Test
+    public void hits_doNotWaitForThePolicy() throws Exception {
+        final CountDownLatch inPolicy = new CountDownLatch(1);
+        final CountDownLatch release  = new CountDownLatch(1);
+        final EvictionPolicy<String> lru    = EvictionPolicy.lru();
+        final EvictionPolicy<String> policy = new EvictionPolicy<String>() {
+            @Override
+            public void recordAccess(String key) {
+                lru.recordAccess(key);
+            }
+            @Override
+            public void recordInsertion(String key) {
+                if (key.equals("Slow")) {
+                    inPolicy.countDown();
+                    await(release);
+                }
+                lru.recordInsertion(key);
+            }
+            @Override
+            public void recordRemoval(String key) {
+                lru.recordRemoval(key);
+            }
+            @Override
+            public String selectVictim(String candidate) {
+                return lru.selectVictim(candidate);
+            }
+        };
+        KeyedHolder<String, String> holder = keyed(key->"Value-" + key, 10, policy);
+        holder.get("A");
+        
+        final Thread slow = new Thread(()->holder.get("Slow"));
+        slow.start();
+        inPolicy.await();
+        
+        // Enough hits to fill the read buffer while the policy lock is held.
+        final CompletableFuture<Void> hits = CompletableFuture.runAsync(()->{
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("Value-A", holder.get("A"));
+            }
+        });
+        hits.get(5, TimeUnit.SECONDS);
+        
+        release.countDown();
+        slow.join();
+        assertEquals(1000, holder.stats().getHitCount());
+    }
+    
+    @Test
+    public void concurrentRemovesAndGets_keepTheSizeBound() throws Exception {
+        final int maximumSize = 4;
+        KeyedHolder<Integer, String> holder = keyed(key->"Value-" + key, maximumSize, EvictionPolicy.lru());
+        
+        final int           threadCount = 8;
+        final CyclicBarrier gate        = new CyclicBarrier(threadCount);
+        final Thread[]      threads     = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int seed = t;
+            threads[t] = new Thread(()->{
+                waitToStartAtTheSameTime(gate);
+                for (int i = 0; i < 20000; i++) {
+                    final int key = (i * 7 + seed) % 8;
+                    if ((i + seed) % 3 == 0) {
+                        holder.remove(key);
+                    } else {
+                        holder.get(key);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(holder.size() <= maximumSize);
+        
+        // Every held key is still known to the policy so the new keys keep the bound.
+        for (int key = 100; key < 100 + maximumSize; key++) {
+            holder.get(key);
+        }
+        assertEquals(maximumSize, holder.size());
+        for (int key = 100; key < 100 + maximumSize; key++) {
+            assertTrue(holder.containsKey(key));
+        }
+    }
+    
+    private void waitToStartAtTheSameTime(
+            final CyclicBarrier gate) {
+        try {
+            gate.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void await(
+            final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void sleep(
+            final int milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
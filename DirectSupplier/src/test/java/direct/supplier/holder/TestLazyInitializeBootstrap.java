@@ -0,0 +1,109 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+import direct.supplier.holder.LazyInitializeBootstrap.Node;
+
+public class TestLazyInitializeBootstrap {
+    
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    
+    @After
+    public void shutdown() {
+        this.pool.shutdownNow();
+    }
+    
+    @Test
+    public void dependencies_areRecordedOnFirstRun() {
+        LazyInitializeBootstrap bootstrap = new LazyInitializeBootstrap(this.pool);
+        Node<String> dataSource = bootstrap.lazyInitialize("DataSource", ()->"DS");
+        Node<String> dao        = bootstrap.lazyInitialize("DAO",        ()->"DAO(" + dataSource.get() + ")");
+        Node<String> service    = bootstrap.lazyInitialize("Service",    ()->"Service(" + dao.get() + ")");
+        
+        assertEquals("Service(DAO(DS))", service.get());
+        
+        assertEquals(new HashSet<>(Arrays.asList(dao)),        service.getDependencies());
+        assertEquals(new HashSet<>(Arrays.asList(dataSource)), dao.getDependencies());
+        assertTrue(dataSource.getDependencies().isEmpty());
+        assertTrue(service.getInitializationNanos() >= service.getSelfNanos());
+        
+        String dot = bootstrap.toDot();
+        assertTrue(dot, dot.contains("\"Service\" -> \"DAO\";"));
+        assertTrue(dot, dot.contains("\"DAO\" -> \"DataSource\";"));
+    }
+    
+    @Test
+    public void independentBranches_areInitializedConcurrently() throws Exception {
+        LazyInitializeBootstrap bootstrap = new LazyInitializeBootstrap(this.pool);
+        
+        // Each branch only returns once both have started -- so they must overlap.
+        CountDownLatch started = new CountDownLatch(2);
+        Node<String>   left    = bootstrap.lazyInitialize("Left",  ()->overlapping(started, "L"));
+        Node<String>   right   = bootstrap.lazyInitialize("Right", ()->overlapping(started, "R"));
+        Node<String>   root    = bootstrap.lazyInitialize("Root",  ()->left.get() + right.get()).dependsOn(left, right);
+        
+        bootstrap.initialize().get(30, TimeUnit.SECONDS);
+        
+        assertTrue(root.isInitialized());
+        assertEquals("LR", root.get());
+    }
+    
+    @Test
+    public void declaredCycle_isReported() {
+        LazyInitializeBootstrap bootstrap = new LazyInitializeBootstrap(this.pool);
+        Node<String> first  = bootstrap.lazyInitialize("First",  ()->"1");
+        Node<String> second = bootstrap.lazyInitialize("Second", ()->"2");
+        first.dependsOn(second);
+        second.dependsOn(first);
+        
+        try {
+            bootstrap.initialize();
+            fail("The cycle should be reported.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Dependency cycle: First -> Second -> First", exception.getMessage());
+        }
+    }
+    
+    @Test
+    public void cycleInProducers_isReportedInsteadOfDeadlock() {
+        LazyInitializeBootstrap bootstrap = new LazyInitializeBootstrap(this.pool);
+        AtomicReference<Node<String>> firstRef = new AtomicReference<>();
+        Node<String> second = bootstrap.lazyInitialize("Second", ()->"2" + firstRef.get().get());
+        Node<String> first  = bootstrap.lazyInitialize("First",  ()->"1" + second.get());
+        firstRef.set(first);
+        
+        try {
+            first.get();
+            fail("The cycle should be reported.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Dependency cycle: First -> Second -> First", exception.getMessage());
+        }
+    }
+    
+    private String overlapping(
+            final CountDownLatch started,
+            final String         value) {
+        started.countDown();
+        try {
+            if (!started.await(20, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("The branches were not initialized in parallel.");
+            }
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+    
+}
@@ -1,11 +1,17 @@
 package direct.supplier.holder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import org.junit.Test;
@@ -62,6 +68,160 @@ public class TestLazyInitializeHolder {
         assertEquals("The value should be the one that is initialized.", allInitialized.get(0), value);
     }
     
+    @Test
+    public void failedInitialization_nextRequestTriesAgain() {
+        final AtomicInteger count = new AtomicInteger(0);
+        LazyInitializeHolder<String> lazyInitHolder = lazyInitialize(()->{
+            if (count.incrementAndGet() == 1) {
+                throw new IllegalStateException("First attempt fails.");
+            }
+            return "Int-" + count.get();
+        });
+        
+        try {
+            lazyInitHolder.get();
+            fail("The first attempt should fail.");
+        } catch (IllegalStateException exception) {
+            assertEquals("First attempt fails.", exception.getMessage());
+        }
+        
+        assertEquals("Int-2", lazyInitHolder.get());
+        assertEquals("Int-2", lazyInitHolder.get());
+        assertEquals(2, count.get());
+    }
+    
+    @Test
+    public void nullValue_isInitializedOnce() {
+        final AtomicInteger count = new AtomicInteger(0);
+        LazyInitializeHolder<String> lazyInitHolder = lazyInitialize(()->{
+            count.incrementAndGet();
+            return null;
+        });
+        
+        assertNull(lazyInitHolder.get());
+        assertNull(lazyInitHolder.get());
+        assertEquals(1, count.get());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void recursiveInitialization_isReported() {
+        final AtomicReference<LazyInitializeHolder<String>> holderRef = new AtomicReference<>();
+        holderRef.set(lazyInitialize(()->"Recursive-" + holderRef.get().get()));
+        
+        holderRef.get().get();
+    }
+    
+    @Test
+    public void rethrowPolicy_failureIsPermanent() {
+        final AtomicInteger count = new AtomicInteger(0);
+        LazyInitializeHolder<String> lazyInitHolder = lazyInitialize(()->{
+            count.incrementAndGet();
+            throw new IllegalStateException("Always fails.");
+        }, InitializationPolicy.rethrow());
+        
+        try {
+            lazyInitHolder.get();
+            fail("The first attempt should fail.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Always fails.", exception.getMessage());
+        }
+        for (int i = 0; i < 10; i++) {
+            try {
+                lazyInitHolder.get();
+                fail("The failure should be permanent.");
+            } catch (InitializationException exception) {
+                assertEquals("Always fails.", exception.getCause().getMessage());
+            }
+        }
+        
+        assertEquals(1, count.get());
+        assertTrue(lazyInitHolder.lastFailure().isPresent());
+    }
+    
+    @Test
+    public void retryWithBackoff_oneAttemptPerBackoff() throws InterruptedException {
+        final AtomicInteger count = new AtomicInteger(0);
+        LazyInitializeHolder<String> lazyInitHolder = lazyInitialize(()->{
+            if (count.incrementAndGet() < 3) {
+                throw new IllegalStateException("Not yet.");
+            }
+            return "Int-" + count.get();
+        }, InitializationPolicy.retryWithBackoff(200, 200, TimeUnit.MILLISECONDS));
+        
+        for (int i = 0; i < 10; i++) {
+            try {
+                lazyInitHolder.get();
+                fail("Should fail within the backoff.");
+            } catch (RuntimeException exception) {
+            }
+        }
+        assertEquals(1, count.get());
+        
+        Thread.sleep(300);
+        try {
+            lazyInitHolder.get();
+            fail("Should fail again.");
+        } catch (IllegalStateException exception) {
+        }
+        assertEquals(2, count.get());
+        
+        Thread.sleep(300);
+        assertEquals("Int-3", lazyInitHolder.get());
+        assertEquals("Int-3", lazyInitHolder.get());
+        assertEquals(3, count.get());
+        assertFalse(lazyInitHolder.lastFailure().isPresent());
+    }
+    
+    @Test
+    public void failedInitialization_waitersGetTheFailure() throws Exception {
+        final AtomicInteger  count   = new AtomicInteger(0);
+        final CountDownLatch started = new CountDownLatch(1);
+        LazyInitializeHolder<String> lazyInitHolder = lazyInitialize(()->{
+            count.incrementAndGet();
+            started.countDown();
+            sleep(1);
+            throw new IllegalStateException("Slow failure.");
+        });
+        
+        new Thread(()->{
+            try {
+                lazyInitHolder.get();
+            } catch (IllegalStateException exception) {
+            }
+        }).start();
+        started.await();
+        
+        try {
+            lazyInitHolder.get();
+            fail("The waiter should get the failure.");
+        } catch (InitializationException exception) {
+            assertEquals("Slow failure.", exception.getCause().getMessage());
+        }
+        assertEquals(1, count.get());
+    }
+    
+    @Test
+    public void waitTimeout_waiterGivesUp() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        LazyInitializeHolder<String> lazyInitHolder = lazyInitialize(()->{
+            started.countDown();
+            sleep(1);
+            return "Slow";
+        }, InitializationPolicy.retry().withWaitTimeout(100, TimeUnit.MILLISECONDS));
+        
+        new Thread(lazyInitHolder::get).start();
+        started.await();
+        
+        long startTime = System.nanoTime();
+        try {
+            lazyInitHolder.get();
+            fail("The waiter should time out.");
+        } catch (InitializationException exception) {
+            assertNull(exception.getCause());
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) < 900);
+    }
+    
     protected void waitToStartAtTheSameTime(
             final CyclicBarrier gate) {
         try {
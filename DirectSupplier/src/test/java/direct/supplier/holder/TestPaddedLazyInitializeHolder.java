@@ -0,0 +1,22 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestPaddedLazyInitializeHolder {
+    
+    @Test
+    public void testInitializeOnce() {
+        AtomicInteger counter = new AtomicInteger();
+        PaddedLazyInitializeHolder<Integer> holder
+                = PaddedLazyInitializeHolder.paddedLazyInitialize(counter::incrementAndGet);
+        
+        assertEquals(1, holder.get().intValue());
+        assertEquals(1, holder.get().intValue());
+        assertEquals(1, counter.get());
+    }
+    
+}
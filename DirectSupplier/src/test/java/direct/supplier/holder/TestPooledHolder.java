@@ -0,0 +1,238 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TestPooledHolder {
+    
+    @Test
+    public void testReuse() throws InterruptedException {
+        PooledHolder<StringBuilder> pool = PooledHolder.of(StringBuilder::new, 4);
+        
+        StringBuilder first;
+        try (PooledHolder.Lease<StringBuilder> lease = pool.lease()) {
+            first = lease.get();
+        }
+        try (PooledHolder.Lease<StringBuilder> lease = pool.lease()) {
+            assertSame(first, lease.get());
+        }
+        
+        PooledHolder.Stats stats = pool.stats();
+        assertEquals(2,   stats.getBorrowCount());
+        assertEquals(1,   stats.getHitCount());
+        assertEquals(1,   stats.getCreateCount());
+        assertEquals(0.5, stats.getHitRate(), 0.0);
+        assertEquals(1,   pool.instanceCount());
+    }
+    
+    @Test
+    public void testValidateAndReset() throws InterruptedException {
+        PooledHolder<StringBuilder> pool = PooledHolder.of(StringBuilder::new, 4,
+                builder->builder.length() < 10,
+                builder->builder.setLength(0));
+        
+        StringBuilder builder = pool.borrow();
+        builder.append("abc");
+        pool.release(builder);
+        
+        StringBuilder again = pool.borrow();
+        assertSame(builder, again);
+        assertEquals("", again.toString());
+        
+        again.append("Too long to be pooled.");
+        pool.release(again);
+        assertEquals(0, pool.instanceCount());
+        assertEquals(1, pool.stats().getDiscardCount());
+        assertNotSame(again, pool.borrow());
+    }
+    
+    @Test
+    public void testFailedValidation_discardsTheInstance() throws InterruptedException {
+        PooledHolder<StringBuilder> pool = PooledHolder.of(StringBuilder::new, 1,
+                builder->{ throw new IllegalStateException("Invalid"); },
+                null);
+        
+        StringBuilder builder = pool.borrow();
+        try {
+            pool.release(builder);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Invalid", exception.getMessage());
+        }
+        assertEquals(0, pool.instanceCount());
+        assertEquals(1, pool.stats().getDiscardCount());
+        
+        // The capacity is not lost.
+        StringBuilder again = pool.borrow(1, TimeUnit.SECONDS);
+        assertNotNull(again);
+        assertNotSame(builder, again);
+    }
+    
+    @Test
+    public void testLeaseCloseOnce() throws InterruptedException {
+        PooledHolder<StringBuilder> pool = PooledHolder.of(StringBuilder::new, 4);
+        
+        PooledHolder.Lease<StringBuilder> lease = pool.lease();
+        lease.close();
+        lease.close();
+        try {
+            lease.get();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+        }
+        
+        // Only returned once.
+        StringBuilder first  = pool.borrow();
+        StringBuilder second = pool.borrow();
+        assertNotSame(first, second);
+    }
+    
+    @Test
+    public void testMaxInstances() throws InterruptedException {
+        int maxInstances = 2;
+        int threadCount  = 8;
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger inUse   = new AtomicInteger();
+        AtomicInteger maxUse  = new AtomicInteger();
+        PooledHolder<Object> pool = PooledHolder.of(()->{
+            created.incrementAndGet();
+            return new Object();
+        }, maxInstances);
+        
+        CyclicBarrier  gate  = new CyclicBarrier(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(()->{
+                waitToStartAtTheSameTime(gate);
+                try {
+                    for (int j = 0; j < 50; j++) {
+                        try (PooledHolder.Lease<Object> lease = pool.lease()) {
+                            assertNotNull(lease.get());
+                            int using = inUse.incrementAndGet();
+                            maxUse.accumulateAndGet(using, Math::max);
+                            Thread.yield();
+                            inUse.decrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        
+        assertTrue(created.get() <= maxInstances);
+        assertTrue(maxUse.get()  <= maxInstances);
+        assertEquals(threadCount * 50, pool.stats().getBorrowCount());
+    }
+    
+    @Test
+    public void testDoubleRelease() throws InterruptedException {
+        PooledHolder<StringBuilder> pool = PooledHolder.of(StringBuilder::new, 4);
+        
+        StringBuilder builder = pool.borrow();
+        pool.release(builder);
+        try {
+            pool.release(builder);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+        }
+        try {
+            pool.release(new StringBuilder());
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+        }
+        
+        // Only pooled once.
+        StringBuilder first  = pool.borrow();
+        StringBuilder second = pool.borrow();
+        assertSame(builder, first);
+        assertNotSame(first, second);
+    }
+    
+    @Test
+    public void testBorrowTimeout() throws InterruptedException {
+        PooledHolder<Object> pool = PooledHolder.of(Object::new, 1);
+        
+        Object only = pool.borrow();
+        assertNull(pool.borrow(10, TimeUnit.MILLISECONDS));
+        assertNull(pool.lease(0, TimeUnit.MILLISECONDS));
+        assertEquals(1, pool.stats().getWaitCount());
+        
+        pool.release(only);
+        try (PooledHolder.Lease<Object> lease = pool.lease(10, TimeUnit.MILLISECONDS)) {
+            assertSame(only, lease.get());
+        }
+    }
+    
+    @Test
+    public void testBorrowInterrupted() throws Exception {
+        PooledHolder<Object> pool = PooledHolder.of(Object::new, 1);
+        pool.borrow();
+        
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread borrower = new Thread(()->{
+            try {
+                pool.borrow();
+            } catch (Throwable throwable) {
+                thrown.set(throwable);
+            }
+        });
+        borrower.start();
+        borrower.interrupt();
+        borrower.join(10_000);
+        
+        assertFalse(borrower.isAlive());
+        assertTrue(thrown.get() instanceof InterruptedException);
+    }
+    
+    @Test
+    public void testManyInstances() throws InterruptedException {
+        int maxInstances = PooledHolder.MAX_INSTANCES;
+        PooledHolder<Object> pool = PooledHolder.of(Object::new, maxInstances);
+        
+        List<Object> instances = new ArrayList<>();
+        for (int i = 0; i < maxInstances; i++) {
+            instances.add(pool.borrow());
+        }
+        assertNull(pool.borrow(0, TimeUnit.MILLISECONDS));
+        instances.forEach(pool::release);
+        for (int i = 0; i < maxInstances; i++) {
+            pool.borrow();
+        }
+        assertEquals(maxInstances, pool.stats().getCreateCount());
+        assertEquals(maxInstances, pool.stats().getHitCount());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxInstances() {
+        PooledHolder.of(Object::new, 0);
+    }
+    
+    private void waitToStartAtTheSameTime(
+            final CyclicBarrier gate) {
+        try {
+            gate.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
@@ -0,0 +1,57 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TestPrewarmGroup {
+    
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    
+    @After
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+    
+    @Test
+    public void prewarm_runsTheProducersInParallel() throws Exception {
+        PrewarmGroup group = new PrewarmGroup(this.executor);
+        
+        // Each producer only returns once all of them have started -- so they must overlap.
+        CountDownLatch                    started = new CountDownLatch(3);
+        AsyncLazyInitializeHolder<String> first   = group.asyncLazyInitialize(()->overlapping(started, "First"));
+        LazyInitializeHolder<String>      second  = group.lazyInitialize(()->overlapping(started, "Second"));
+        LazyInitializeHolder<String>      third   = LazyInitializeHolder.of(()->overlapping(started, "Third"));
+        group.register(third);
+        assertEquals(3, group.size());
+        
+        group.prewarm().get(30, TimeUnit.SECONDS);
+        
+        assertTrue(first.isInitialized());
+        assertEquals("First",  first.get());
+        assertEquals("Second", second.get());
+        assertEquals("Third",  third.get());
+    }
+    
+    private String overlapping(
+            final CountDownLatch started,
+            final String         value) {
+        started.countDown();
+        try {
+            if (!started.await(20, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("The producers did not run in parallel.");
+            }
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+    
+}
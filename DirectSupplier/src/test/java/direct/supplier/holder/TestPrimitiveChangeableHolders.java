@@ -0,0 +1,105 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.Test;
+
+public class TestPrimitiveChangeableHolders {
+    
+    @Test
+    public void testInt() {
+        IntChangeableHolder holder = IntChangeableHolder.of(1);
+        
+        assertTrue(holder.set(2));
+        assertEquals(2, holder.getAsInt());
+        assertFalse(holder.compareAndSet(1, 3));
+        assertTrue(holder.compareAndSet(2, 3));
+        assertEquals(6, holder.updateAndGet(value->value * 2));
+        assertEquals(7, holder.addAndGet(1));
+    }
+    
+    @Test
+    public void testLongWithKey() {
+        Object key = new Object();
+        LongChangeableHolder holder = LongChangeableHolder.of(key, 1L);
+        
+        assertFalse(holder.set(2L));
+        assertFalse(holder.set(new Object(), 2L));
+        assertTrue(holder.set(key, 2L));
+        assertFalse(holder.compareAndSet(2L, 3L));
+        assertTrue(holder.compareAndSet(key, 2L, 3L));
+        assertEquals(4L, holder.updateAndGet(key, value->value + 1));
+        assertEquals(5L, holder.addAndGet(key, 1L));
+        try {
+            holder.updateAndGet(value->value + 1);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("A key was assigned.", exception.getMessage());
+        }
+        try {
+            holder.addAndGet(new Object(), 1L);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("The key does not match.", exception.getMessage());
+        }
+        assertEquals(5L, holder.getAsLong());
+    }
+    
+    @Test
+    public void testDouble() {
+        DoubleChangeableHolder holder = DoubleChangeableHolder.of(1.5);
+        
+        assertTrue(holder.compareAndSet(1.5, Double.NaN));
+        assertTrue(holder.compareAndSet(Double.NaN, 0.0));
+        assertFalse(holder.compareAndSet(-0.0, 1.0));
+        assertEquals(0.5, holder.updateAndGet(value->value + 0.5), 0.0);
+    }
+    
+    @Test
+    public void testBoolean() {
+        BooleanChangeableHolder holder = BooleanChangeableHolder.of(false);
+        
+        assertTrue(holder.toggleAndGet());
+        assertTrue(holder.getAsBoolean());
+        assertTrue(holder.compareAndSet(true, false));
+        assertTrue(holder.updateAndGet(value->!value));
+    }
+    
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        IntChangeableHolder holder = IntChangeableHolder.of(0);
+        
+        int threadCount = 8;
+        int updateCount = 10000;
+        CyclicBarrier  gate  = new CyclicBarrier(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(()->{
+                waitToStartAtTheSameTime(gate);
+                for (int j = 0; j < updateCount; j++) {
+                    holder.updateAndGet(value->value + 1);
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        
+        assertEquals(threadCount * updateCount, holder.getAsInt());
+    }
+    
+    private void waitToStartAtTheSameTime(
+            final CyclicBarrier gate) {
+        try {
+            gate.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
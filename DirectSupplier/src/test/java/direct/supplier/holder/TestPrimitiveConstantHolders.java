@@ -0,0 +1,18 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestPrimitiveConstantHolders {
+    
+    @Test
+    public void testGet() {
+        assertEquals(42,   IntConstantHolder.of(42).getAsInt());
+        assertEquals(42L,  LongConstantHolder.of(42L).getAsLong());
+        assertEquals(4.2,  DoubleConstantHolder.of(4.2).getAsDouble(), 0.0);
+        assertTrue(BooleanConstantHolder.of(true).getAsBoolean());
+    }
+    
+}
@@ -0,0 +1,99 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TestPrimitiveLazyInitializeHolders {
+    
+    @Test
+    public void testInitializeOnce() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        IntLazyInitializeHolder holder = IntLazyInitializeHolder.of(()->{
+            sleep(10);
+            return counter.incrementAndGet();
+        });
+        assertFalse(holder.isInitialized());
+        
+        int threadCount = 10;
+        CyclicBarrier  gate  = new CyclicBarrier(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(()->{
+                waitToStartAtTheSameTime(gate);
+                assertEquals(1, holder.getAsInt());
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        
+        assertTrue(holder.isInitialized());
+        assertEquals(1, counter.get());
+    }
+    
+    @Test
+    public void testRetryAfterFailure() {
+        AtomicInteger counter = new AtomicInteger();
+        LongLazyInitializeHolder holder = LongLazyInitializeHolder.of(()->{
+            if (counter.incrementAndGet() == 1) {
+                throw new IllegalStateException("First");
+            }
+            return 42L;
+        });
+        try {
+            holder.getAsLong();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("First", exception.getMessage());
+        }
+        assertFalse(holder.isInitialized());
+        assertEquals(42L, holder.getAsLong());
+        assertEquals(42L, holder.getAsLong());
+        assertEquals(2, counter.get());
+    }
+    
+    @Test
+    public void testRecursive() {
+        AtomicReference<DoubleLazyInitializeHolder> holder = new AtomicReference<>();
+        holder.set(DoubleLazyInitializeHolder.of(()->holder.get().getAsDouble() + 1));
+        try {
+            holder.get().getAsDouble();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Recursive initialization: the producer requires its own value.", exception.getMessage());
+        }
+    }
+    
+    @Test
+    public void testBoolean() {
+        BooleanLazyInitializeHolder holder = BooleanLazyInitializeHolder.of(()->true);
+        assertTrue(holder.getAsBoolean());
+    }
+    
+    private void waitToStartAtTheSameTime(
+            final CyclicBarrier gate) {
+        try {
+            gate.await();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+    
+    private void sleep(
+            final int milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
@@ -0,0 +1,165 @@
+package direct.supplier.holder;
+
+import static direct.supplier.holder.RefreshingHolder.refreshing;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class TestRefreshingHolder {
+    
+    @Test
+    public void value_isReloadedBeforeExpiry() throws Exception {
+        final AtomicInteger   count     = new AtomicInteger(0);
+        final ManualScheduler scheduler = new ManualScheduler();
+        try (RefreshingHolder<String> holder = new RefreshingHolder<>(()->"V-" + count.incrementAndGet(),
+                    600, 200, TimeUnit.MILLISECONDS, scheduler, Runnable::run)) {
+            assertEquals("V-1", holder.get());
+            assertEquals("V-1", holder.get());
+            
+            // Reload is scheduled at 400ms, before the value expires at 600ms.
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(400), scheduler.lastDelayNanos);
+            assertEquals(1, count.get());
+            
+            scheduler.runLast();
+            assertEquals("V-2", holder.get());
+            assertFalse(holder.isExpired());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(400), scheduler.lastDelayNanos);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void staleValue_isServedWhileReloading() throws Exception {
+        final AtomicInteger  count   = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        try (RefreshingHolder<String> holder = refreshing(()->{
+                if (count.incrementAndGet() > 1) {
+                    await(release);
+                }
+                return "V-" + count.get();
+            }, 1, 0, TimeUnit.HOURS)) {
+            assertEquals("V-1", holder.get());
+            
+            CompletableFuture<String> reload = holder.refresh();
+            assertEquals("V-1", holder.get());
+            
+            release.countDown();
+            assertEquals("V-2", reload.get(5, TimeUnit.SECONDS));
+            assertEquals("V-2", holder.get());
+        }
+    }
+    
+    @Test
+    public void concurrentRefreshes_areCollapsed() throws Exception {
+        final AtomicInteger  count   = new AtomicInteger(0);
+        final CountDownLatch release = new CountDownLatch(1);
+        try (RefreshingHolder<String> holder = refreshing(()->{
+                if (count.incrementAndGet() > 1) {
+                    await(release);
+                }
+                return "V-" + count.get();
+            }, 1, 0, TimeUnit.HOURS)) {
+            assertEquals("V-1", holder.get());
+            
+            CompletableFuture<String> first  = holder.refresh();
+            CompletableFuture<String> second = holder.refresh();
+            CompletableFuture<String> third  = holder.refresh();
+            
+            release.countDown();
+            assertEquals("V-2", first.get(5, TimeUnit.SECONDS));
+            assertEquals("V-2", second.get(5, TimeUnit.SECONDS));
+            assertEquals("V-2", third.get(5, TimeUnit.SECONDS));
+            assertEquals(2, count.get());
+        }
+    }
+    
+    @Test
+    public void failedReload_keepsTheValue() throws Exception {
+        final AtomicInteger count = new AtomicInteger(0);
+        final RuntimeException failure = new IllegalStateException("Reload fails.");
+        try (RefreshingHolder<String> holder = refreshing(()->{
+                if (count.incrementAndGet() > 1) {
+                    throw failure;
+                }
+                return "V-" + count.get();
+            }, 1, 0, TimeUnit.HOURS)) {
+            assertEquals("V-1", holder.get());
+            
+            CompletableFuture<String> reload = holder.refresh();
+            try {
+                reload.get(5, TimeUnit.SECONDS);
+            } catch (Exception exception) {
+            }
+            assertTrue(reload.isCompletedExceptionally());
+            assertEquals("V-1", holder.get());
+            assertSame(failure, holder.lastFailure().get());
+        }
+    }
+    
+    /** Scheduler that records the scheduled tasks and only runs them when asked. **/
+    private static class ManualScheduler extends ScheduledThreadPoolExecutor {
+        
+        volatile Runnable lastCommand;
+        volatile long     lastDelayNanos;
+        
+        ManualScheduler() {
+            super(1);
+            setRemoveOnCancelPolicy(true);
+        }
+        
+        @Override
+        public ScheduledFuture<?> schedule(
+                final Runnable command,
+                final long     delay,
+                final TimeUnit unit) {
+            this.lastCommand    = command;
+            this.lastDelayNanos = unit.toNanos(delay);
+            return super.schedule(command, 1, TimeUnit.DAYS);
+        }
+        
+        @Override
+        public <T> ScheduledFuture<T> schedule(
+                final Callable<T> callable,
+                final long        delay,
+                final TimeUnit    unit) {
+            this.lastCommand    = ()->call(callable);
+            this.lastDelayNanos = unit.toNanos(delay);
+            return super.schedule(callable, 1, TimeUnit.DAYS);
+        }
+        
+        private static void call(
+                final Callable<?> callable) {
+            try {
+                callable.call();
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+        
+        void runLast() {
+            this.lastCommand.run();
+        }
+    }
+    
+    private void await(
+            final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+    
+}
@@ -0,0 +1,220 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TestRequestScopedHolder {
+    
+    static class Resource implements AutoCloseable {
+        final String       name;
+        final List<String> log;
+        Resource(String name, List<String> log) {
+            this.name = name;
+            this.log  = log;
+        }
+        @Override
+        public void close() {
+            log.add("close " + name);
+        }
+    }
+    
+    @SuppressWarnings("try")
+    @Test
+    public void testValuePerScope() {
+        RequestScopedHolder<Object> holder = RequestScopedHolder.of(Object::new);
+        
+        Object first;
+        try (RequestScope scope = RequestScope.open()) {
+            first = holder.get();
+            assertSame(first, holder.get());
+            assertSame(first, holder.get(scope));
+            assertSame(first, scope.get(holder));
+            assertSame(scope, RequestScope.current());
+        }
+        assertNull(RequestScope.current());
+        try (RequestScope scope = RequestScope.open()) {
+            assertNotSame(first, holder.get());
+        }
+    }
+    
+    @Test
+    public void testLazyAndBulkRelease() {
+        List<String> log = new ArrayList<>();
+        RequestScopedHolder<Resource> first  = RequestScopedHolder.of(()->new Resource("first",  log));
+        RequestScopedHolder<Resource> second = RequestScopedHolder.of(()->new Resource("second", log));
+        RequestScopedHolder<Resource> unused = RequestScopedHolder.of(()->new Resource("unused", log));
+        RequestScopedHolder<String>   plain  = RequestScopedHolder.of(()->"plain", value->log.add("dispose " + value));
+        
+        try (RequestScope scope = RequestScope.open()) {
+            first.get();
+            plain.get();
+            second.get();
+            assertEquals(3, scope.size());
+            assertTrue(scope.contains(first));
+            assertFalse(scope.contains(unused));
+        }
+        assertEquals("[close second, dispose plain, close first]", log.toString());
+    }
+    
+    @SuppressWarnings("try")
+    @Test
+    public void testMixedValueClasses_closesTheCloseables() {
+        List<String>  log     = new ArrayList<>();
+        AtomicInteger counter = new AtomicInteger();
+        RequestScopedHolder<Object> holder = RequestScopedHolder.of(()->{
+            int count = counter.incrementAndGet();
+            return (count % 2 == 0) ? new Resource("r" + count, log) : "s" + count;
+        });
+        for (int i = 0; i < 4; i++) {
+            try (RequestScope scope = RequestScope.open()) {
+                holder.get();
+            }
+        }
+        assertEquals("[close r2, close r4]", log.toString());
+    }
+    
+    @Test
+    public void testNullValue() {
+        RequestScopedHolder<Object> holder = RequestScopedHolder.of(()->null);
+        try (RequestScope scope = RequestScope.open()) {
+            assertNull(holder.get());
+            assertTrue(scope.contains(holder));
+        }
+    }
+    
+    @SuppressWarnings("try")
+    @Test
+    public void testNestedScope() {
+        RequestScopedHolder<Object> holder = RequestScopedHolder.of(Object::new);
+        try (RequestScope outer = RequestScope.open()) {
+            Object outerValue = holder.get();
+            try (RequestScope inner = RequestScope.open()) {
+                assertNotSame(outerValue, holder.get());
+            }
+            assertSame(outer, RequestScope.current());
+            assertSame(outerValue, holder.get());
+        }
+    }
+    
+    @Test
+    public void testNoScope() {
+        try {
+            RequestScopedHolder.of(Object::new).get();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("No request scope.", exception.getMessage());
+        }
+    }
+    
+    @Test
+    public void testClosedScope() {
+        RequestScopedHolder<Object> holder = RequestScopedHolder.of(Object::new);
+        RequestScope scope = RequestScope.open();
+        scope.close();
+        scope.close();
+        try {
+            holder.get(scope);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("The request scope is closed.", exception.getMessage());
+        }
+    }
+    
+    @Test
+    public void testUnbalancedClose_closesTheLeakedScopes() {
+        List<String> log = new ArrayList<>();
+        RequestScopedHolder<Resource> holder = RequestScopedHolder.of(()->new Resource("r" + log.size(), log));
+        
+        RequestScope outer = RequestScope.open();
+        holder.get();
+        log.add("open inner");
+        RequestScope inner = RequestScope.open();
+        holder.get();
+        try {
+            outer.close();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("The request scope must be closed as the current scope of its thread.", exception.getMessage());
+        }
+        assertEquals("[open inner, close r1, close r0]", log.toString());
+        assertNull(RequestScope.current());
+        
+        inner.close();
+        outer.close();
+        assertNull(RequestScope.current());
+    }
+    
+    @Test
+    public void testReleaseError_releasesTheRest() {
+        List<String> log = new ArrayList<>();
+        RequestScopedHolder<Resource> good = RequestScopedHolder.of(()->new Resource("good", log));
+        RequestScopedHolder<String>   bad  = RequestScopedHolder.of(()->"bad", value->{ throw new AssertionError(value); });
+        
+        RequestScope scope = RequestScope.open();
+        good.get();
+        bad.get();
+        try {
+            scope.close();
+            fail("Expect an exception.");
+        } catch (AssertionError error) {
+            assertEquals("bad", error.getMessage());
+        }
+        assertEquals("[close good]", log.toString());
+        assertNull(RequestScope.current());
+    }
+    
+    @Test
+    public void testCloseByOtherThread() throws InterruptedException {
+        RequestScope scope = RequestScope.open();
+        try {
+            AtomicReference<Exception> problem = new AtomicReference<>();
+            Thread thread = new Thread(()->{
+                try {
+                    scope.close();
+                } catch (Exception exception) {
+                    problem.set(exception);
+                }
+            });
+            thread.start();
+            thread.join();
+            assertTrue(problem.get() instanceof IllegalStateException);
+        } finally {
+            scope.close();
+        }
+    }
+    
+    @Test
+    public void testReleaseFailure_releasesTheRest() {
+        List<String> log = new ArrayList<>();
+        RequestScopedHolder<Resource> good = RequestScopedHolder.of(()->new Resource("good", log));
+        RequestScopedHolder<String>   bad1 = RequestScopedHolder.of(()->"bad1", value->{ throw new IllegalStateException(value); });
+        RequestScopedHolder<String>   bad2 = RequestScopedHolder.of(()->"bad2", value->{ throw new IllegalStateException(value); });
+        
+        RequestScope scope = RequestScope.open();
+        good.get();
+        bad1.get();
+        bad2.get();
+        try {
+            scope.close();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("bad2", exception.getMessage());
+            assertEquals("bad1", exception.getSuppressed()[0].getMessage());
+        }
+        assertEquals("[close good]", log.toString());
+        assertNull(RequestScope.current());
+    }
+    
+}
@@ -0,0 +1,121 @@
+package direct.supplier.holder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TestScopedHolder {
+    
+    @Test
+    public void testUnbound() {
+        ScopedHolder<String> holder = ScopedHolder.of(()->"new");
+        
+        assertFalse(holder.isBound());
+        assertNull(holder.get());
+    }
+    
+    @Test
+    public void testBindingIsUndoneAfterTheCall() throws Exception {
+        ScopedHolder<String> holder = ScopedHolder.of(()->"new");
+        
+        holder.where("one").run(()->{
+            assertTrue(holder.isBound());
+            assertEquals("one", holder.get());
+        });
+        assertEquals("two", holder.where("two").call(()->holder.get()));
+        assertFalse(holder.isBound());
+        
+        try {
+            holder.where("three").run(()->{
+                throw new IllegalStateException();
+            });
+        } catch (IllegalStateException exception) {
+        }
+        assertFalse(holder.isBound());
+    }
+    
+    @Test
+    public void testNested() {
+        ScopedHolder<Integer> depth = ScopedHolder.of((Integer previous)->(previous == null) ? 0 : previous + 1);
+        
+        StringBuffer buffer = new StringBuffer();
+        depth.runNew(()->{
+            buffer.append(depth.get());
+            depth.runNew(()->{
+                buffer.append(depth.get());
+                depth.runNew(()->buffer.append(depth.get()));
+                buffer.append(depth.get());
+            });
+            buffer.append(depth.get());
+        });
+        assertEquals("01210", buffer.toString());
+    }
+    
+    @Test
+    public void testMultipleHolders() {
+        ScopedHolder<String>  name  = ScopedHolder.of(()->"name");
+        ScopedHolder<Integer> count = ScopedHolder.of(()->0);
+        
+        String result = name.where("one").where(count, 1).where(name, "two").get(()->name.get() + ":" + count.get());
+        assertEquals("two:1", result);
+        assertNull(name.get());
+        assertNull(count.get());
+    }
+    
+    @Test
+    public void testChildThreadDoesNotInherit() throws Exception {
+        ScopedHolder<String> holder = ScopedHolder.of(()->"new");
+        
+        AtomicReference<String> inChild    = new AtomicReference<>("unset");
+        AtomicReference<String> inSnapshot = new AtomicReference<>();
+        holder.where("parent").call(()->{
+            Thread child = new Thread(()->inChild.set(holder.get()));
+            child.start();
+            child.join();
+            
+            Thread passed = new Thread(ScopedHolder.capture().wrapRunnable(()->inSnapshot.set(holder.get())));
+            passed.start();
+            passed.join();
+            return null;
+        });
+        assertNull(inChild.get());
+        assertEquals("parent", inSnapshot.get());
+    }
+    
+    @Test
+    public void testSnapshot() throws Exception {
+        ScopedHolder<String> holder = ScopedHolder.of(()->"new");
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Runnable task = holder.where("captured").get(()->ScopedHolder.capture().wrapRunnable(()->{
+                assertEquals("captured", holder.get());
+            }));
+            executor.submit(task).get();
+            assertNull(executor.submit(()->holder.get()).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    @Test
+    public void testSnapshotWrapsLambdas() throws Exception {
+        ScopedHolder<String> holder = ScopedHolder.of(()->"new");
+        
+        ScopedHolder.Snapshot snapshot = holder.where("captured").get(()->ScopedHolder.capture());
+        assertEquals("captured", snapshot.wrapCallable(()->holder.get()).call());
+        
+        StringBuffer buffer = new StringBuffer();
+        snapshot.wrapRunnable(()->buffer.append(holder.get())).run();
+        assertEquals("captured", buffer.toString());
+        assertNull(holder.get());
+    }
+    
+}
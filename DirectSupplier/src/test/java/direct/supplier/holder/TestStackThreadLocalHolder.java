@@ -3,8 +3,14 @@ package direct.supplier.holder;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.junit.Assert.assertThat;
 
+import java.util.EmptyStackException;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
@@ -12,6 +18,7 @@ import java.util.concurrent.CyclicBarrier;
 import org.junit.Test;
 
 import direct.supplier.holder.StackThreadLocalHolder;
+import direct.supplier.holder.StackThreadLocalHolder.Scope;
 
 public class TestStackThreadLocalHolder {
     
@@ -104,6 +111,128 @@ public class TestStackThreadLocalHolder {
         assertThat(supplier.getSupplier(), not(instanceOf(StackThreadLocalHolder.class)));
     }
     
+    @Test
+    public void testDeepNesting() {
+        StackThreadLocalHolder<Integer> supplier = StackThreadLocalHolder.of((Integer previous)->(previous == null) ? 0 : previous + 1);
+        
+        assertNull(supplier.get());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, supplier.pushNew().intValue());
+        }
+        assertEquals(100, supplier.size());
+        for (int i = 99; i >= 0; i--) {
+            assertEquals(i, supplier.get().intValue());
+            assertEquals(i, supplier.pop().intValue());
+        }
+        assertTrue(supplier.isEmpty());
+        assertNull(supplier.get());
+    }
+    
+    @Test
+    public void testPushGivenResource() {
+        StackThreadLocalHolder<String> supplier = StackThreadLocalHolder.of(()->"new");
+        
+        String resource = new String("given");
+        assertSame(resource, supplier.push(resource));
+        assertSame(resource, supplier.peek());
+        assertEquals("new", supplier.pushNew());
+        assertEquals("new", supplier.pop());
+        assertSame(resource, supplier.pop());
+    }
+    
+    @Test(expected = EmptyStackException.class)
+    public void testPopEmpty() {
+        StackThreadLocalHolder.of(()->"new").pop();
+    }
+    
+    @Test(expected = EmptyStackException.class)
+    public void testPeekEmpty() {
+        StackThreadLocalHolder.of(()->"new").peek();
+    }
+    
+    @Test
+    public void testScope() {
+        StackThreadLocalHolder<Integer> supplier = StackThreadLocalHolder.of((Integer previous)->(previous == null) ? 0 : previous + 1);
+        
+        try (Scope outer = supplier.pushNewScope()) {
+            assertEquals(1, outer.depth());
+            assertEquals(0, supplier.get().intValue());
+            try (Scope inner = supplier.pushScope(42)) {
+                assertEquals(2, inner.depth());
+                assertEquals(42, supplier.get().intValue());
+            }
+            assertEquals(0, supplier.get().intValue());
+        }
+        assertTrue(supplier.isEmpty());
+    }
+    
+    @Test
+    public void testScopeIsReused() {
+        StackThreadLocalHolder<String> supplier = StackThreadLocalHolder.of(()->"new");
+        
+        Scope first = supplier.pushNewScope();
+        first.close();
+        Scope second = supplier.pushNewScope();
+        second.close();
+        assertSame(first, second);
+    }
+    
+    @Test
+    public void testUnbalancedScope() {
+        StackThreadLocalHolder<String> supplier = StackThreadLocalHolder.of(()->"new");
+        
+        supplier.push("outer");
+        Scope scope = supplier.pushNewScope();
+        supplier.pushNew();
+        supplier.pushNew();
+        try {
+            scope.close();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Unbalanced scope: expected depth 2 but was 4.", exception.getMessage());
+        }
+        // The leaked frames are popped with the frame of the scope.
+        assertEquals(1, supplier.size());
+        assertEquals("outer", supplier.get());
+        
+        try {
+            scope.close();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Unbalanced scope: expected depth 2 but was 1.", exception.getMessage());
+        }
+        assertEquals(1, supplier.size());
+        supplier.pop();
+        
+        scope = supplier.pushNewScope();
+        scope.close();
+        try {
+            scope.close();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("Unbalanced scope: expected depth 1 but was 0.", exception.getMessage());
+        }
+    }
+    
+    @Test
+    public void testUnwindTo() {
+        StackThreadLocalHolder<String> supplier = StackThreadLocalHolder.of(()->"new");
+        
+        supplier.pushNew();
+        int depth = supplier.size();
+        supplier.pushNew();
+        supplier.pushNew();
+        supplier.unwindTo(depth);
+        assertEquals(1, supplier.size());
+        assertFalse(supplier.isEmpty());
+        
+        try {
+            supplier.unwindTo(2);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+        }
+    }
+    
     private void waitToStartAtTheSameTime(
             final CyclicBarrier gate) {
         try {
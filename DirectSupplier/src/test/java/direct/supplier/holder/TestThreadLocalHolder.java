@@ -1,11 +1,20 @@
 package direct.supplier.holder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -69,6 +78,126 @@ public class TestThreadLocalHolder {
         );
     }
     
+    @Test
+    public void testClear() {
+        List<StringBuilder> disposed = new ArrayList<>();
+        ThreadLocalHolder<StringBuilder> holder = ThreadLocalHolder.of(StringBuilder::new, disposed::add);
+        
+        StringBuilder first = holder.get();
+        assertSame(first, holder.get());
+        
+        holder.clear();
+        assertEquals(1, disposed.size());
+        assertSame(first, disposed.get(0));
+        assertNotSame(first, holder.get());
+        
+        // Clearing nothing.
+        holder.clear();
+        holder.clear();
+        assertEquals(2, disposed.size());
+    }
+    
+    @Test
+    public void testClearAll() throws InterruptedException {
+        AtomicInteger disposed = new AtomicInteger();
+        ThreadLocalHolder<int[]> holder = new ThreadLocalHolder<>(()->new int[256], value->disposed.incrementAndGet(), value->value.length * 4L);
+        
+        int[] mine = holder.get();
+        CountDownLatch created = new CountDownLatch(3);
+        CountDownLatch done    = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            new Thread(()->{
+                holder.get();
+                created.countDown();
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                }
+            }).start();
+        }
+        created.await();
+        
+        ThreadLocalHolder.Diagnostics diagnostics = holder.diagnose();
+        assertEquals(4,        diagnostics.getLiveCount());
+        assertEquals(4 * 1024, diagnostics.getByteCount());
+        
+        holder.clearAll();
+        done.countDown();
+        assertEquals(4, disposed.get());
+        assertEquals(0, holder.diagnose().getLiveCount());
+        assertNotSame(mine, holder.get());
+        assertEquals(1, holder.diagnose().getLiveCount());
+    }
+    
+    /** A value loaded by the application class loader. */
+    static class AppValue {
+    }
+    
+    @Test
+    public void testClearAll_leavesNoApplicationClassOnThePooledThread() throws Exception {
+        ThreadLocalHolder<AppValue> holder = ThreadLocalHolder.of(AppValue::new);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(()->holder.get()).get();
+            holder.clearAll();
+            
+            Object entry = pool.submit(holder::threadLocalEntry).get();
+            assertNotNull(entry);
+            assertNull(entry.getClass().getClassLoader());
+            assertNull(((AtomicReference<?>)entry).get().getClass().getClassLoader());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testDisposeOfDeadThreads() throws InterruptedException {
+        AtomicInteger disposed = new AtomicInteger();
+        ThreadLocalHolder<Object> holder = ThreadLocalHolder.of(Object::new, value->disposed.incrementAndGet());
+        
+        Thread thread = new Thread(()->holder.get());
+        thread.start();
+        thread.join();
+        thread = null;
+        
+        for (int i = 0; (i < 50) && (disposed.get() == 0); i++) {
+            System.gc();
+            sleep(20);
+            holder.expungeDeadThreads();
+        }
+        assertEquals(1, disposed.get());
+        assertEquals(0, holder.diagnose().getLiveCount());
+    }
+    
+    @Test
+    public void testClosing() {
+        AtomicInteger closed = new AtomicInteger();
+        ThreadLocalHolder<AutoCloseable> holder = ThreadLocalHolder.closing(()->()->closed.incrementAndGet());
+        
+        holder.get();
+        holder.clear();
+        assertEquals(1, closed.get());
+    }
+    
+    @Test
+    public void testRegistry() {
+        AtomicInteger disposed = new AtomicInteger();
+        ThreadLocalHolder<Object> holder = ThreadLocalHolder.of(Object::new, value->disposed.incrementAndGet());
+        assertTrue(ThreadLocalRegistry.global().holders().contains(holder));
+        
+        ThreadLocalRegistry registry = new ThreadLocalRegistry();
+        registry.register(holder);
+        holder.get();
+        assertEquals(1, registry.diagnose().getLiveCount());
+        assertEquals(-1, registry.diagnose().getByteCount());
+        
+        registry.clearAll();
+        assertEquals(1, disposed.get());
+        
+        registry.unregister(holder);
+        assertTrue(registry.holders().isEmpty());
+    }
+    
     private void waitToStartAtTheSameTime(
             final CyclicBarrier gate) {
         try {
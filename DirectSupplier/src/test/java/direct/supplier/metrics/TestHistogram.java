@@ -0,0 +1,77 @@
+package direct.supplier.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestHistogram {
+    
+    @Test
+    public void empty() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0,   histogram.getCount());
+        assertEquals(0,   histogram.getMax());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0,   histogram.getValueAtPercentile(99.0));
+    }
+    
+    @Test
+    public void smallValues_exact() {
+        final Histogram histogram = new Histogram();
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        assertEquals(10,  histogram.getCount());
+        assertEquals(10,  histogram.getMax());
+        assertEquals(5.5, histogram.getMean(), 0.0);
+        assertEquals(5,   histogram.getValueAtPercentile(50.0));
+        assertEquals(10,  histogram.getValueAtPercentile(100.0));
+        assertEquals(1,   histogram.getValueAtPercentile(0.0));
+    }
+    
+    @Test
+    public void largeValues_withinPrecision() {
+        final Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(1_000_000_000L, histogram.getMax());
+        assertWithin(500_000_000L, histogram.getValueAtPercentile(50.0));
+        assertWithin(990_000_000L, histogram.getValueAtPercentile(99.0));
+        assertEquals(1_000_000_000L, histogram.getValueAtPercentile(100.0));
+    }
+    
+    @Test
+    public void buckets_coverAllValues() {
+        final Histogram histogram = new Histogram(3);
+        int previous = -1;
+        for (long value : new long[] { 0, 1, 7, 8, 9, 15, 16, 17, 1L << 40, Long.MAX_VALUE }) {
+            final int index = histogram.indexOf(value);
+            assertTrue(index >= previous);
+            assertTrue(histogram.lowestValueAt(index)  <= value);
+            assertTrue(histogram.highestValueAt(index) >= value);
+            previous = index;
+        }
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1);
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(0,              histogram.getValueAtPercentile(50.0));
+    }
+    
+    @Test
+    public void invalidPrecision() {
+        try {
+            new Histogram(0);
+            fail("Expect an exception.");
+        } catch (IllegalArgumentException exception) {
+        }
+    }
+    
+    private static void assertWithin(
+            final long expected,
+            final long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected / 16);
+    }
+    
+}
@@ -0,0 +1,291 @@
+package direct.supplier.metrics;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import direct.supplier.holder.ChangeableHolder;
+import direct.supplier.holder.LazyInitializeHolder;
+import direct.supplier.holder.ThreadLocalHolder;
+import direct.supplier.holder.UpdateMode;
+
+public class TestHolderMetrics {
+    
+    /** The metrics are only enabled in the metrics-test execution of surefire. */
+    @Before
+    public void enabledForTheTests() {
+        assumeTrue(HolderMetrics.IS_ENABLED);
+        assumeFalse(HolderMetrics.IS_ENABLED_FOR_ALL);
+    }
+    
+    @Test
+    public void notEnabled_noMetrics() {
+        final LazyInitializeHolder<String> holder = LazyInitializeHolder.of(()->"Value");
+        holder.get();
+        assertFalse(holder.metrics().isPresent());
+    }
+    
+    @Test
+    public void lazyInitializeHolder() {
+        final LazyInitializeHolder<String> holder  = LazyInitializeHolder.of(()->"Value");
+        final HolderMetrics                metrics = holder.enableMetrics("TestHolderMetrics.lazy").get();
+        assertSame(metrics, holder.metrics().get());
+        
+        holder.get();
+        holder.get();
+        holder.get();
+        
+        assertEquals("LazyInitializeHolder", metrics.getType());
+        assertEquals(3,  metrics.getReadCount());
+        assertEquals(1,  metrics.getInitializationCount());
+        assertEquals(-1, metrics.getInstanceCount());
+        assertTrue(metrics.getInitializationNanosMax() > 0);
+        assertSame(metrics, MetricsRegistry.global().get("TestHolderMetrics.lazy"));
+    }
+    
+    @Test
+    public void threadLocalHolder_instanceCount() throws InterruptedException {
+        final ThreadLocalHolder<Object> holder  = ThreadLocalHolder.of(Object::new);
+        final HolderMetrics             metrics = holder.enableMetrics("TestHolderMetrics.threadLocal").get();
+        
+        holder.get();
+        final Thread thread = new Thread(holder::get);
+        thread.start();
+        thread.join();
+        holder.get();
+        
+        assertEquals(3, metrics.getReadCount());
+        assertEquals(2, metrics.getInitializationCount());
+        assertEquals(2, metrics.getInstanceCount());
+        
+        holder.clearAll();
+        assertEquals(0, metrics.getInstanceCount());
+    }
+    
+    @Test
+    public void changeableHolder_lockFreeContention() throws InterruptedException {
+        final ChangeableHolder<Integer> holder  = ChangeableHolder.of(ChangeableHolder.NOKEY, 0, UpdateMode.LOCK_FREE);
+        final HolderMetrics             metrics = holder.enableMetrics("TestHolderMetrics.lockFree").get();
+        
+        // The first update waits for the second to change the value -- so its CAS fails once.
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final Thread thread = new Thread(()->{
+            waitToStartAtTheSameTime(barrier);
+            holder.set(100);
+            waitToStartAtTheSameTime(barrier);
+        });
+        thread.start();
+        final boolean[] isFirst = { true };
+        holder.checkAndUpdate(value->true, value->{
+            if (isFirst[0]) {
+                isFirst[0] = false;
+                waitToStartAtTheSameTime(barrier);
+                waitToStartAtTheSameTime(barrier);
+            }
+            return value + 1;
+        });
+        thread.join();
+        
+        assertEquals(Integer.valueOf(101), holder.get());
+        assertEquals(1, metrics.getContentionCount());
+        assertEquals(1, metrics.getReadCount());
+    }
+    
+    @Test
+    public void changeableHolder_monitorContention() throws InterruptedException {
+        final ChangeableHolder<Integer> holder  = ChangeableHolder.of(ChangeableHolder.NOKEY, 0, UpdateMode.SYNCHRONIZED);
+        final HolderMetrics             metrics = holder.enableMetrics("TestHolderMetrics.synchronized").get();
+        
+        holder.set(1);
+        assertEquals(0, metrics.getContentionCount());
+        
+        // The second update enters while the first is updating.
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final Thread thread = new Thread(()->{
+            waitToStartAtTheSameTime(barrier);
+            holder.set(100);
+        });
+        thread.start();
+        holder.checkAndUpdate(value->true, value->{
+            waitToStartAtTheSameTime(barrier);
+            sleep(100);
+            return value + 1;
+        });
+        thread.join();
+        
+        assertEquals(Integer.valueOf(100), holder.get());
+        assertEquals(1, metrics.getContentionCount());
+    }
+    
+    @Test
+    public void registry_duplicateName() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.create("holder", "Test");
+        try {
+            registry.create("holder", "Test");
+            fail("Expect an exception.");
+        } catch (IllegalArgumentException exception) {
+            assertEquals("Duplicate metrics: holder", exception.getMessage());
+        }
+        assertNotNull(registry.unregister("holder"));
+        registry.create("holder", "Test");
+    }
+    
+    @Test
+    public void registry_exportTo() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final HolderMetrics   first    = registry.create("first",  "Test");
+        final HolderMetrics   second   = registry.create("second", "Test");
+        
+        final List<HolderMetrics> exported = new ArrayList<>();
+        registry.exportTo(exported::addAll);
+        assertEquals(2, exported.size());
+        assertSame(first,  exported.get(0));
+        assertSame(second, exported.get(1));
+    }
+    
+    @Test
+    public void jmx() throws Exception {
+        final LazyInitializeHolder<String> holder  = LazyInitializeHolder.of(()->"Value");
+        final HolderMetrics                metrics = holder.enableMetrics("TestHolderMetrics.jmx").get();
+        holder.get();
+        
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName  name   = JmxMetricsExporter.objectName(metrics);
+        assertTrue(server.isRegistered(name));
+        assertEquals(1L,                     server.getAttribute(name, "ReadCount"));
+        assertEquals(1L,                     server.getAttribute(name, "InitializationCount"));
+        assertEquals("LazyInitializeHolder", server.getAttribute(name, "Type"));
+    }
+    
+    @Test
+    public void jmxExporter_unregisterAll() throws Exception {
+        final MBeanServer        server   = ManagementFactory.getPlatformMBeanServer();
+        final JmxMetricsExporter exporter = new JmxMetricsExporter(server);
+        final MetricsRegistry    registry = new MetricsRegistry(exporter);
+        final HolderMetrics      metrics  = registry.create("TestHolderMetrics.exporter", "Test");
+        
+        final ObjectName name = JmxMetricsExporter.objectName(metrics);
+        assertTrue(server.isRegistered(name));
+        exporter.unregisterAll();
+        assertFalse(server.isRegistered(name));
+    }
+    
+    @Test
+    public void disableMetrics_unregistersTheMXBean() throws Exception {
+        final LazyInitializeHolder<String> holder  = LazyInitializeHolder.of(()->"Value");
+        final HolderMetrics                metrics = holder.enableMetrics("TestHolderMetrics.disable").get();
+        final MBeanServer                  server  = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName                   name    = JmxMetricsExporter.objectName(metrics);
+        assertTrue(server.isRegistered(name));
+        
+        holder.disableMetrics();
+        assertFalse(holder.metrics().isPresent());
+        assertNull(MetricsRegistry.global().get("TestHolderMetrics.disable"));
+        assertFalse(server.isRegistered(name));
+        
+        holder.get();
+        assertEquals(0, metrics.getReadCount());
+        
+        // The name can be used again.
+        holder.enableMetrics("TestHolderMetrics.disable");
+        assertTrue(server.isRegistered(name));
+        holder.disableMetrics();
+    }
+    
+    @Test
+    public void enableMetricsAgain_unregistersThePrevious() throws Exception {
+        final LazyInitializeHolder<String> lazy = LazyInitializeHolder.of(()->"Value");
+        assertReplaced(lazy.enableMetrics("TestHolderMetrics.again.lazy").get(),
+                       lazy.enableMetrics("TestHolderMetrics.again.lazy2").get());
+        lazy.disableMetrics();
+        
+        final ChangeableHolder<String> changeable = ChangeableHolder.of("Value");
+        assertReplaced(changeable.enableMetrics("TestHolderMetrics.again.changeable").get(),
+                       changeable.enableMetrics("TestHolderMetrics.again.changeable2").get());
+        changeable.disableMetrics();
+        
+        // Enabling again with the same name works as the previous one is gone first.
+        final ThreadLocalHolder<String> threadLocal = ThreadLocalHolder.of(()->"Value");
+        assertReplaced(threadLocal.enableMetrics("TestHolderMetrics.again.threadLocal").get(),
+                       threadLocal.enableMetrics("TestHolderMetrics.again.threadLocal").get());
+        threadLocal.get();
+        assertEquals(1, threadLocal.metrics().get().getInstanceCount());
+        threadLocal.disableMetrics();
+    }
+    
+    private void assertReplaced(
+            final HolderMetrics previous,
+            final HolderMetrics current) throws Exception {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertNotSame(previous, current);
+        assertSame(current, MetricsRegistry.global().get(current.getName()));
+        assertTrue(server.isRegistered(JmxMetricsExporter.objectName(current)));
+        if (!previous.getName().equals(current.getName())) {
+            assertNull(MetricsRegistry.global().get(previous.getName()));
+            assertFalse(server.isRegistered(JmxMetricsExporter.objectName(previous)));
+        }
+    }
+    
+    @Test
+    public void registryUnregister_unregistersTheMXBean() throws Exception {
+        final MBeanServer     server   = ManagementFactory.getPlatformMBeanServer();
+        final MetricsRegistry registry = new MetricsRegistry(new JmxMetricsExporter(server));
+        final HolderMetrics   metrics  = registry.create("TestHolderMetrics.unregister", "Test");
+        final ObjectName      name     = JmxMetricsExporter.objectName(metrics);
+        assertTrue(server.isRegistered(name));
+        
+        assertSame(metrics, registry.unregister("TestHolderMetrics.unregister"));
+        assertFalse(server.isRegistered(name));
+        assertFalse(registry.unregister(metrics));
+    }
+    
+    @Test
+    public void instanceCounter_doesNotKeepTheState() throws InterruptedException {
+        final HolderMetrics metrics = new HolderMetrics("TestHolderMetrics.weak", "Test");
+        Set<Object> state = new HashSet<>(Arrays.asList("a", "b"));
+        metrics.setInstanceCounter(state, Set::size);
+        assertEquals(2, metrics.getInstanceCount());
+        
+        final WeakReference<Set<Object>> reference = new WeakReference<>(state);
+        state = null;
+        for (int i = 0; (i < 100) && (reference.get() != null); i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        assertEquals(0, metrics.getInstanceCount());
+    }
+    
+    private static void waitToStartAtTheSameTime(
+            final CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception exception) {
+            throw new AssertionError(exception);
+        }
+    }
+    
+    private static void sleep(
+            final int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+        }
+    }
+    
+}
@@ -0,0 +1,136 @@
+package direct.supplier.switchboard;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import direct.supplier.holder.LazyInitializeHolder;
+
+public class TestBindingRegistry {
+    
+    static final BindingKey<String>  GREETING = BindingKey.of("greeting", String.class);
+    static final BindingKey<Integer> COUNT    = BindingKey.of("count",    Integer.class);
+    
+    @Test
+    public void indexes_areDensePerRegistry() {
+        // Many keys created elsewhere do not make the array of a registry larger.
+        for (int i = 0; i < 1000; i++) {
+            BindingKey.of("unused" + i, String.class);
+        }
+        final BindingKey<String> first  = BindingKey.of("first",  String.class);
+        final BindingKey<String> second = BindingKey.of("second", String.class);
+        
+        final BindingRegistry registry = new BindingRegistry()
+                .bindConstant(second, "2")
+                .bindConstant(first,  "1")
+                .bindConstant(second, "two");
+        final BindingRegistry.Frozen frozen = registry.freeze();
+        assertEquals(2, frozen.bindings.suppliers.length);
+        assertEquals("1",   frozen.get(first));
+        assertEquals("two", frozen.get(second));
+    }
+    
+    @Test
+    public void key_boundInManyRegistries() {
+        final BindingRegistry.Frozen one = new BindingRegistry()
+                .bindConstant(COUNT,    1)
+                .bindConstant(GREETING, "One")
+                .freeze();
+        final BindingRegistry.Frozen two = new BindingRegistry()
+                .bindConstant(GREETING, "Two")
+                .freeze();
+        
+        assertEquals("One",              one.get(GREETING));
+        assertEquals("Two",              two.get(GREETING));
+        assertEquals(Integer.valueOf(1), one.get(COUNT));
+        assertFalse(two.isBound(COUNT));
+    }
+    
+    @Test
+    public void bindAndGet() {
+        final AtomicInteger   counter  = new AtomicInteger();
+        final BindingRegistry registry = new BindingRegistry()
+                .bindConstant(GREETING, "Hello")
+                .bind(COUNT, counter::incrementAndGet);
+        
+        assertTrue(registry.isBound(GREETING));
+        assertEquals("Hello",            registry.get(GREETING));
+        assertEquals(Integer.valueOf(1), registry.get(COUNT));
+        assertEquals(Integer.valueOf(2), registry.supplier(COUNT).get());
+    }
+    
+    @Test
+    public void rebind_replaces() {
+        final BindingRegistry registry = new BindingRegistry().bindConstant(GREETING, "Hello");
+        registry.bindConstant(GREETING, "Hi");
+        assertEquals("Hi", registry.get(GREETING));
+    }
+    
+    @Test
+    public void notBound_exception() {
+        final BindingRegistry registry = new BindingRegistry();
+        assertFalse(registry.isBound(GREETING));
+        try {
+            registry.get(GREETING);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertTrue(exception.getMessage().startsWith("Not bound: "));
+        }
+    }
+    
+    @Test
+    public void freeze_immutable() {
+        final BindingRegistry registry = new BindingRegistry()
+                .bind(GREETING, LazyInitializeHolder.of(()->"Hello"));
+        final BindingRegistry.Frozen frozen = registry.freeze();
+        
+        assertTrue(registry.isFrozen());
+        assertSame(frozen, registry.freeze());
+        assertEquals("Hello", frozen.get(GREETING));
+        assertEquals("Hello", registry.get(GREETING));
+        assertFalse(frozen.isBound(COUNT));
+        
+        try {
+            registry.bindConstant(COUNT, 1);
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("The registry is frozen.", exception.getMessage());
+        }
+        assertFalse(frozen.isBound(COUNT));
+    }
+    
+    @Test
+    public void frozen_ignoresOverrides() {
+        final BindingRegistry.Frozen frozen = new BindingRegistry().bindConstant(GREETING, "Hello").freeze();
+        final String greeting = Overrides.with(GREETING, ()->"Hi").using(()->frozen.get(GREETING));
+        assertFalse(frozen.isOverridable());
+        assertEquals("Hello", greeting);
+    }
+    
+    @Test
+    public void frozenWithOverrides_honorsOverrides() {
+        final BindingRegistry        registry = new BindingRegistry().bindConstant(GREETING, "Hello");
+        final BindingRegistry.Frozen frozen   = registry.freezeWithOverrides();
+        final String greeting = Overrides.with(GREETING, ()->"Hi").using(()->frozen.get(GREETING));
+        assertTrue(frozen.isOverridable());
+        assertEquals("Hi",    greeting);
+        assertEquals("Hello", frozen.get(GREETING));
+        
+        assertSame(frozen, registry.freezeWithOverrides());
+        try {
+            registry.freeze();
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+            assertEquals("The registry is already frozen with the overrides.", exception.getMessage());
+        }
+    }
+    
+    @Test
+    public void registry_honorsOverrides() {
+        final BindingRegistry registry = new BindingRegistry().bindConstant(GREETING, "Hello");
+        assertEquals("Hi", Overrides.with(GREETING, ()->"Hi").using(()->registry.get(GREETING)));
+    }
+    
+}
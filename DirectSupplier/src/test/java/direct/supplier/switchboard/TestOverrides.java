@@ -0,0 +1,130 @@
+package direct.supplier.switchboard;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class TestOverrides {
+    
+    static final BindingKey<String> GREETING = BindingKey.of("greeting", String.class);
+    static final BindingKey<String> NAME     = BindingKey.of("name",     String.class);
+    
+    static String greeting() {
+        final Supplier<? extends String> override = Overrides.isActive() ? Overrides.find(GREETING) : null;
+        return (override != null) ? override.get() : "Hello";
+    }
+    
+    @Test
+    public void noOverrides_inactive() {
+        assertFalse(Overrides.isActive());
+        assertNull(Overrides.find(GREETING));
+        assertEquals("Hello", greeting());
+    }
+    
+    @Test
+    public void using_overridesOnlyDuringTheAction() {
+        final String greeting = Overrides.with(GREETING, ()->"Hi").using(()->{
+            assertTrue(Overrides.isActive());
+            assertNull(Overrides.find(NAME));
+            return greeting();
+        });
+        assertEquals("Hi", greeting);
+        assertFalse(Overrides.isActive());
+        assertEquals("Hello", greeting());
+    }
+    
+    @Test
+    public void nested_innerWinsAndOuterRestored() {
+        Overrides.with(GREETING, ()->"Hi").and(NAME, ()->"Bob").run(()->{
+            Overrides.with(GREETING, ()->"Yo").run(()->{
+                assertEquals("Yo",  greeting());
+                assertEquals("Bob", Overrides.find(NAME).get());
+            });
+            assertEquals("Hi", greeting());
+        });
+        assertEquals("Hello", greeting());
+    }
+    
+    @Test
+    public void exception_restores() {
+        try {
+            Overrides.with(GREETING, ()->"Hi").run(()->{
+                throw new IllegalStateException();
+            });
+            fail("Expect an exception.");
+        } catch (IllegalStateException exception) {
+        }
+        assertFalse(Overrides.isActive());
+    }
+    
+    @Test
+    public void keys_areComparedByIdentity() {
+        final BindingKey<String> other = BindingKey.of("greeting", String.class);
+        Overrides.with(other, ()->"Hi").run(()->{
+            assertEquals("Hello", greeting());
+        });
+    }
+    
+    @Test
+    public void overrides_areOnlyInUseOnTheThread() throws Exception {
+        final CyclicBarrier             barrier = new CyclicBarrier(2);
+        final AtomicReference<String>   other   = new AtomicReference<>();
+        final AtomicReference<Throwable> problem = new AtomicReference<>();
+        final Thread thread = new Thread(()->{
+            try {
+                Overrides.with(GREETING, ()->"Yo").run(()->{
+                    waitToStartAtTheSameTime(barrier);
+                    waitToStartAtTheSameTime(barrier);
+                    other.set(greeting());
+                });
+            } catch (Throwable throwable) {
+                problem.set(throwable);
+            }
+        });
+        thread.start();
+        
+        waitToStartAtTheSameTime(barrier);
+        assertTrue(Overrides.isActive());
+        assertEquals("Hello", greeting());
+        Overrides.with(GREETING, ()->"Hi").run(()->{
+            assertEquals("Hi", greeting());
+        });
+        waitToStartAtTheSameTime(barrier);
+        thread.join();
+        
+        assertNull(problem.get());
+        assertEquals("Yo", other.get());
+        assertFalse(Overrides.isActive());
+    }
+    
+    @Test
+    public void current_canBeUsedOnAnotherThread() throws Exception {
+        final AtomicReference<String> other = new AtomicReference<>();
+        Overrides.with(GREETING, ()->"Hi").run(()->{
+            final Overrides current = Overrides.current();
+            final Thread thread = new Thread(()->current.run(()->other.set(greeting())));
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException exception) {
+                throw new AssertionError(exception);
+            }
+        });
+        assertEquals("Hi", other.get());
+        assertSame(Overrides.none(), Overrides.current());
+    }
+    
+    private static void waitToStartAtTheSameTime(
+            final CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (Exception exception) {
+            throw new AssertionError(exception);
+        }
+    }
+    
+}
@@ -0,0 +1,74 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.AccumulatingHolder;
+import direct.supplier.holder.ChangeableHolder;
+import direct.supplier.holder.LongChangeableHolder;
+import direct.supplier.holder.UpdateMode;
+
+/**
+ * Compares the ways to count with a shared holder -- the increment that every request thread does.
+ * 
+ * Run with more than one thread (JMH's {@code -t} or {@link ThreadScaling}) to see the effect of the contention.
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AccumulatingHolderBenchmark {
+    
+    private ChangeableHolder<Long> synchronizedCounter;
+    private ChangeableHolder<Long> lockFreeCounter;
+    private LongChangeableHolder   primitiveCounter;
+    private AccumulatingHolder     accumulatingCounter;
+    
+    @Setup
+    public void setup() {
+        this.synchronizedCounter = ChangeableHolder.of(ChangeableHolder.NOKEY, 0L, UpdateMode.SYNCHRONIZED);
+        this.lockFreeCounter     = ChangeableHolder.of(ChangeableHolder.NOKEY, 0L, UpdateMode.LOCK_FREE);
+        this.primitiveCounter    = LongChangeableHolder.of(0L);
+        this.accumulatingCounter = AccumulatingHolder.sum();
+    }
+    
+    @Benchmark
+    public boolean changeableHolder_synchronized() {
+        return this.synchronizedCounter.checkAndUpdate(value->true, value->value + 1);
+    }
+    
+    @Benchmark
+    public boolean changeableHolder_lockFree() {
+        return this.lockFreeCounter.checkAndUpdate(value->true, value->value + 1);
+    }
+    
+    @Benchmark
+    public long longChangeableHolder() {
+        return this.primitiveCounter.addAndGet(1L);
+    }
+    
+    @Benchmark
+    public void accumulatingHolder() {
+        this.accumulatingCounter.increment();
+    }
+    
+    @Benchmark
+    public long accumulatingHolder_read() {
+        return this.accumulatingCounter.getAsLong();
+    }
+    
+}
@@ -0,0 +1,95 @@
+package direct.supplier.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.ConstantHolder;
+import direct.supplier.switchboard.BindingKey;
+import direct.supplier.switchboard.BindingRegistry;
+
+/**
+ * Compares looking up a binding by its key -- in a map, in a {@link BindingRegistry} and in the frozen bindings (with
+ *   and without the overrides).
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BindingRegistryBenchmark {
+    
+    private static final int KEY_COUNT = 64;
+    
+    private BindingKey<?>[] keys;
+    
+    private BindingKey<String> key;
+    
+    private Map<BindingKey<?>, Supplier<?>> map;
+    
+    private BindingRegistry registry;
+    
+    private BindingRegistry.Frozen frozen;
+    
+    private BindingKey<String> overridableKey;
+    
+    private BindingRegistry.Frozen frozenWithOverrides;
+    
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() {
+        this.keys     = new BindingKey<?>[KEY_COUNT];
+        this.map      = new HashMap<>();
+        this.registry = new BindingRegistry();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            final BindingKey<String> key = BindingKey.of("key" + i, String.class);
+            this.keys[i] = key;
+            this.map.put(key, ConstantHolder.of("value" + i));
+            this.registry.bindConstant(key, "value" + i);
+        }
+        this.key    = (BindingKey<String>)this.keys[KEY_COUNT / 2];
+        this.frozen = this.registry.freeze();
+        
+        // A key of its own so its index is the one of this registry.
+        this.overridableKey      = BindingKey.of("overridable", String.class);
+        this.frozenWithOverrides = new BindingRegistry()
+                .bindConstant(this.overridableKey, "value")
+                .freezeWithOverrides();
+    }
+    
+    @Benchmark
+    public Object hashMap() {
+        return this.map.get(this.key).get();
+    }
+    
+    @Benchmark
+    public String registry() {
+        return this.registry.get(this.key);
+    }
+    
+    @Benchmark
+    public String frozen() {
+        return this.frozen.get(this.key);
+    }
+    
+    @Benchmark
+    public String frozenWithOverrides() {
+        return this.frozenWithOverrides.get(this.overridableKey);
+    }
+    
+}
@@ -0,0 +1,55 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.ChangeableHolder;
+import direct.supplier.holder.UpdateMode;
+
+/**
+ * Measures the conditional update of a shared {@link ChangeableHolder} in each {@link UpdateMode}.
+ * 
+ * Run with more than one thread (JMH's {@code -t} or {@link ThreadScaling}) to see the effect of the contention.
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChangeableHolderUpdateBenchmark {
+    
+    @Param({ "SYNCHRONIZED", "LOCK_FREE", "LOCK_FREE_WITH_BACKOFF" })
+    private UpdateMode mode;
+    
+    private ChangeableHolder<Long> counter;
+    
+    @Setup
+    public void setup() {
+        this.counter = ChangeableHolder.of(ChangeableHolder.NOKEY, 0L, this.mode);
+    }
+    
+    @Benchmark
+    public boolean checkAndUpdate() {
+        return this.counter.checkAndUpdate(value->true, value->value + 1);
+    }
+    
+    @Benchmark
+    public boolean set() {
+        return this.counter.set(42L);
+    }
+    
+}
@@ -0,0 +1,58 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.FactoryHolder;
+
+/**
+ * Compares a new instance for each use with a recycled one.
+ * 
+ * Run with JMH's {@code -prof gc} to see the allocation rate.
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FactoryHolderBenchmark {
+    
+    private FactoryHolder<StringBuilder> fresh;
+    private FactoryHolder<StringBuilder> recycling;
+    
+    @Setup
+    public void setup() {
+        this.fresh     = FactoryHolder.of(()->new StringBuilder(256));
+        this.recycling = FactoryHolder.recycling(()->new StringBuilder(256), 64, builder->builder.setLength(0));
+    }
+    
+    @Benchmark
+    public int fresh() {
+        final StringBuilder builder = this.fresh.get();
+        final int length = builder.append("value").length();
+        this.fresh.release(builder);
+        return length;
+    }
+    
+    @Benchmark
+    public int recycling() {
+        final StringBuilder builder = this.recycling.get();
+        final int length = builder.append("value").length();
+        this.recycling.release(builder);
+        return length;
+    }
+    
+}
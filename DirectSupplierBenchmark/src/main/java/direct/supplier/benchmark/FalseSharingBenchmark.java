@@ -0,0 +1,105 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.ChangeableHolder;
+import direct.supplier.holder.LazyInitializeHolder;
+import direct.supplier.holder.PaddedLazyInitializeHolder;
+import direct.supplier.holder.UpdateMode;
+
+/**
+ * Shows the false sharing between holders allocated together -- one thread keeps changing a
+ *   {@link ChangeableHolder} while other threads read the {@link LazyInitializeHolder} allocated right after it.
+ * 
+ * In the "shared" group the holders are plain, in the "padded" group they are padded.
+ * Compare the reads of the two groups -- with the plain holders every write invalidates the cache line the readers
+ *   are reading.
+ * The effect only shows with at least as many cores as the threads of the group.
+ * 
+ * @author NawaMan
+ **/
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class FalseSharingBenchmark {
+    
+    @State(Scope.Group)
+    public static class SharedHolders {
+        
+        ChangeableHolder<String>     written;
+        LazyInitializeHolder<String> read;
+        
+        @Setup
+        public void setup() {
+            // Allocated one after the other.
+            this.written = ChangeableHolder.of(ChangeableHolder.NOKEY, "Value", UpdateMode.LOCK_FREE);
+            this.read    = LazyInitializeHolder.of(()->"Value");
+            this.read.get();
+        }
+        
+    }
+    
+    @State(Scope.Group)
+    public static class PaddedHolders {
+        
+        ChangeableHolder<String>           written;
+        PaddedLazyInitializeHolder<String> read;
+        
+        @Setup
+        public void setup() {
+            // Allocated one after the other.
+            this.written = ChangeableHolder.padded(ChangeableHolder.NOKEY, "Value", UpdateMode.LOCK_FREE);
+            this.read    = PaddedLazyInitializeHolder.paddedLazyInitialize(()->"Value");
+            this.read.get();
+        }
+        
+    }
+    
+    @Benchmark
+    @Group("shared")
+    @GroupThreads(1)
+    public boolean shared_write(
+            final SharedHolders holders) {
+        return holders.written.set("Value");
+    }
+    
+    @Benchmark
+    @Group("shared")
+    @GroupThreads(3)
+    public String shared_read(
+            final SharedHolders holders) {
+        return holders.read.get();
+    }
+    
+    @Benchmark
+    @Group("padded")
+    @GroupThreads(1)
+    public boolean padded_write(
+            final PaddedHolders holders) {
+        return holders.written.set("Value");
+    }
+    
+    @Benchmark
+    @Group("padded")
+    @GroupThreads(3)
+    public String padded_read(
+            final PaddedHolders holders) {
+        return holders.read.get();
+    }
+    
+}
@@ -0,0 +1,158 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.ChangeableHolder;
+import direct.supplier.holder.ConstantHolder;
+import direct.supplier.holder.LazyInitializeHolder;
+import direct.supplier.holder.StackThreadLocalHolder;
+import direct.supplier.holder.ThreadLocalHolder;
+
+/**
+ * Measures the cost of {@code get()} of each holder after the value is available.
+ * 
+ * The two baselines -- a plain field read and a raw {@link ThreadLocal} -- are the lower bounds for the application
+ *   scope holders and the thread scope holders respectively.
+ * All the holders are shared by all the benchmark threads so running with more than one thread (JMH's {@code -t} or
+ *   {@link ThreadScaling}) measures the contended read.
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HolderGetBenchmark {
+    
+    private static final String VALUE = "Value";
+    
+    private String                         plainField;
+    private ThreadLocal<String>            rawThreadLocal;
+    private ConstantHolder<String>         constantHolder;
+    private LazyInitializeHolder<String>   lazyInitializeHolder;
+    private ChangeableHolder<String>       changeableHolder;
+    private Supplier<String>               changeableSupplier;
+    private ChangeableHolder<String>       versionedChangeable;
+    private ThreadLocalHolder<String>      threadLocalHolder;
+    private StackThreadLocalHolder<String> stackThreadLocalHolder;
+    private Supplier<String>               stackThreadLocalSupplier;
+    
+    @Setup
+    public void setup() {
+        this.plainField               = VALUE;
+        this.rawThreadLocal           = ThreadLocal.withInitial(()->VALUE);
+        this.constantHolder           = ConstantHolder.of(VALUE);
+        this.lazyInitializeHolder     = LazyInitializeHolder.of(()->VALUE);
+        this.changeableHolder         = ChangeableHolder.of(VALUE);
+        this.changeableSupplier       = this.changeableHolder.getSupplier();
+        this.versionedChangeable      = ChangeableHolder.versioned(VALUE);
+        this.threadLocalHolder        = ThreadLocalHolder.of(()->VALUE);
+        this.stackThreadLocalHolder   = StackThreadLocalHolder.of(()->VALUE);
+        this.stackThreadLocalSupplier = this.stackThreadLocalHolder.getSupplier();
+        
+        // Make sure only the post-initialization cost is measured.
+        this.lazyInitializeHolder.get();
+    }
+    
+    /** Each benchmark thread has its own frame on the stack holder. */
+    @State(Scope.Thread)
+    public static class StackFrame {
+        
+        private StackThreadLocalHolder<String> holder;
+        
+        @Setup(Level.Trial)
+        public void push(
+                final HolderGetBenchmark benchmark) {
+            this.holder = benchmark.stackThreadLocalHolder;
+            this.holder.pushNew();
+            
+            // Make sure the thread local value is created before the measurement.
+            benchmark.rawThreadLocal.get();
+            benchmark.threadLocalHolder.get();
+        }
+        
+        @TearDown(Level.Trial)
+        public void pop() {
+            this.holder.pop();
+        }
+        
+    }
+    
+    //== Baselines =====================================================================================================
+    
+    @Benchmark
+    public String baseline_plainField() {
+        return this.plainField;
+    }
+    
+    @Benchmark
+    public String baseline_rawThreadLocal(
+            final StackFrame frame) {
+        return this.rawThreadLocal.get();
+    }
+    
+    //== Application scope =============================================================================================
+    
+    @Benchmark
+    public String constantHolder() {
+        return this.constantHolder.get();
+    }
+    
+    @Benchmark
+    public String lazyInitializeHolder() {
+        return this.lazyInitializeHolder.get();
+    }
+    
+    @Benchmark
+    public String changeableHolder() {
+        return this.changeableHolder.get();
+    }
+    
+    @Benchmark
+    public String changeableHolder_getSupplier() {
+        return this.changeableSupplier.get();
+    }
+    
+    /** The opt-in stamped entry -- one more dependent load than {@link #changeableHolder()}. */
+    @Benchmark
+    public String changeableHolder_versioned() {
+        return this.versionedChangeable.get();
+    }
+    
+    //== Thread scope ==================================================================================================
+    
+    @Benchmark
+    public String threadLocalHolder(
+            final StackFrame frame) {
+        return this.threadLocalHolder.get();
+    }
+    
+    @Benchmark
+    public String stackThreadLocalHolder(
+            final StackFrame frame) {
+        return this.stackThreadLocalHolder.get();
+    }
+    
+    @Benchmark
+    public String stackThreadLocalHolder_getSupplier(
+            final StackFrame frame) {
+        return this.stackThreadLocalSupplier.get();
+    }
+    
+}
@@ -0,0 +1,61 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.LazyInitializeHolder;
+
+/**
+ * Measures the cost of the holder metrics on a read -- disabled (the default), enabled but not enabled for the holder
+ *   and enabled for the holder.
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class HolderMetricsBenchmark {
+    
+    private LazyInitializeHolder<String> plain;
+    private LazyInitializeHolder<String> measured;
+    
+    @Setup
+    public void setup() {
+        this.plain    = LazyInitializeHolder.of(()->"Value");
+        this.measured = LazyInitializeHolder.of(()->"Value");
+        this.measured.enableMetrics("HolderMetricsBenchmark.measured");
+        this.plain.get();
+        this.measured.get();
+    }
+    
+    @Benchmark
+    public String disabled() {
+        return this.plain.get();
+    }
+    
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-Ddirect.supplier.metrics=true")
+    public String enabled_notForTheHolder() {
+        return this.plain.get();
+    }
+    
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-Ddirect.supplier.metrics=true")
+    public String enabled_forTheHolder() {
+        return this.measured.get();
+    }
+    
+}
@@ -0,0 +1,46 @@
+package direct.supplier.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the executor for the many-threads benchmarks.
+ * 
+ * On a JDK with virtual threads, it is an executor of a new virtual thread per task.
+ * Otherwise, it falls back to a pool of platform threads so the benchmarks still run (but with only a few threads
+ *   holding the thread locals).
+ * The benchmarks are compiled for Java 8 so the virtual-thread executor is looked up reflectively.
+ * 
+ * @author NawaMan
+ **/
+final class ManyThreads {
+    
+    private ManyThreads() {
+    }
+    
+    static boolean isVirtual() {
+        return virtualExecutorFactory() != null;
+    }
+    
+    static ExecutorService newExecutor() {
+        final Method factory = virtualExecutorFactory();
+        if (factory != null) {
+            try {
+                return (ExecutorService)factory.invoke(null);
+            } catch (ReflectiveOperationException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+    
+    private static Method virtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException exception) {
+            return null;
+        }
+    }
+    
+}
@@ -0,0 +1,112 @@
+package direct.supplier.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.RequestScope;
+import direct.supplier.holder.RequestScopedHolder;
+import direct.supplier.holder.StackThreadLocalHolder;
+
+/**
+ * Compares a request using a number of the request-scoped values -- emulated with a {@link StackThreadLocalHolder}
+ *   for each value and with the {@link RequestScopedHolder}s of one {@link RequestScope}.
+ * 
+ * Each request creates the values, reads each one twice and releases them (closing them if {@link AutoCloseable}
+ *   for the request scope).
+ * The request scope is measured both ways: {@code requestScope_passed} reads through the scope at hand (the primary
+ *   API -- one thread-local lookup per request) and {@code requestScope} reads through the holders (one more lookup per
+ *   read).
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RequestScopeBenchmark {
+    
+    @Param({ "1", "4", "16" })
+    private int valueCount;
+    
+    private StackThreadLocalHolder<Object>[] stackHolders;
+    
+    private RequestScopedHolder<Object>[] scopedHolders;
+    
+    @Setup
+    public void setup() {
+        this.stackHolders  = newArray(this.valueCount);
+        this.scopedHolders = newArray(this.valueCount);
+        for (int i = 0; i < this.valueCount; i++) {
+            this.stackHolders[i]  = StackThreadLocalHolder.of(Object::new);
+            this.scopedHolders[i] = RequestScopedHolder.of(Object::new);
+        }
+    }
+    
+    @Benchmark
+    public int stackThreadLocalHolders() {
+        int count = 0;
+        for (StackThreadLocalHolder<Object> holder : this.stackHolders) {
+            holder.pushNew();
+        }
+        try {
+            for (StackThreadLocalHolder<Object> holder : this.stackHolders) {
+                count += (holder.get() != null) ? 1 : 0;
+                count += (holder.get() != null) ? 1 : 0;
+            }
+        } finally {
+            for (StackThreadLocalHolder<Object> holder : this.stackHolders) {
+                holder.pop();
+            }
+        }
+        return count;
+    }
+    
+    @SuppressWarnings("try")
+    @Benchmark
+    public int requestScope() {
+        int count = 0;
+        try (RequestScope scope = RequestScope.open()) {
+            for (RequestScopedHolder<Object> holder : this.scopedHolders) {
+                count += (holder.get() != null) ? 1 : 0;
+                count += (holder.get() != null) ? 1 : 0;
+            }
+        }
+        return count;
+    }
+    
+    @Benchmark
+    public int requestScope_passed() {
+        int count = 0;
+        try (RequestScope scope = RequestScope.open()) {
+            for (RequestScopedHolder<Object> holder : this.scopedHolders) {
+                count += (scope.get(holder) != null) ? 1 : 0;
+                count += (scope.get(holder) != null) ? 1 : 0;
+            }
+        }
+        return count;
+    }
+    
+    /** Returns a typed array of the given length -- the empty array of the element type is made by the compiler. */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    private static <T> T[] newArray(
+            final int  length,
+            final T... empty) {
+        return Arrays.copyOf(empty, length);
+    }
+    
+}
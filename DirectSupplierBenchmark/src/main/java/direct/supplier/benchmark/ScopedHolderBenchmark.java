@@ -0,0 +1,110 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.ScopedHolder;
+import direct.supplier.holder.StackThreadLocalHolder;
+import direct.supplier.holder.ThreadLocalHolder;
+
+/**
+ * Runs a request on each of many (virtual) threads that reads its context from a holder.
+ * 
+ * Each operation is one batch of {@code threads} tasks.
+ * Run with {@code -prof gc} to compare the allocation per batch -- the thread-local holders add a thread-local entry
+ *   (and a context) per thread, the scoped holder shares the context of the submitting thread.
+ * See {@link ScopedHolderFootprint} for the retained heap with all the threads alive.
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScopedHolderBenchmark {
+    
+    @Param({ "100000" })
+    private int threads;
+    
+    private final ThreadLocalHolder<Object[]>      threadLocalHolder      = ThreadLocalHolder.of(()->new Object[4]);
+    private final StackThreadLocalHolder<Object[]> stackThreadLocalHolder = StackThreadLocalHolder.of(()->new Object[4]);
+    private final ScopedHolder<Object[]>           scopedHolder           = ScopedHolder.of(()->new Object[4]);
+    
+    private ExecutorService executor;
+    
+    @Setup
+    public void setup() {
+        this.executor = ManyThreads.newExecutor();
+    }
+    
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        this.executor.shutdown();
+        this.executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    
+    @Benchmark
+    public void threadLocalHolder() throws InterruptedException {
+        runAll(()->consume(this.threadLocalHolder.get()));
+    }
+    
+    @Benchmark
+    public void stackThreadLocalHolder() throws InterruptedException {
+        runAll(()->{
+            this.stackThreadLocalHolder.pushNew();
+            try {
+                consume(this.stackThreadLocalHolder.get());
+            } finally {
+                this.stackThreadLocalHolder.pop();
+            }
+        });
+    }
+    
+    @Benchmark
+    public void scopedHolder() throws Exception {
+        this.scopedHolder.callNew(()->{
+            final ScopedHolder.Snapshot snapshot = ScopedHolder.capture();
+            runAll(snapshot.wrapRunnable(()->consume(this.scopedHolder.get())));
+            return null;
+        });
+    }
+    
+    private void runAll(
+            final Runnable request) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(this.threads);
+        for (int i = 0; i < this.threads; i++) {
+            this.executor.execute(()->{
+                try {
+                    request.run();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+    }
+    
+    private static void consume(
+            final Object[] context) {
+        if (context == null) {
+            throw new IllegalStateException("No context.");
+        }
+    }
+    
+}
@@ -0,0 +1,99 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import direct.supplier.holder.ScopedHolder;
+import direct.supplier.holder.StackThreadLocalHolder;
+import direct.supplier.holder.ThreadLocalHolder;
+
+/**
+ * Measures the heap retained by the context holders while many virtual threads are alive and hold their contexts.
+ * 
+ * Run with {@code java -cp target/benchmarks.jar direct.supplier.benchmark.ScopedHolderFootprint [threads]}.
+ * The number of threads defaults to 100,000.
+ * The numbers are approximate (used heap after {@code System.gc()}) and include the threads themselves so compare
+ *   them with the "none" row.
+ * 
+ * @author NawaMan
+ **/
+public class ScopedHolderFootprint {
+    
+    public static void main(
+            final String[] args) throws Exception {
+        if (!ManyThreads.isVirtual()) {
+            System.out.println("The footprint needs virtual threads (JDK 21+) to keep all the threads alive.");
+            return;
+        }
+        final int threads = (args.length != 0) ? Integer.parseInt(args[0]) : 100_000;
+        System.out.println("Virtual threads: " + threads);
+        
+        final ThreadLocalHolder<Object[]>      threadLocal      = ThreadLocalHolder.of(()->new Object[4]);
+        final StackThreadLocalHolder<Object[]> stackThreadLocal = StackThreadLocalHolder.of(()->new Object[4]);
+        final ScopedHolder<Object[]>           scoped           = ScopedHolder.of(()->new Object[4]);
+        
+        report("none",                   threads, release->release.run());
+        report("ThreadLocalHolder",      threads, release->{
+            threadLocal.get();
+            release.run();
+        });
+        report("StackThreadLocalHolder", threads, release->{
+            stackThreadLocal.pushNew();
+            try {
+                release.run();
+            } finally {
+                stackThreadLocal.pop();
+            }
+        });
+        report("ScopedHolder",           threads, release->{
+            scoped.runNew(release);
+        });
+    }
+    
+    private static void report(
+            final String             name,
+            final int                threads,
+            final Consumer<Runnable> request) {
+        try {
+            final ExecutorService executor = ManyThreads.newExecutor();
+            final CountDownLatch  started  = new CountDownLatch(threads);
+            final CountDownLatch  release  = new CountDownLatch(1);
+            final long            before   = usedHeap();
+            for (int i = 0; i < threads; i++) {
+                executor.execute(()->request.accept(()->{
+                    started.countDown();
+                    awaitQuietly(release);
+                }));
+            }
+            started.await();
+            final long during = usedHeap();
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            System.out.printf("%-24s %,14d bytes %,10.1f bytes/thread%n",
+                    name, during - before, (during - before) / (double)threads);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void awaitQuietly(
+            final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+}
@@ -0,0 +1,122 @@
+package direct.supplier.benchmark;
+
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import direct.supplier.holder.StackThreadLocalHolder;
+
+/**
+ * Compares {@link StackThreadLocalHolder} with the {@code ThreadLocal<Stack>} it used to be built on,
+ *   with shallow and deep nesting.
+ * 
+ * Each benchmark thread has its own state so the stacks are pre-filled to the depth on the measuring thread.
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class StackThreadLocalHolderBenchmark {
+    
+    @Param({ "1", "4", "64" })
+    private int depth;
+    
+    private final StackThreadLocalHolder<Object> holder = StackThreadLocalHolder.of(Object::new);
+    
+    private final ThreadLocal<Stack<Object>> stack = ThreadLocal.withInitial(Stack::new);
+    
+    private final Object frame = new Object();
+    
+    @Setup
+    public void setup() {
+        for (int i = 0; i < this.depth; i++) {
+            this.holder.pushNew();
+            this.stack.get().push(new Object());
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        while (!this.holder.isEmpty()) {
+            this.holder.pop();
+        }
+        this.stack.remove();
+    }
+    
+    //-- Read the top --------------------------------------------------------------------------------------------------
+    
+    @Benchmark
+    public Object stack_get() {
+        final Stack<Object> stack = this.stack.get();
+        return stack.isEmpty() ? null : stack.peek();
+    }
+    
+    @Benchmark
+    public Object holder_get() {
+        return this.holder.get();
+    }
+    
+    //-- Push and pop a frame on top of the depth ----------------------------------------------------------------------
+    
+    @Benchmark
+    public Object stack_pushPop() {
+        this.stack.get().push(this.frame);
+        return this.stack.get().pop();
+    }
+    
+    @Benchmark
+    public Object holder_pushPop() {
+        this.holder.push(this.frame);
+        return this.holder.pop();
+    }
+    
+    @Benchmark
+    public int holder_scope() {
+        try (StackThreadLocalHolder.Scope scope = this.holder.pushScope(this.frame)) {
+            return scope.depth();
+        }
+    }
+    
+    //-- Nest down the depth and unwind back ---------------------------------------------------------------------------
+    
+    @Benchmark
+    public int stack_nestAndUnwind() {
+        final int depth = this.depth;
+        for (int i = 0; i < depth; i++) {
+            this.stack.get().push(this.frame);
+        }
+        for (int i = 0; i < depth; i++) {
+            this.stack.get().pop();
+        }
+        return this.stack.get().size();
+    }
+    
+    @Benchmark
+    public int holder_nestAndUnwind() {
+        final int depth = this.depth;
+        for (int i = 0; i < depth; i++) {
+            this.holder.push(this.frame);
+        }
+        for (int i = 0; i < depth; i++) {
+            this.holder.pop();
+        }
+        return this.holder.size();
+    }
+    
+}
@@ -0,0 +1,62 @@
+package direct.supplier.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the switchboard of the example (a mutable static instance with a lazily-filled supplier) with the
+ *   generated switchboard (a {@code static final} constant behind one override check).
+ * 
+ * @author NawaMan
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SwitchboardBenchmark {
+    
+    /** The switchboard as written in the example. */
+    static class ExampleSwitchboard {
+        
+        static ExampleSwitchboard instance = new ExampleSwitchboard();
+        
+        protected Supplier<String> value;
+        
+        static String value() {
+            final ExampleSwitchboard switchboard = instance;
+            if (switchboard.value == null) {
+                switchboard.value = ()->"Hello";
+            }
+            return switchboard.value.get();
+        }
+        
+    }
+    
+    @Benchmark
+    public String exampleSwitchboard() {
+        return ExampleSwitchboard.value();
+    }
+    
+    @Benchmark
+    public String generatedSwitchboard() {
+        return BenchmarkSwitchboard.greeting();
+    }
+    
+    @Benchmark
+    public String generatedSwitchboard_supplier() {
+        return BenchmarkSwitchboard.greetingSupplier().get();
+    }
+    
+}
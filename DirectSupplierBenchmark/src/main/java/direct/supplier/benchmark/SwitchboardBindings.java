@@ -0,0 +1,19 @@
+package direct.supplier.benchmark;
+
+import direct.supplier.switchboard.Bind;
+import direct.supplier.switchboard.Switchboard;
+
+/**
+ * The bindings of the generated switchboard used by {@link SwitchboardBenchmark}.
+ * 
+ * @author NawaMan
+ **/
+@Switchboard("BenchmarkSwitchboard")
+public class SwitchboardBindings {
+    
+    @Bind
+    public static String greeting() {
+        return "Hello";
+    }
+    
+}
@@ -0,0 +1,57 @@
+package direct.supplier.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+/**
+ * Runs the holder benchmarks with 1, 2, 4, ... threads up to the number of available processors.
+ * 
+ * Any argument is passed on to JMH so the benchmarks can still be filtered and tuned as usual, for example:
+ *   {@code java -cp target/benchmarks.jar direct.supplier.benchmark.ThreadScaling HolderGetBenchmark -f 1}.
+ * The summary of all the runs is printed at the end.
+ * 
+ * @author NawaMan
+ **/
+public class ThreadScaling {
+    
+    public static void main(
+            final String[] args)
+                throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final List<RunResult>    results     = new ArrayList<>();
+        for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+            final OptionsBuilder builder = new OptionsBuilder();
+            builder.parent(commandLine);
+            if (commandLine.getIncludes().isEmpty()) {
+                builder.include(HolderGetBenchmark.class.getSimpleName());
+            }
+            final Options options = builder.threads(threads).build();
+            results.addAll(new Runner(options).run());
+        }
+        
+        final OutputFormat output = OutputFormatFactory.createFormatInstance(System.out, VerboseMode.NORMAL);
+        output.endRun(results);
+    }
+    
+    static int[] threadCounts(
+            final int maxThreads) {
+        final List<Integer> counts = new ArrayList<>();
+        for (int count = 1; count < maxThreads; count *= 2) {
+            counts.add(count);
+        }
+        counts.add(maxThreads);
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+}
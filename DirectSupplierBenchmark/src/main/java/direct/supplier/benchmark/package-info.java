@@ -0,0 +1,11 @@
+/**
+ * JMH benchmarks for DirectSupplier.
+ * 
+ * Build the library first ({@code mvn install} in {@code DirectSupplier}) then package this module and run
+ *   {@code java -jar target/benchmarks.jar} for all the benchmarks or
+ *   {@code java -cp target/benchmarks.jar direct.supplier.benchmark.ThreadScaling} to run the holder benchmarks with
+ *   1, 2, 4, ... up to all available processors threads.
+ * 
+ * @author NawaMan
+ */
+package direct.supplier.benchmark;
@@ -0,0 +1,279 @@
+package direct.supplier.switchboard.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import direct.supplier.switchboard.Bind;
+import direct.supplier.switchboard.Switchboard;
+
+/**
+ * This processor generates the switchboard classes from the declarations annotated with {@link Switchboard}.
+ * 
+ * Each binding is held in a {@code static final} {@code ConstantHolder} of its own nested class so the value is only
+ *   produced on the first request (the class initialization) and, from then on, the JIT sees a constant.
+ * The getter of the binding only checks {@code Overrides.isActive()} before returning the constant -- the overrides
+ *   are looked up only when some are in use.
+ * 
+ * @author NawaMan
+ **/
+public class SwitchboardProcessor extends AbstractProcessor {
+    
+    private static final String SUFFIX    = "Switchboard";
+    private static final String BINDINGS  = "Bindings";
+    private static final String INDENT    = "    ";
+    
+    /** A binding of a switchboard. */
+    static final class Binding {
+        
+        final String name;
+        
+        final String method;
+        
+        final String type;
+        
+        final String rawType;
+        
+        Binding(
+                final String name,
+                final String method,
+                final String type,
+                final String rawType) {
+            this.name    = name;
+            this.method  = method;
+            this.type    = type;
+            this.rawType = rawType;
+        }
+        
+        String keyName() {
+            final StringBuilder keyName = new StringBuilder();
+            for (int i = 0; i < this.name.length(); i++) {
+                final char ch = this.name.charAt(i);
+                if (Character.isUpperCase(ch) && (i != 0) && !Character.isUpperCase(this.name.charAt(i - 1))) {
+                    keyName.append('_');
+                }
+                keyName.append(Character.toUpperCase(ch));
+            }
+            return keyName.toString();
+        }
+        
+        String holderClassName() {
+            return Character.toUpperCase(this.name.charAt(0)) + this.name.substring(1) + "Binding";
+        }
+        
+    }
+    
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        final Set<String> types = new HashSet<>();
+        types.add(Switchboard.class.getCanonicalName());
+        types.add(Bind.class.getCanonicalName());
+        return Collections.unmodifiableSet(types);
+    }
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    @Override
+    public boolean process(
+            final Set<? extends TypeElement> annotations,
+            final RoundEnvironment           environment) {
+        for (Element element : environment.getElementsAnnotatedWith(Bind.class)) {
+            final Element enclosing = element.getEnclosingElement();
+            if (enclosing.getAnnotation(Switchboard.class) == null) {
+                error(element, "@Bind method must be declared in a @Switchboard class.");
+            }
+        }
+        for (Element element : environment.getElementsAnnotatedWith(Switchboard.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@Switchboard must annotate a class.");
+                continue;
+            }
+            process((TypeElement)element);
+        }
+        return true;
+    }
+    
+    private void process(
+            final TypeElement declaration) {
+        final List<Binding> bindings = new ArrayList<>();
+        final Set<String>   names    = new HashSet<>();
+        boolean isValid = true;
+        for (Element member : declaration.getEnclosedElements()) {
+            final Bind bind = member.getAnnotation(Bind.class);
+            if (bind == null) {
+                continue;
+            }
+            final Binding binding = binding((ExecutableElement)member, bind);
+            if (binding == null) {
+                isValid = false;
+            } else if (!names.add(binding.name)) {
+                error(member, "Duplicate binding: " + binding.name);
+                isValid = false;
+            } else {
+                bindings.add(binding);
+            }
+        }
+        if (!isValid) {
+            return;
+        }
+        
+        final PackageElement thePackage  = processingEnv.getElementUtils().getPackageOf(declaration);
+        final String         packageName = thePackage.isUnnamed() ? "" : thePackage.getQualifiedName().toString();
+        final String         className   = className(declaration);
+        final String         fullName    = packageName.isEmpty() ? className : (packageName + "." + className);
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(fullName, declaration);
+            try (Writer writer = file.openWriter()) {
+                writer.write(generate(packageName, className, declaration.getQualifiedName().toString(), bindings));
+            }
+        } catch (IOException exception) {
+            error(declaration, "Failed to generate " + fullName + ": " + exception);
+        }
+    }
+    
+    private Binding binding(
+            final ExecutableElement method,
+            final Bind              bind) {
+        final Set<Modifier> modifiers = method.getModifiers();
+        if (!modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) {
+            error(method, "@Bind method must be static and not private.");
+            return null;
+        }
+        if (!method.getParameters().isEmpty() || (method.getReturnType().getKind() == TypeKind.VOID)) {
+            error(method, "@Bind method must take no parameter and return a value.");
+            return null;
+        }
+        if (!method.getTypeParameters().isEmpty()) {
+            error(method, "@Bind method must not be generic.");
+            return null;
+        }
+        final String name = bind.value().isEmpty() ? method.getSimpleName().toString() : bind.value();
+        if (!SourceVersion.isIdentifier(name) || SourceVersion.isKeyword(name)) {
+            error(method, "Invalid binding name: " + name);
+            return null;
+        }
+        
+        TypeMirror type = method.getReturnType();
+        if (type.getKind().isPrimitive()) {
+            type = processingEnv.getTypeUtils().boxedClass((PrimitiveType)type).asType();
+        }
+        final String rawType = processingEnv.getTypeUtils().erasure(type).toString();
+        return new Binding(name, method.getSimpleName().toString(), type.toString(), rawType);
+    }
+    
+    private static String className(
+            final TypeElement declaration) {
+        final String name = declaration.getAnnotation(Switchboard.class).value();
+        if (!name.isEmpty()) {
+            return name;
+        }
+        final String simpleName = declaration.getSimpleName().toString();
+        if (simpleName.endsWith(BINDINGS) && (simpleName.length() > BINDINGS.length())) {
+            return simpleName.substring(0, simpleName.length() - BINDINGS.length()) + SUFFIX;
+        }
+        return simpleName + SUFFIX;
+    }
+    
+    static String generate(
+            final String        packageName,
+            final String        className,
+            final String        declaration,
+            final List<Binding> bindings) {
+        final StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("import java.util.function.Supplier;\n\n")
+            .append("import direct.supplier.holder.ConstantHolder;\n")
+            .append("import direct.supplier.switchboard.BindingKey;\n")
+            .append("import direct.supplier.switchboard.Overrides;\n\n")
+            .append("/**\n")
+            .append(" * The switchboard of {@link ").append(declaration).append("} -- generated, do not edit.\n")
+            .append(" **/\n")
+            .append("public final class ").append(className).append(" {\n");
+        
+        for (Binding binding : bindings) {
+            code.append(INDENT).append("\n")
+                .append(INDENT).append("/** The key of the binding \"").append(binding.name).append("\". */\n")
+                .append(INDENT).append("public static final BindingKey<").append(binding.type).append("> ")
+                        .append(binding.keyName()).append("\n")
+                .append(INDENT).append(INDENT).append(INDENT).append("= BindingKey.<").append(binding.type)
+                        .append(">of(\"").append(packageName.isEmpty() ? "" : packageName + ".").append(className)
+                        .append(".").append(binding.name).append("\", ").append(binding.rawType).append(".class);\n");
+        }
+        code.append(INDENT).append("\n")
+            .append(INDENT).append("private ").append(className).append("() {\n")
+            .append(INDENT).append("}\n");
+        
+        for (Binding binding : bindings) {
+            final String holderClass = binding.holderClassName();
+            code.append(INDENT).append("\n")
+                .append(INDENT).append("private static final class ").append(holderClass).append(" {\n")
+                .append(INDENT).append(INDENT).append("static final ConstantHolder<").append(binding.type)
+                        .append("> HOLDER = ConstantHolder.of(").append(declaration).append(".")
+                        .append(binding.method).append("());\n")
+                .append(INDENT).append("}\n")
+                .append(INDENT).append("\n")
+                .append(INDENT).append("/**\n")
+                .append(INDENT).append(" * Returns the value of the binding \"").append(binding.name).append("\".\n")
+                .append(INDENT).append(" * \n")
+                .append(INDENT).append(" * @return the value.\n")
+                .append(INDENT).append(" **/\n")
+                .append(INDENT).append("public static ").append(binding.type).append(" ").append(binding.name)
+                        .append("() {\n")
+                .append(INDENT).append(INDENT).append("if (Overrides.isActive()) {\n")
+                .append(INDENT).append(INDENT).append(INDENT).append("final Supplier<? extends ")
+                        .append(binding.type).append("> override = Overrides.find(").append(binding.keyName())
+                        .append(");\n")
+                .append(INDENT).append(INDENT).append(INDENT).append("if (override != null) {\n")
+                .append(INDENT).append(INDENT).append(INDENT).append(INDENT).append("return override.get();\n")
+                .append(INDENT).append(INDENT).append(INDENT).append("}\n")
+                .append(INDENT).append(INDENT).append("}\n")
+                .append(INDENT).append(INDENT).append("return ").append(holderClass).append(".HOLDER.get();\n")
+                .append(INDENT).append("}\n")
+                .append(INDENT).append("\n")
+                .append(INDENT).append("/**\n")
+                .append(INDENT).append(" * Returns the supplier of the binding \"").append(binding.name).append("\".\n")
+                .append(INDENT).append(" * \n")
+                .append(INDENT).append(" * @return the supplier.\n")
+                .append(INDENT).append(" **/\n")
+                .append(INDENT).append("public static Supplier<").append(binding.type).append("> ")
+                        .append(binding.name).append("Supplier() {\n")
+                .append(INDENT).append(INDENT).append("return ").append(className).append("::")
+                        .append(binding.name).append(";\n")
+                .append(INDENT).append("}\n");
+        }
+        code.append(INDENT).append("\n")
+            .append("}\n");
+        return code.toString();
+    }
+    
+    private void error(
+            final Element element,
+            final String  message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+    
+}
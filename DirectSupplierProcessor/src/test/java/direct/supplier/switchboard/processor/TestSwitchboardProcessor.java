@@ -0,0 +1,186 @@
+package direct.supplier.switchboard.processor;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+
+import direct.supplier.holder.ConstantHolder;
+import direct.supplier.switchboard.BindingKey;
+import direct.supplier.switchboard.Overrides;
+import direct.supplier.switchboard.Switchboard;
+
+public class TestSwitchboardProcessor {
+    
+    static final String APP_BINDINGS
+            = "package app;\n"
+            + "import direct.supplier.switchboard.*;\n"
+            + "import java.util.*;\n"
+            + "@Switchboard\n"
+            + "public class AppBindings {\n"
+            + "    public static int created = 0;\n"
+            + "    @Bind public static String greeting() { created++; return \"Hello\"; }\n"
+            + "    @Bind(\"answer\") static int theAnswer() { return 42; }\n"
+            + "    @Bind public static List<String> names() { return Arrays.asList(\"A\", \"B\"); }\n"
+            + "}\n";
+    
+    private static class Compiled {
+        final List<Diagnostic<? extends JavaFileObject>> diagnostics;
+        final ClassLoader                                classLoader;
+        final Path                                       output;
+        Compiled(
+                final List<Diagnostic<? extends JavaFileObject>> diagnostics,
+                final ClassLoader                                classLoader,
+                final Path                                       output) {
+            this.diagnostics = diagnostics;
+            this.classLoader = classLoader;
+            this.output      = output;
+        }
+        boolean hasError() {
+            return diagnostics.stream().anyMatch(diagnostic->diagnostic.getKind() == Diagnostic.Kind.ERROR);
+        }
+        String messages() {
+            final StringBuilder messages = new StringBuilder();
+            diagnostics.forEach(diagnostic->messages.append(diagnostic.getMessage(null)).append("\n"));
+            return messages.toString();
+        }
+    }
+    
+    private static Compiled compile(
+            final String className,
+            final String source) throws IOException {
+        final Path root   = Files.createTempDirectory("switchboard");
+        final Path input  = root.resolve(className.replace('.', '/') + ".java");
+        final Path output = Files.createDirectories(root.resolve("classes"));
+        Files.createDirectories(input.getParent());
+        Files.write(input, source.getBytes(StandardCharsets.UTF_8));
+        
+        final String classpath
+                = location(Switchboard.class) + File.pathSeparator + location(ConstantHolder.class);
+        final JavaCompiler                         compiler    = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject>  diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                    null, files, diagnostics,
+                    Arrays.asList("-classpath", classpath, "-d", output.toString(), "-s", output.toString()),
+                    null,
+                    files.getJavaFileObjects(input.toFile()));
+            task.setProcessors(Arrays.asList(new SwitchboardProcessor()));
+            task.call();
+        }
+        final ClassLoader classLoader
+                = new URLClassLoader(new URL[] { output.toUri().toURL() }, TestSwitchboardProcessor.class.getClassLoader());
+        return new Compiled(diagnostics.getDiagnostics(), classLoader, output);
+    }
+    
+    private static String location(
+            final Class<?> clazz) {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().getPath()).getPath();
+    }
+    
+    private static Object call(
+            final Class<?> clazz,
+            final String   methodName) throws Exception {
+        final Method method = clazz.getMethod(methodName);
+        return method.invoke(null);
+    }
+    
+    @Test
+    public void generatesTheSwitchboard() throws Exception {
+        final Compiled compiled = compile("app.AppBindings", APP_BINDINGS);
+        assertFalse(compiled.messages(), compiled.hasError());
+        
+        final Class<?> switchboard = compiled.classLoader.loadClass("app.AppSwitchboard");
+        final Class<?> bindings    = compiled.classLoader.loadClass("app.AppBindings");
+        assertEquals("Hello",                  call(switchboard, "greeting"));
+        assertEquals(42,                       call(switchboard, "answer"));
+        assertEquals(Arrays.asList("A", "B"),  call(switchboard, "names"));
+        
+        // The value is produced once.
+        call(switchboard, "greeting");
+        assertEquals(1, bindings.getField("created").getInt(null));
+        
+        final Supplier<?> supplier = (Supplier<?>)call(switchboard, "greetingSupplier");
+        assertEquals("Hello", supplier.get());
+        
+        final BindingKey<?> key = (BindingKey<?>)switchboard.getField("GREETING").get(null);
+        assertEquals("app.AppSwitchboard.greeting", key.getName());
+        assertEquals(String.class,                  key.getType());
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    public void overrides() throws Exception {
+        final Compiled compiled = compile("app.AppBindings", APP_BINDINGS);
+        assertFalse(compiled.messages(), compiled.hasError());
+        
+        final Class<?>           switchboard = compiled.classLoader.loadClass("app.AppSwitchboard");
+        final BindingKey<String> key         = (BindingKey<String>)switchboard.getField("GREETING").get(null);
+        final Object greeting = Overrides.with(key, ()->"Test").using(()->{
+            try {
+                assertEquals(42, call(switchboard, "answer"));
+                return call(switchboard, "greeting");
+            } catch (Exception exception) {
+                throw new AssertionError(exception);
+            }
+        });
+        assertEquals("Test",  greeting);
+        assertEquals("Hello", call(switchboard, "greeting"));
+    }
+    
+    @Test
+    public void explicitName() throws Exception {
+        final Compiled compiled = compile("app.Wiring",
+                "package app;\n"
+              + "@direct.supplier.switchboard.Switchboard(\"Board\")\n"
+              + "public class Wiring {\n"
+              + "    @direct.supplier.switchboard.Bind static long id() { return 7L; }\n"
+              + "}\n");
+        assertFalse(compiled.messages(), compiled.hasError());
+        assertEquals(7L, call(compiled.classLoader.loadClass("app.Board"), "id"));
+    }
+    
+    @Test
+    public void invalidBinding_error() throws Exception {
+        final Compiled compiled = compile("app.BadBindings",
+                "package app;\n"
+              + "@direct.supplier.switchboard.Switchboard\n"
+              + "public class BadBindings {\n"
+              + "    @direct.supplier.switchboard.Bind String notStatic() { return null; }\n"
+              + "    @direct.supplier.switchboard.Bind static String withParameter(int i) { return null; }\n"
+              + "}\n");
+        assertTrue(compiled.hasError());
+        assertTrue(compiled.messages().contains("@Bind method must be static and not private."));
+        assertTrue(compiled.messages().contains("@Bind method must take no parameter and return a value."));
+    }
+    
+    @Test
+    public void bindOutsideSwitchboard_error() throws Exception {
+        final Compiled compiled = compile("app.Loose",
+                "package app;\n"
+              + "public class Loose {\n"
+              + "    @direct.supplier.switchboard.Bind static String value() { return null; }\n"
+              + "}\n");
+        assertTrue(compiled.hasError());
+        assertTrue(compiled.messages().contains("@Bind method must be declared in a @Switchboard class."));
+    }
+    
+}